@@ -42,6 +42,13 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         solver = Solver.makeSolver(this);
     }
 
+    /**
+     * @return the solver of this analysis.
+     */
+    public Solver<Node, Fact> getSolver() {
+        return solver;
+    }
+
     @Override
     public DataflowResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
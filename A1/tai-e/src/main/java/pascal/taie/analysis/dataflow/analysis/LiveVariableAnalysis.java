@@ -22,9 +22,11 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
@@ -32,18 +34,27 @@ import pascal.taie.ir.stmt.Stmt;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of classic live variable analysis.
+ * <p>
+ * When option {@code bit-vector} is enabled, the facts are represented
+ * by {@link BitSetFact}s indexed by {@link Var#getIndex()},
+ * otherwise, by hash-based {@link SetFact}s.
  */
 public class LiveVariableAnalysis extends
         AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether use bit-vector facts.
+     */
+    private final boolean bitVector;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitVector = getOptions().getBooleanOrDefault("bit-vector", false);
     }
 
     @Override
@@ -53,57 +64,52 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return new SetFact<Var>();
+        return newInitialFact(cfg);
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return new SetFact<Var>();
+        return new SetFact<>();
     }
 
     @Override
-    public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        if (bitVector) {
+            IR ir = cfg.getIR();
+            return new BitSetFact<>(ir::getVar, ir.getVars().size());
+        }
+        return newInitialFact();
+    }
 
+    @Override
+    public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
         target.union(fact);
     }
-    // true if the transfer changed the in fact, otherwise false.
+
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        //get def and use
         List<RValue> uses = stmt.getUses();
         Optional<LValue> def = stmt.getDef();
 
-
-        // following achieve the IN[B] = use_B U (OUT[B] -def_B)
-
-        //copy the out setFact
-        SetFact<Var> OUT = out.copy();
-
-        //check all right value are var
-//        boolean allvars = uses.stream().allMatch(e->e instanceof Var);
-//        assert  allvars;
-
-        // change to var and use copy construct function to create use_B
-        SetFact<Var> USE = new SetFact<Var>(
-                uses.stream().filter(item-> item instanceof Var)
-                             .map(item ->(Var)item)
-                             .collect(Collectors.toList())
-        );
-
-
-        if( def.isPresent() && def.get() instanceof Var defVar)
-            OUT.remove(defVar);
-        USE.union(OUT);
+        // following achieve the IN[B] = use_B U (OUT[B] - def_B)
+        // copy() preserves the representation of out,
+        // so that the comparison and update below stay word-at-a-time
+        // for bit-vector facts
+        SetFact<Var> newIn = out.copy();
+        if (def.isPresent() && def.get() instanceof Var defVar) {
+            newIn.remove(defVar);
+        }
+        for (RValue use : uses) {
+            if (use instanceof Var useVar) {
+                newIn.add(useVar);
+            }
+        }
 
         // whether in fact is changed
-        boolean ischange = USE.equals(in)? false : true;
-        if(ischange)
-            // pay attention
-            in.set(USE);
-        return ischange;
+        if (!newIn.equals(in)) {
+            in.set(newIn);
+            return true;
+        }
+        return false;
     }
 }
@@ -28,6 +28,11 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+/**
+ * Round-robin solver, which sweeps all nodes of the CFG until
+ * no fact changes. {@link WorkListSolver} is used by default, and this
+ * solver is kept as a reference implementation.
+ */
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
     private static final Logger log = LoggerFactory.getLogger(IterativeSolver.class);
@@ -45,6 +50,7 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         boolean inFactAnyChange = true;
+        int visits = 0;
         log.debug(cfg.toString());
         while(inFactAnyChange) {
             //reset flag
@@ -58,7 +64,9 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
                 var inFact = result.getInFact(node);
                 boolean isChanged = this.analysis.transferNode(node,inFact,result.getOutFact(node));
                 inFactAnyChange = inFactAnyChange || isChanged;
+                ++visits;
             }
         }
+        recordNodeVisits(visits);
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work-list of CFG nodes which always polls the node with the highest
+ * priority, and holds at most one entry for each node.
+ * <p>
+ * For forward analyses, the priorities follow the reverse postorder of
+ * the CFG, i.e., a node is processed before its successors (except for
+ * back edges). For backward analyses, the priorities follow the reverse
+ * postorder of the reversed CFG, i.e., a node is processed before its
+ * predecessors. The order is computed once when the work-list is created,
+ * and membership is tracked by a bitmap indexed by the priorities.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class PriorityWorkList<Node> {
+
+    /**
+     * Nodes sorted by their priorities.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Maps each node to its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Bitmap of the priorities of the nodes in this work-list.
+     */
+    private final BitSet members;
+
+    /**
+     * Number of nodes polled from this work-list.
+     */
+    private int visits;
+
+    /**
+     * Creates a work-list of the nodes in given CFG. The work-list is
+     * initially empty.
+     *
+     * @param forward whether the nodes are ordered for a forward analysis
+     */
+    PriorityWorkList(CFG<Node> cfg, boolean forward) {
+        nodes = forward ?
+                reversePostorder(cfg, cfg.getEntry(), true) :
+                reversePostorder(cfg, cfg.getExit(), false);
+        priorities = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            priorities.put(nodes.get(i), i);
+        }
+        members = new BitSet(nodes.size());
+    }
+
+    /**
+     * Computes reverse postorder of the nodes in {@code cfg} by depth-first
+     * search from {@code root}. The nodes which are not reachable from
+     * {@code root} (e.g., unreachable code) are searched afterwards in the
+     * iteration order of {@code cfg}, so that every node has a priority.
+     *
+     * @param forward if true, searches along successors, otherwise
+     *                along predecessors.
+     */
+    private static <Node> List<Node> reversePostorder(
+            CFG<Node> cfg, Node root, boolean forward) {
+        List<Node> postorder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(cfg.getNumberOfNodes());
+        dfs(cfg, root, forward, visited, postorder);
+        for (Node node : cfg) {
+            if (!visited.contains(node)) {
+                dfs(cfg, node, forward, visited, postorder);
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    /**
+     * Iterative depth-first search, which avoids stack overflow on
+     * the CFGs of large methods.
+     */
+    private static <Node> void dfs(CFG<Node> cfg, Node root, boolean forward,
+                                   Set<Node> visited, List<Node> postorder) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        iterators.push(next(cfg, root, forward).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = iterators.peek();
+            if (it.hasNext()) {
+                Node next = it.next();
+                if (visited.add(next)) {
+                    stack.push(next);
+                    iterators.push(next(cfg, next, forward).iterator());
+                }
+            } else {
+                postorder.add(stack.pop());
+                iterators.pop();
+            }
+        }
+    }
+
+    private static <Node> Collection<Node> next(
+            CFG<Node> cfg, Node node, boolean forward) {
+        return forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node);
+    }
+
+    /**
+     * Adds a node to this work-list if it is not in this work-list.
+     */
+    void add(Node node) {
+        members.set(priorities.get(node));
+    }
+
+    /**
+     * Adds given nodes to this work-list.
+     */
+    void addAll(Collection<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Adds all nodes of the CFG to this work-list.
+     */
+    void addAllNodes() {
+        members.set(0, nodes.size());
+    }
+
+    /**
+     * Removes and returns the node with the highest priority in this work-list.
+     */
+    Node poll() {
+        int i = members.nextSetBit(0);
+        members.clear(i);
+        ++visits;
+        return nodes.get(i);
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * @return the number of nodes polled from this work-list so far.
+     */
+    int getVisits() {
+        return visits;
+    }
+}
@@ -26,6 +26,8 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+import java.util.concurrent.atomic.LongAdder;
+
 //nju wsj begin
 import pascal.taie.analysis.dataflow.fact.SetFact.*;
 
@@ -43,6 +45,12 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Number of node visits performed by this solver, accumulated over
+     * all CFGs it has solved.
+     */
+    private final LongAdder nodeVisits = new LongAdder();
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -52,7 +60,7 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new IterativeSolver<>(analysis);
+        return new WorkListSolver<>(analysis);
     }
 
     /**
@@ -96,8 +104,8 @@ public abstract class Solver<Node, Fact> {
 
         for (Node node : cfg){
             if(node != cfg.getExit()){
-                result.setInFact(node,this.analysis.newInitialFact());
-                result.setOutFact(node,this.analysis.newInitialFact());
+                result.setInFact(node,this.analysis.newInitialFact(cfg));
+                result.setOutFact(node,this.analysis.newInitialFact(cfg));
             }
         }
     }
@@ -113,6 +121,21 @@ public abstract class Solver<Node, Fact> {
         }
     }
 
+    /**
+     * Records that the solver has visited (i.e., met and transferred)
+     * given number of nodes.
+     */
+    protected void recordNodeVisits(int visits) {
+        nodeVisits.add(visits);
+    }
+
+    /**
+     * @return the number of node visits performed by this solver so far.
+     */
+    public long getNodeVisits() {
+        return nodeVisits.sum();
+    }
+
     protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
 
     protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
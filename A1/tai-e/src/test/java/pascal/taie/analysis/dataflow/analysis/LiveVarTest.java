@@ -32,6 +32,11 @@ public class LiveVarTest {
                 LiveVariableAnalysis.ID, "strongly:false");
     }
 
+    void testBitVectorLV(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;bit-vector:true");
+    }
+
     @Test
     public void testAssign() {
         testLV("Assign");
@@ -47,6 +52,11 @@ public class LiveVarTest {
         testLV("BranchLoop");
     }
 
+    @Test
+    public void testBranchLoopBitVector() {
+        testBitVectorLV("BranchLoop");
+    }
+
     @Test
     public void Array() {
         testLV("Array");
@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic methods with nested loops, which are used to
+ * exercise the solvers on CFGs that are much larger than the ones
+ * of the test resources.
+ */
+final class SyntheticMethods {
+
+    private SyntheticMethods() {
+    }
+
+    /**
+     * Generates the IR of a method consisting of nested loops.
+     *
+     * @param numVars       number of int variables in the method
+     * @param loopDepth     nesting depth of the loops
+     * @param loopsPerLevel number of loops in the body of each loop
+     * @param blockSize     number of assignments in each straight-line block
+     * @param seed          seed for choosing the operands of the assignments
+     */
+    static IR generate(int numVars, int loopDepth, int loopsPerLevel,
+                       int blockSize, long seed) {
+        List<Var> vars = new ArrayList<>(numVars);
+        for (int i = 0; i < numVars; ++i) {
+            vars.add(new Var(null, "v" + i, PrimitiveType.INT, i));
+        }
+        List<Stmt> stmts = new ArrayList<>();
+        Random random = new Random(seed);
+        for (Var var : vars) { // define all variables at method entry
+            stmts.add(new AssignLiteral(var, IntLiteral.get(random.nextInt(8))));
+        }
+        generateRegion(stmts, vars, random, loopDepth, loopsPerLevel, blockSize);
+        stmts.add(new Return(vars.get(0)));
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(i);
+        }
+        return new DefaultIR(null, null, List.of(), Set.of(vars.get(0)),
+                vars, stmts, List.of());
+    }
+
+    private static void generateRegion(
+            List<Stmt> stmts, List<Var> vars, Random random,
+            int depth, int loopsPerLevel, int blockSize) {
+        generateBlock(stmts, vars, random, blockSize);
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < loopsPerLevel; ++i) {
+            // head: if (a >= b) goto exit; body; goto head; exit: nop;
+            If head = new If(new ConditionExp(ConditionExp.Op.GE,
+                    pick(vars, random), pick(vars, random)));
+            stmts.add(head);
+            generateRegion(stmts, vars, random, depth - 1, loopsPerLevel, blockSize);
+            Goto backEdge = new Goto();
+            backEdge.setTarget(head);
+            stmts.add(backEdge);
+            Nop exit = new Nop();
+            head.setTarget(exit);
+            stmts.add(exit);
+        }
+        generateBlock(stmts, vars, random, blockSize);
+    }
+
+    private static void generateBlock(
+            List<Stmt> stmts, List<Var> vars, Random random, int blockSize) {
+        for (int i = 0; i < blockSize; ++i) {
+            stmts.add(new Binary(pick(vars, random), new ArithmeticExp(
+                    ArithmeticExp.Op.ADD, pick(vars, random), pick(vars, random))));
+        }
+    }
+
+    private static Var pick(List<Var> vars, Random random) {
+        return vars.get(random.nextInt(vars.size()));
+    }
+
+    /**
+     * Builds the CFG of given IR without exceptional edges.
+     */
+    static CFG<Stmt> buildCFG(IR ir) {
+        return new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false)).analyze(ir);
+    }
+}
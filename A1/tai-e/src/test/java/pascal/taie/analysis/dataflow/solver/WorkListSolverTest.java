@@ -0,0 +1,67 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * Compares {@link WorkListSolver} with the round-robin
+ * {@link IterativeSolver} on large generated methods.
+ */
+public class WorkListSolverTest {
+
+    private static void compareSolvers(int numVars, int loopDepth,
+                                       int loopsPerLevel, int blockSize) {
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(SyntheticMethods.generate(
+                numVars, loopDepth, loopsPerLevel, blockSize, 0));
+        LiveVariableAnalysis analysis = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false));
+        Solver<Stmt, SetFact<Var>> iterative = new IterativeSolver<>(analysis);
+        Solver<Stmt, SetFact<Var>> worklist = new WorkListSolver<>(analysis);
+        DataflowResult<Stmt, SetFact<Var>> expected = iterative.solve(cfg);
+        DataflowResult<Stmt, SetFact<Var>> given = worklist.solve(cfg);
+        for (Stmt stmt : cfg) {
+            Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+            Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+        }
+        Assert.assertTrue(worklist.getNodeVisits() < iterative.getNodeVisits());
+    }
+
+    @Test
+    public void testShallowLoops() {
+        compareSolvers(64, 1, 30, 20);
+    }
+
+    @Test
+    public void testNestedLoops() {
+        compareSolvers(128, 3, 4, 10);
+    }
+}
@@ -75,6 +75,11 @@ public class ConstantPropagation extends
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        // meeting with all-UNDEF target results in fact itself, thus share it
+        if (target.isEmpty()) {
+            target.copyFrom(fact);
+            return;
+        }
         fact.forEach((var,value)->{
             //  如果是int我在进行meet
             if(ConstantPropagation.canHoldInt(var)) {
@@ -22,8 +22,6 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
-import pascal.taie.util.collection.Maps;
-
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -34,6 +32,11 @@ import java.util.stream.Stream;
 
 /**
  * Represents map-like data-flow facts.
+ * <p>
+ * The mappings are kept in a {@link PersistentMap}, thus {@link #copy()}
+ * takes O(1) time, and a fact and its copies share the structure of
+ * their maps except for the parts updated afterwards. Equality checks
+ * skip the structure shared by the two facts.
  *
  * @param <K> type of keys
  * @param <V> type of values
@@ -43,7 +46,7 @@ public class MapFact<K, V> {
     /**
      * The map holding the mappings of this MapFact.
      */
-    protected final Map<K, V> map;
+    protected final PersistentMap<K, V> map;
 
     /**
      * Constructs a new MapFact with the same mappings as specified Map.
@@ -51,7 +54,15 @@ public class MapFact<K, V> {
      * @param map the map whose mappings are to be placed in this map.
      */
     public MapFact(Map<K, V> map) {
-        this.map = Maps.newHybridMap(map);
+        this.map = new PersistentMap<>();
+        this.map.putAll(map);
+    }
+
+    /**
+     * Constructs a new MapFact with the same mappings as given fact.
+     */
+    protected MapFact(MapFact<K, V> fact) {
+        this.map = fact.map.copy();
     }
 
     /**
@@ -89,6 +100,15 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
+        if (map.sharesWith(fact.map)) {
+            return false;
+        }
+        if (map.isEmpty() && getClass() == fact.getClass()) {
+            // the updates would put exactly the mappings of fact,
+            // so just share its map
+            map.setAll(fact.map);
+            return !map.isEmpty();
+        }
         boolean changed = false;
         for (Map.Entry<K, V> entry : fact.map.entrySet()) {
             changed |= update(entry.getKey(), entry.getValue());
@@ -100,7 +120,7 @@ public class MapFact<K, V> {
      * Creates and returns a copy of this fact.
      */
     public MapFact<K, V> copy() {
-        return new MapFact<>(this.map);
+        return new MapFact<>(this);
     }
 
     /**
@@ -110,6 +130,13 @@ public class MapFact<K, V> {
         map.clear();
     }
 
+    /**
+     * @return true if this fact contains no mappings, otherwise false.
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
     /**
      * @return a {@link Set} view of the keys contained in this fact.
      */
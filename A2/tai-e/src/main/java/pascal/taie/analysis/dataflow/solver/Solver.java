@@ -27,6 +27,8 @@ import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Base class for data-flow analysis solver, which provides common
  * functionalities for different solver implementations.
@@ -38,6 +40,12 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Number of node visits performed by this solver, accumulated over
+     * all CFGs it has solved.
+     */
+    private final LongAdder nodeVisits = new LongAdder();
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -102,6 +110,21 @@ public abstract class Solver<Node, Fact> {
         }
     }
 
+    /**
+     * Records that the solver has visited (i.e., met and transferred)
+     * given number of nodes.
+     */
+    protected void recordNodeVisits(int visits) {
+        nodeVisits.add(visits);
+    }
+
+    /**
+     * @return the number of node visits performed by this solver so far.
+     */
+    public long getNodeVisits() {
+        return nodeVisits.sum();
+    }
+
     protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
 
     protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
@@ -25,6 +25,26 @@ tasks.test {
     maxHeapSize = "4G"
 }
 
+// runs the solver benchmark, e.g.,
+// gradle solverBenchmark --args="build/solver-benchmark.csv 20 1000"
+tasks.register<JavaExec>("solverBenchmark") {
+    group = "verification"
+    description = "Benchmarks the data-flow solvers on synthetic methods."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("pascal.taie.analysis.dataflow.solver.SolverBenchmark")
+    maxHeapSize = "4G"
+}
+
+// runs the benchmark of binary operators in constant propagation, e.g.,
+// gradle binaryEvaluatorBenchmark --args="build/binary-evaluator-benchmark.csv 10000 200"
+tasks.register<JavaExec>("binaryEvaluatorBenchmark") {
+    group = "verification"
+    description = "Benchmarks the evaluation of binary operators in constant propagation."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("pascal.taie.analysis.dataflow.analysis.constprop.BinaryEvaluatorBenchmark")
+    maxHeapSize = "4G"
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
@@ -0,0 +1,259 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.config.Configs;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates and executes analyses based on given analysis configurations.
+ * <p>
+ * Consecutive {@link MethodAnalysis}es in the analysis plan are executed
+ * as a pipeline: the methods in scope are processed in parallel, and each
+ * method goes through all analyses of the pipeline in the order of the plan,
+ * e.g., cfg, livevar, constprop and then deadcode, without waiting for
+ * the other methods to finish an analysis. This requires the method
+ * analyses to access only the results of the IR being analyzed,
+ * which holds for the intra-procedural analyses. As each IR is processed
+ * by a single thread, the results are stored in the IR without additional
+ * synchronization, and they do not depend on the order of the methods.
+ * <p>
+ * Different from the analysis manager of Tai-e, the scope option
+ * {@code reachable} (the methods reachable in the call graph) is not
+ * supported, as this assignment does not build call graphs. Only the
+ * scopes {@code app} and {@code all} are accepted.
+ */
+public class AnalysisManager {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
+
+    private List<JClass> classScope;
+
+    private List<JMethod> methodScope;
+
+    /**
+     * Cache of the results of the method analyses which have a positive
+     * option {@code cache-capacity}, or {@code null} if there is no such
+     * analysis.
+     */
+    private ResultCache resultCache;
+
+    public void execute(List<AnalysisConfig> analyses) {
+        List<AnalysisConfig> pipeline = new ArrayList<>();
+        for (AnalysisConfig config : analyses) {
+            if (isMethodAnalysis(config)) {
+                pipeline.add(config);
+            } else {
+                runPipeline(pipeline);
+                Timer.runAndCount(() -> runAnalysis(config), config.getId());
+            }
+        }
+        runPipeline(pipeline);
+        SolverMetrics metrics = World.get().getResult(SolverMetrics.ID);
+        if (metrics != null) {
+            metrics.dump(Configs.getOutputDir());
+        }
+        if (resultCache != null) {
+            logger.info("{}", resultCache);
+        }
+    }
+
+    private static boolean isMethodAnalysis(AnalysisConfig config) {
+        try {
+            return MethodAnalysis.class.isAssignableFrom(
+                    Class.forName(config.getAnalysisClass()));
+        } catch (ClassNotFoundException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private static Analysis createAnalysis(AnalysisConfig config) {
+        try {
+            Class<?> clazz = Class.forName(config.getAnalysisClass());
+            Constructor<?> ctor = clazz.getConstructor(AnalysisConfig.class);
+            return (Analysis) ctor.newInstance(config);
+        } catch (ClassNotFoundException | NoSuchMethodException |
+                 InstantiationException | IllegalAccessException |
+                 InvocationTargetException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private void runAnalysis(AnalysisConfig config) {
+        Analysis analysis = createAnalysis(config);
+        if (analysis instanceof ProgramAnalysis) {
+            runProgramAnalysis((ProgramAnalysis) analysis);
+        } else if (analysis instanceof ClassAnalysis) {
+            runClassAnalysis((ClassAnalysis) analysis);
+        } else {
+            logger.warn(analysis.getClass() + " is not an analysis");
+        }
+    }
+
+    private void runProgramAnalysis(ProgramAnalysis analysis) {
+        Object result = analysis.analyze();
+        if (result != null) {
+            World.get().storeResult(analysis.getId(), result);
+        }
+    }
+
+    private void runClassAnalysis(ClassAnalysis analysis) {
+        getClassScope().parallelStream().forEach(c -> {
+            Object result = analysis.analyze(c);
+            if (result != null) {
+                c.storeResult(analysis.getId(), result);
+            }
+        });
+    }
+
+    private List<JClass> getClassScope() {
+        if (classScope == null) {
+            String scope = World.get().getOptions().getScope();
+            classScope = switch (scope) {
+                case "app" -> World.get().getClassHierarchy()
+                        .applicationClasses().toList();
+                case "all" -> World.get().getClassHierarchy()
+                        .allClasses().toList();
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} classes in scope ({}) of class analyses",
+                    classScope.size(), scope);
+        }
+        return classScope;
+    }
+
+    /**
+     * Runs the method analyses of given configurations as a pipeline
+     * (see the class comment), and clears the configurations.
+     */
+    private void runPipeline(List<AnalysisConfig> configs) {
+        if (configs.isEmpty()) {
+            return;
+        }
+        List<MethodAnalysis> analyses = configs.stream()
+                .map(config -> (MethodAnalysis) createAnalysis(config))
+                .toList();
+        analyses.forEach(this::registerCache);
+        String id = configs.stream()
+                .map(AnalysisConfig::getId)
+                .collect(Collectors.joining("+"));
+        Timer.runAndCount(() -> runMethodAnalyses(analyses), id);
+        configs.clear();
+    }
+
+    /**
+     * Registers given analysis to the result cache if it has a positive
+     * option {@code cache-capacity}, i.e., the maximum total number of
+     * statements of the IRs holding its results.
+     */
+    private void registerCache(MethodAnalysis analysis) {
+        Object option = analysis.getOptions().get("cache-capacity");
+        long capacity = option == null ? 0 : Long.parseLong(option.toString());
+        if (capacity > 0) {
+            if (resultCache == null) {
+                resultCache = World.get().getResult(ResultCache.ID, ResultCache::new);
+            }
+            resultCache.register(analysis, capacity);
+        }
+    }
+
+    private void runMethodAnalyses(List<MethodAnalysis> analyses) {
+        runMethodAnalyses(analyses,
+                getMethodScope().parallelStream().map(JMethod::getIR));
+    }
+
+    /**
+     * Runs given analyses in order on each IR of given stream,
+     * which is parallel when called by {@link #runPipeline(List)}.
+     */
+    void runMethodAnalyses(List<MethodAnalysis> analyses, Stream<IR> irs) {
+        irs.forEach(ir -> {
+            if (resultCache == null) {
+                for (MethodAnalysis analysis : analyses) {
+                    Object result = analysis.analyze(ir);
+                    if (result != null) {
+                        ir.storeResult(analysis.getId(), result);
+                    }
+                }
+                return;
+            }
+            // the results of the IR being analyzed must not be evicted
+            // before the later analyses of the pipeline use them
+            resultCache.enter(ir);
+            try {
+                for (MethodAnalysis analysis : analyses) {
+                    Object result = analysis.analyze(ir);
+                    if (result != null) {
+                        resultCache.put(ir, analysis.getId(), result);
+                    }
+                }
+            } finally {
+                resultCache.exit(ir);
+            }
+        });
+    }
+
+    private List<JMethod> getMethodScope() {
+        if (methodScope == null) {
+            String scope = World.get().getOptions().getScope();
+            // scope "reachable" is not supported, as this assignment
+            // does not build call graphs
+            methodScope = switch (scope) {
+                case "app", "all" -> getClassScope().stream()
+                        .map(JClass::getDeclaredMethods)
+                        .flatMap(Collection::stream)
+                        .filter(m -> !m.isAbstract() && !m.isNative())
+                        .toList();
+                case "reachable" -> throw new ConfigException(
+                        "Scope \"reachable\" is not supported by this" +
+                                " assignment, use \"app\" or \"all\"");
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} methods in scope ({}) of method analyses",
+                    methodScope.size(), scope);
+        }
+        return methodScope;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import pascal.taie.World;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of the results of method analyses, which are kept in
+ * the {@link IR}s as usual, but are evicted (i.e., cleared from the IRs)
+ * in least-recently-used order when the total size of the IRs holding
+ * the results of an analysis exceeds the capacity of the analysis.
+ * An evicted result is recomputed when it is requested by
+ * {@link #get(IR, String)} again.
+ * <p>
+ * The results of an IR which is being analyzed (see {@link #enter(IR)})
+ * are never evicted, so that the analyses of the IR, which may run in
+ * parallel with the analyses of other IRs, never observe the eviction.
+ * As a consequence, the capacity may be exceeded temporarily.
+ * <p>
+ * A cached analysis is recomputed on the IR directly, thus the results
+ * it requires (e.g., the CFG) should not be cached. Evicted results are
+ * only available through this cache, e.g., they are not visible to
+ * {@code ResultProcessor}.
+ */
+public class ResultCache {
+
+    /**
+     * Key of the cache of a run stored in {@link World}.
+     */
+    public static final String ID = "result-cache";
+
+    private final Map<String, Partition> partitions = Maps.newMap();
+
+    /**
+     * IRs which are being analyzed.
+     */
+    private final Set<IR> inFlight = Sets.newSet();
+
+    /**
+     * @return the result of analysis {@code id} on given IR, which is
+     * obtained from the result cache of the current {@link World}
+     * if the analysis is cached, or from the IR otherwise.
+     */
+    public static <R> R getResult(IR ir, String id) {
+        World world = World.get();
+        ResultCache cache = world == null ? null : world.getResult(ID);
+        return cache == null ? ir.getResult(id) : cache.get(ir, id);
+    }
+
+    /**
+     * Caches the results of given analysis.
+     *
+     * @param capacity the maximum total number of statements of
+     *                 the IRs holding the results of the analysis
+     */
+    public synchronized void register(MethodAnalysis analysis, long capacity) {
+        partitions.put(analysis.getId(), new Partition(analysis, capacity));
+    }
+
+    public synchronized boolean isCached(String id) {
+        return partitions.containsKey(id);
+    }
+
+    /**
+     * Marks given IR as being analyzed, so that its results are not evicted.
+     */
+    public synchronized void enter(IR ir) {
+        inFlight.add(ir);
+    }
+
+    /**
+     * Marks given IR as not being analyzed.
+     */
+    public synchronized void exit(IR ir) {
+        inFlight.remove(ir);
+    }
+
+    /**
+     * Stores the result of analysis {@code id} in given IR,
+     * and evicts other results of the analysis if the capacity is exceeded.
+     */
+    public void put(IR ir, String id, Object result) {
+        ir.storeResult(id, result);
+        synchronized (this) {
+            Partition partition = partitions.get(id);
+            if (partition != null) {
+                partition.add(ir);
+            }
+        }
+    }
+
+    /**
+     * @return the result of analysis {@code id} on given IR. If the
+     * analysis is cached and its result has been evicted, the result is
+     * recomputed and stored in the IR again.
+     */
+    public <R> R get(IR ir, String id) {
+        Partition partition;
+        synchronized (this) {
+            partition = partitions.get(id);
+            if (partition == null || partition.touch(ir)) {
+                return ir.getResult(id);
+            }
+        }
+        Object result = partition.analysis.analyze(ir);
+        put(ir, id, result);
+        @SuppressWarnings("unchecked")
+        R r = (R) result;
+        return r;
+    }
+
+    public synchronized long getHits(String id) {
+        return partitions.get(id).hits;
+    }
+
+    public synchronized long getMisses(String id) {
+        return partitions.get(id).misses;
+    }
+
+    public synchronized long getEvictions(String id) {
+        return partitions.get(id).evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return partitions.entrySet()
+                .stream()
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .collect(Collectors.joining(", ", "ResultCache{", "}"));
+    }
+
+    /**
+     * Cached results of an analysis.
+     */
+    private class Partition {
+
+        private final MethodAnalysis analysis;
+
+        private final long capacity;
+
+        /**
+         * IRs holding the results, in least-recently-used order,
+         * mapped to their sizes.
+         */
+        private final LinkedHashMap<IR, Integer> irs =
+                new LinkedHashMap<>(16, 0.75f, true);
+
+        private long size;
+
+        private long hits;
+
+        private long misses;
+
+        private long evictions;
+
+        private Partition(MethodAnalysis analysis, long capacity) {
+            this.analysis = analysis;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Marks the result of given IR as recently used.
+         *
+         * @return true if the result is in the cache, otherwise false.
+         */
+        private boolean touch(IR ir) {
+            if (irs.get(ir) != null) {
+                ++hits;
+                return true;
+            }
+            ++misses;
+            return false;
+        }
+
+        private void add(IR ir) {
+            if (irs.get(ir) == null) {
+                int irSize = Math.max(1, ir.getStmts().size());
+                irs.put(ir, irSize);
+                size += irSize;
+                evict(ir);
+            }
+        }
+
+        /**
+         * Evicts least-recently-used results, except the ones of
+         * {@code added} and the IRs in flight, until the capacity is met.
+         */
+        private void evict(IR added) {
+            Iterator<Map.Entry<IR, Integer>> it = irs.entrySet().iterator();
+            while (size > capacity && it.hasNext()) {
+                Map.Entry<IR, Integer> entry = it.next();
+                IR ir = entry.getKey();
+                if (ir != added && !inFlight.contains(ir)) {
+                    it.remove();
+                    size -= entry.getValue();
+                    ir.clearResult(analysis.getId());
+                    ++evictions;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            long requests = hits + misses;
+            return String.format(Locale.ROOT,
+                    "%d hits, %d misses (hit rate %.2f%%), %d evictions",
+                    hits, misses, requests == 0 ? 0 : 100.0 * hits / requests,
+                    evictions);
+        }
+    }
+}
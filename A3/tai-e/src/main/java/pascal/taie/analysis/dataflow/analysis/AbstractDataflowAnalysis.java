@@ -22,9 +22,11 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.World;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
@@ -40,6 +42,22 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
         solver = Solver.makeSolver(this);
+        if (getOptions().getBooleanOrDefault("metrics", false)) {
+            // the metrics of all analyses of a run are collected together,
+            // and dumped by AnalysisManager when the run finishes
+            solver.enableMetrics(getId(), World.get()
+                    .getResult(SolverMetrics.ID, SolverMetrics::new));
+        }
+        if (getOptions().getBooleanOrDefault("loop-aware", false)) {
+            solver.enableLoopAwareScheduling();
+        }
+    }
+
+    /**
+     * @return the solver of this analysis.
+     */
+    public Solver<Node, Fact> getSolver() {
+        return solver;
     }
 
     @Override
@@ -23,9 +23,14 @@
 package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.ResultCache;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConditionalCPResult;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.analysis.interval.Interval;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalAnalysis;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
@@ -36,14 +41,22 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.*;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
 public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * Whether use {@link FusedDeadCodeDetection}, which does not need
+     * the result of {@link LiveVariableAnalysis}.
+     */
+    private final boolean fused;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        fused = getOptions().getBooleanOrDefault("fused", false);
     }
 
 
@@ -62,12 +75,31 @@ public class DeadCodeDetection extends MethodAnalysis {
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
         // obtain result of constant propagation
         DataflowResult<Stmt, CPFact> constants =
-                ir.getResult(ConstantPropagation.ID);
+                ResultCache.getResult(ir, ConstantPropagation.ID);
+        // obtain result of interval analysis, if it has been run,
+        // which decides the branches whose conditions are not constant
+        DataflowResult<Stmt, IntervalFact> intervals =
+                ResultCache.getResult(ir, IntervalAnalysis.ID);
+        if (fused) {
+            return new FusedDeadCodeDetection(ir, cfg, constants, intervals)
+                    .detect();
+        }
         // obtain result of live variable analysis
         DataflowResult<Stmt, SetFact<Var>> liveVars =
-                ir.getResult(LiveVariableAnalysis.ID);
+                ResultCache.getResult(ir, LiveVariableAnalysis.ID);
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        if (constants instanceof ConditionalCPResult conditional) {
+            // the executable statements have been computed by
+            // conditional constant propagation
+            for (Stmt stmt : ir.getStmts()) {
+                if (!conditional.isExecutable(stmt) ||
+                        isDeadAssignment(stmt, liveVars)) {
+                    deadCode.add(stmt);
+                }
+            }
+            return deadCode;
+        }
         // TODO - finish me
         // Your task is to recognize dead code in ir and add it to deadCode
 
@@ -136,6 +168,8 @@ public class DeadCodeDetection extends MethodAnalysis {
                 CPFact consHistory = constants.getInFact(stmt);
 
                 ConditionExp condition = ((If)stmt).getCondition();
+                Edge.Kind decided = intervals == null ? null :
+                        decideByIntervals(condition, intervals.getInFact(stmt));
 
                 Var ope1=condition.getOperand1();
                 Var ope2=condition.getOperand2();
@@ -184,6 +218,15 @@ public class DeadCodeDetection extends MethodAnalysis {
                         }
                     }
                 }
+                else if (decided != null) {
+                    // the condition is decided by the ranges of its operands
+                    dictionary.put(stmt, true);
+                    for (Edge<Stmt> edge : succEdges) {
+                        if (edge.getKind() == decided) {
+                            addQueue(reach, queue, edge.getTarget());
+                        }
+                    }
+                }
                 else{
 
                     dictionary.put(stmt, true);
@@ -245,6 +288,36 @@ public class DeadCodeDetection extends MethodAnalysis {
         return deadCode;
     }
 
+    /**
+     * @return the kind of the only branch taken by given condition if its
+     * outcome is the same for all values in the intervals of its operands,
+     * otherwise null. A condition whose operands have empty intervals is
+     * not decided, like UNDEF in constant propagation.
+     */
+    @Nullable
+    static Edge.Kind decideByIntervals(ConditionExp condition, IntervalFact in) {
+        if (in.get(condition.getOperand1()).isEmpty() ||
+                in.get(condition.getOperand2()).isEmpty()) {
+            return null;
+        }
+        Interval outcome = IntervalAnalysis.evaluate(condition, in);
+        if (!outcome.isConstant()) {
+            return null;
+        }
+        return outcome.getLow() == 1 ? Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE;
+    }
+
+    /**
+     * @return true if given statement is an assignment to a variable
+     * which is not live after the statement.
+     */
+    private static boolean isDeadAssignment(
+            Stmt stmt, DataflowResult<Stmt, SetFact<Var>> liveVars) {
+        return stmt instanceof AssignStmt<?, ?> assign &&
+                assign.getLValue() instanceof Var var &&
+                !liveVars.getOutFact(stmt).contains(var);
+    }
+
     /**
      * @return true if given RValue has no side effect, otherwise false.
      */
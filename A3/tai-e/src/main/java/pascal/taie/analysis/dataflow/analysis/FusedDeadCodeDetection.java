@@ -0,0 +1,258 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConditionalCPResult;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalAnalysis;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.defuse.DefUseIndex;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Dead code detection which computes live variables by itself instead of
+ * reading the result of {@link LiveVariableAnalysis}, so that both
+ * parts of the detection work on the same index-based representation.
+ * <p>
+ * The CFG is converted once to arrays of successors and predecessors
+ * indexed by {@link Stmt#getIndex()}. Live variables are solved on
+ * {@link BitSet}s indexed by {@link Var#getIndex()}, and the reachable
+ * nodes are searched with a {@link BitSet} of node indexes, where
+ * the branches whose conditions are constant in the result of
+ * {@link ConstantPropagation} are pruned (or, for the result of conditional
+ * constant propagation, the non-executable nodes). The branches decided by
+ * the result of {@link IntervalAnalysis} (if given) are pruned as well.
+ * The detected dead code is
+ * the same as the one of {@link DeadCodeDetection}, whose live variables
+ * are the same as the ones of {@link LiveVariableAnalysis}.
+ */
+final class FusedDeadCodeDetection {
+
+    private final IR ir;
+
+    private final CFG<Stmt> cfg;
+
+    private final DataflowResult<Stmt, CPFact> constants;
+
+    /**
+     * Result of interval analysis, or {@code null} if it has not been run.
+     */
+    private final DataflowResult<Stmt, IntervalFact> intervals;
+
+    /**
+     * CFG nodes indexed by {@link Stmt#getIndex()}.
+     */
+    private final Stmt[] nodes;
+
+    private final int[][] succs;
+
+    private final int[][] preds;
+
+    FusedDeadCodeDetection(IR ir, CFG<Stmt> cfg,
+                           DataflowResult<Stmt, CPFact> constants,
+                           DataflowResult<Stmt, IntervalFact> intervals) {
+        this.ir = ir;
+        this.cfg = cfg;
+        this.constants = constants;
+        this.intervals = intervals;
+        int size = ir.getStmts().size() + 2; // plus entry and exit
+        nodes = new Stmt[size];
+        succs = new int[size][];
+        preds = new int[size][];
+        cfg.forEach(node -> {
+            int i = node.getIndex();
+            nodes[i] = node;
+            succs[i] = cfg.getSuccsOf(node).stream()
+                    .mapToInt(Stmt::getIndex).toArray();
+            preds[i] = cfg.getPredsOf(node).stream()
+                    .mapToInt(Stmt::getIndex).toArray();
+        });
+    }
+
+    Set<Stmt> detect() {
+        BitSet[] liveIn = computeLiveVariables();
+        BitSet reachable = new BitSet(nodes.length);
+        int[] stack = new int[nodes.length];
+        int top = 0;
+        int entry = cfg.getEntry().getIndex();
+        reachable.set(entry);
+        stack[top++] = entry;
+        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        BitSet liveOut = new BitSet();
+        while (top > 0) {
+            int i = stack[--top];
+            Stmt node = nodes[i];
+            if (isDeadAssignment(i, liveIn, liveOut)) {
+                deadCode.add(node);
+            }
+            for (int succ : succs[i]) {
+                if (!reachable.get(succ) && isFeasible(node, nodes[succ])) {
+                    reachable.set(succ);
+                    stack[top++] = succ;
+                }
+            }
+        }
+        for (Stmt stmt : ir.getStmts()) {
+            if (!reachable.get(stmt.getIndex())) {
+                deadCode.add(stmt);
+            }
+        }
+        return deadCode;
+    }
+
+    /**
+     * Solves live variables backward on bit vectors, whose work-list polls
+     * the node with the largest index first.
+     *
+     * @return the live variables before each node.
+     */
+    private BitSet[] computeLiveVariables() {
+        int numVars = ir.getVars().size();
+        BitSet[] uses = new BitSet[nodes.length];
+        int[] defs = new int[nodes.length];
+        BitSet[] liveIn = new BitSet[nodes.length];
+        BitSet workList = new BitSet(nodes.length);
+        DefUseIndex index = DefUseIndex.of(ir);
+        int numStmts = ir.getStmts().size();
+        for (int i = 0; i < nodes.length; ++i) {
+            Stmt node = nodes[i];
+            if (node != null) {
+                BitSet used = uses[i] = new BitSet(numVars);
+                // the entry and exit neither define nor use variables
+                if (i < numStmts) {
+                    index.forEachUseIndex(node, used::set);
+                    defs[i] = index.getDefIndex(node);
+                } else {
+                    defs[i] = -1;
+                }
+                liveIn[i] = new BitSet(numVars);
+                workList.set(i);
+            }
+        }
+        BitSet liveOut = new BitSet(numVars);
+        for (int i = workList.length() - 1; i >= 0;
+             i = workList.previousSetBit(nodes.length - 1)) {
+            workList.clear(i);
+            computeLiveOut(i, liveIn, liveOut);
+            if (defs[i] >= 0) {
+                liveOut.clear(defs[i]);
+            }
+            liveOut.or(uses[i]);
+            if (!liveOut.equals(liveIn[i])) {
+                liveIn[i].clear();
+                liveIn[i].or(liveOut);
+                for (int pred : preds[i]) {
+                    workList.set(pred);
+                }
+            }
+        }
+        return liveIn;
+    }
+
+    /**
+     * Computes the live variables after node {@code i} into {@code result}.
+     */
+    private void computeLiveOut(int i, BitSet[] liveIn, BitSet result) {
+        result.clear();
+        for (int succ : succs[i]) {
+            result.or(liveIn[succ]);
+        }
+    }
+
+    /**
+     * Same as {@link DeadCodeDetection}, an assignment is dead if the
+     * variable it defines is not live after it.
+     */
+    private boolean isDeadAssignment(int i, BitSet[] liveIn, BitSet liveOut) {
+        if (nodes[i] instanceof AssignStmt<?, ?> assign) {
+            LValue lhs = assign.getLValue();
+            if (lhs instanceof Var var) {
+                computeLiveOut(i, liveIn, liveOut);
+                return !liveOut.get(var.getIndex());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if the edge from {@code node} to {@code succ} cannot
+     * be taken as the condition of {@code node} is constant.
+     */
+    private boolean isFeasible(Stmt node, Stmt succ) {
+        if (constants instanceof ConditionalCPResult conditional) {
+            // the search reaches exactly the executable nodes
+            return conditional.isExecutable(succ);
+        }
+        if (node instanceof If ifStmt) {
+            Value cond = ConstantPropagation.evaluate(
+                    ifStmt.getCondition(), constants.getInFact(node));
+            if (cond.isConstant()) {
+                Edge.Kind kind = cond.getConstant() == 1 ?
+                        Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE;
+                return hasEdge(node, succ, kind, 0);
+            }
+            if (intervals != null) {
+                Edge.Kind kind = DeadCodeDetection.decideByIntervals(
+                        ifStmt.getCondition(), intervals.getInFact(node));
+                if (kind != null) {
+                    return hasEdge(node, succ, kind, 0);
+                }
+            }
+        } else if (node instanceof SwitchStmt switchStmt) {
+            Value value = constants.getInFact(node).get(switchStmt.getVar());
+            if (value.isConstant()) {
+                int caseValue = value.getConstant();
+                return switchStmt.getCaseValues().contains(caseValue) ?
+                        hasEdge(node, succ, Edge.Kind.SWITCH_CASE, caseValue) :
+                        succ == switchStmt.getDefaultTarget();
+            }
+        }
+        return true;
+    }
+
+    private boolean hasEdge(Stmt source, Stmt target, Edge.Kind kind, int caseValue) {
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(source)) {
+            if (edge.getTarget() == target && edge.getKind() == kind &&
+                    (kind != Edge.Kind.SWITCH_CASE || edge.getCaseValue() == caseValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
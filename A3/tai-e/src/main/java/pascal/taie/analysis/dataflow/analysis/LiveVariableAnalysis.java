@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -32,18 +33,29 @@ import pascal.taie.ir.stmt.Stmt;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of classic live variable analysis.
+ * <p>
+ * When option {@code bit-vector} is enabled, the facts are represented
+ * by {@link BitSetFact}s indexed by {@link Var#getIndex()}, whose USE and
+ * DEF sets of each statement are computed once per IR, and the transfer
+ * is performed in place without allocation (see {@link LiveVariableFact}).
+ * Otherwise, the facts are represented by hash-based {@link SetFact}s.
  */
 public class LiveVariableAnalysis extends
         AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether use bit-vector facts.
+     */
+    private final boolean bitVector;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitVector = getOptions().getBooleanOrDefault("bit-vector", false);
     }
 
     @Override
@@ -53,57 +65,52 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return new SetFact<Var>();
+        return newInitialFact(cfg);
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return new SetFact<Var>();
+        return new SetFact<>();
+    }
+
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        if (bitVector) {
+            return new LiveVariableFact(cfg.getIR());
+        }
+        return newInitialFact();
     }
 
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
         target.union(fact);
     }
 
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        // TODO - finish me
-        //get def and use
+        if (in instanceof LiveVariableFact liveIn &&
+                out instanceof BitSetFact<Var> bitOut) {
+            return liveIn.transfer(stmt, bitOut);
+        }
         List<RValue> uses = stmt.getUses();
         Optional<LValue> def = stmt.getDef();
 
-
-        // following achieve the IN[B] = use_B U (OUT[B] -def_B)
-
-        //copy the out setFact
-        SetFact<Var> OUT = out.copy();
-
-        //check all right value are var
-//        boolean allvars = uses.stream().allMatch(e->e instanceof Var);
-//        assert  allvars;
-
-        // change to var and use copy construct function to create use_B
-        SetFact<Var> USE = new SetFact<Var>(
-                uses.stream().filter(item-> item instanceof Var)
-                        .map(item ->(Var)item)
-                        .collect(Collectors.toList())
-        );
-
-
-        if( def.isPresent() && def.get() instanceof Var defVar)
-            OUT.remove(defVar);
-        USE.union(OUT);
+        // following achieve the IN[B] = use_B U (OUT[B] - def_B)
+        SetFact<Var> newIn = out.copy();
+        if (def.isPresent() && def.get() instanceof Var defVar) {
+            newIn.remove(defVar);
+        }
+        for (RValue use : uses) {
+            if (use instanceof Var useVar) {
+                newIn.add(useVar);
+            }
+        }
 
         // whether in fact is changed
-        boolean ischange = USE.equals(in)? false : true;
-        if(ischange)
-            // pay attention
-            in.set(USE);
-        return ischange;
+        if (!newIn.equals(in)) {
+            in.set(newIn);
+            return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
+import pascal.taie.analysis.defuse.DefUseIndex;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.List;
+
+/**
+ * Bit-vector fact of {@link LiveVariableAnalysis}, which shares the USE
+ * and DEF sets of the statements of its IR with the other facts of the IR.
+ * The sets are computed once per IR, so that the transfer of a statement
+ * is performed in place on the bit vectors (see {@link #transfer}).
+ */
+final class LiveVariableFact extends BitSetFact<Var> {
+
+    /**
+     * Key of the USE/DEF sets cached in {@link IR}.
+     */
+    private static final String USE_DEF_SETS = "livevar-use-def-sets";
+
+    private final UseDefSets sets;
+
+    LiveVariableFact(IR ir) {
+        super(ir::getVar, ir.getVars().size());
+        sets = ir.getResult(USE_DEF_SETS, () -> new UseDefSets(ir));
+    }
+
+    private LiveVariableFact(LiveVariableFact fact) {
+        super(fact);
+        sets = fact.sets;
+    }
+
+    /**
+     * Sets this fact to {@code USE[stmt] ∪ (out - DEF[stmt])} in place.
+     *
+     * @return true if this fact changed as a result of the call.
+     */
+    boolean transfer(Stmt stmt, BitSetFact<Var> out) {
+        int i = stmt.getIndex();
+        if (i >= sets.defs.length) { // the entry and exit of the CFG
+            return setGenKill(out, -1, sets.empty);
+        }
+        return setGenKill(out, sets.defs[i], sets.uses[i]);
+    }
+
+    @Override
+    public LiveVariableFact copy() {
+        return new LiveVariableFact(this);
+    }
+
+    /**
+     * USE and DEF sets of the statements of an IR, indexed by
+     * {@link Stmt#getIndex()}. As each statement defines at most one
+     * variable, its DEF set is kept as the index of the variable.
+     */
+    private static final class UseDefSets {
+
+        private final BitSetFact<Var>[] uses;
+
+        private final int[] defs;
+
+        private final BitSetFact<Var> empty;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private UseDefSets(IR ir) {
+            DefUseIndex index = DefUseIndex.of(ir);
+            List<Stmt> stmts = ir.getStmts();
+            uses = new BitSetFact[stmts.size()];
+            defs = new int[stmts.size()];
+            // capacity 1 is enough, as the bit vectors grow when needed
+            empty = new BitSetFact<>(ir::getVar, 1);
+            for (Stmt stmt : stmts) {
+                int i = stmt.getIndex();
+                defs[i] = index.getDefIndex(stmt);
+                if (index.getUses(stmt).isEmpty()) {
+                    uses[i] = empty;
+                } else {
+                    BitSetFact<Var> use = new BitSetFact<>(ir::getVar,
+                            ir.getVars().size());
+                    index.getUses(stmt).forEach(use::add);
+                    uses[i] = use;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} backed by primitive arrays indexed by {@link Var#getIndex()},
+ * which keep the kind of the lattice value of each variable in a byte,
+ * and the constant (if any) in an int.
+ * <p>
+ * {@link #update}, {@link #copyFrom} and {@link #meetInto(ArrayCPFact)}
+ * between two such facts do not allocate, and {@link #get} allocates only
+ * for the constants which are not cached by {@link Value}. The transfer
+ * of an assignment is also performed on the arrays by
+ * {@link #copyFromAssigned}. The fact is
+ * converted to a plain {@link CPFact} by {@link #toCPFact()}, e.g., when
+ * it is dumped.
+ */
+public class ArrayCPFact extends CPFact {
+
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    /**
+     * Maps indexes back to variables, which is used when this fact
+     * needs to expose its variables, e.g., {@link #forEach}.
+     */
+    private final IntFunction<Var> indexer;
+
+    private byte[] kinds;
+
+    private int[] constants;
+
+    /**
+     * @param indexer  maps indexes to the corresponding variables
+     * @param capacity the number of variables this fact is expected to hold,
+     *                 i.e., one plus the maximum index of the variables.
+     */
+    public ArrayCPFact(IntFunction<Var> indexer, int capacity) {
+        this(indexer, new byte[capacity], new int[capacity]);
+    }
+
+    private ArrayCPFact(IntFunction<Var> indexer, byte[] kinds, int[] constants) {
+        super(null);
+        this.indexer = indexer;
+        this.kinds = kinds;
+        this.constants = constants;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (kinds.length < capacity) {
+            int newLength = Math.max(2 * kinds.length, capacity);
+            kinds = Arrays.copyOf(kinds, newLength);
+            constants = Arrays.copyOf(constants, newLength);
+        }
+    }
+
+    private static byte kindOf(Value value) {
+        return value.isConstant() ? CONSTANT : value.isNAC() ? NAC : UNDEF;
+    }
+
+    private Value valueAt(int i) {
+        return switch (kinds[i]) {
+            case CONSTANT -> Value.makeConstant(constants[i]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    @Override
+    public Value get(Var key) {
+        int i = key.getIndex();
+        return i < kinds.length ? valueAt(i) : Value.getUndef();
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        byte kind = kindOf(value);
+        int constant = kind == CONSTANT ? value.getConstant() : 0;
+        int i = key.getIndex();
+        if (i >= kinds.length) {
+            if (kind == UNDEF) {
+                return false;
+            }
+            ensureCapacity(i + 1);
+        }
+        return set(i, kind, constant);
+    }
+
+    private boolean set(int i, byte kind, int constant) {
+        if (kinds[i] == kind && constants[i] == constant) {
+            return false;
+        }
+        kinds[i] = kind;
+        constants[i] = constant;
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        int i = key.getIndex();
+        if (i >= kinds.length || kinds[i] == UNDEF) {
+            return null;
+        }
+        Value value = valueAt(i);
+        set(i, UNDEF, 0);
+        return value;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof ArrayCPFact that) {
+            ensureCapacity(that.kinds.length);
+            boolean changed = false;
+            for (int i = 0; i < that.kinds.length; ++i) {
+                if (that.kinds[i] != UNDEF) {
+                    changed |= set(i, that.kinds[i], that.constants[i]);
+                }
+            }
+            return changed;
+        }
+        return super.copyFrom(fact);
+    }
+
+    /**
+     * Copies {@code in}, where {@code def} is updated to the value of
+     * {@code rvalue}, to this fact, i.e., performs the transfer of
+     * an assignment like {@link ConstantPropagation#transferNode}.
+     * The rvalue is evaluated on the arrays of {@code in}, so neither
+     * facts nor {@link Value}s are allocated.
+     *
+     * @return true if this fact changed as a result of the call.
+     */
+    boolean copyFromAssigned(ArrayCPFact in, Var def, RValue rvalue) {
+        byte kind;
+        int constant = 0;
+        if (rvalue instanceof IntLiteral literal) {
+            kind = CONSTANT;
+            constant = literal.getValue();
+        } else if (rvalue instanceof Var var) {
+            kind = in.kindOf(var);
+            constant = in.constantOf(var);
+        } else if (rvalue instanceof BinaryExp binary) {
+            BinaryEvaluator evaluator = BinaryEvaluator.of(binary.getOperator());
+            Var x = binary.getOperand1(), y = binary.getOperand2();
+            byte kindX = in.kindOf(x), kindY = in.kindOf(y);
+            int constantY = in.constantOf(y);
+            if (evaluator.isComparison()) {
+                kind = NAC;
+            } else if (kindX == CONSTANT && kindY == CONSTANT) {
+                if (evaluator.isDivision() && constantY == 0) {
+                    kind = UNDEF;
+                } else {
+                    kind = CONSTANT;
+                    constant = evaluator.fold(in.constantOf(x), constantY);
+                }
+            } else if (kindX == NAC && kindY == CONSTANT && constantY == 0) {
+                kind = evaluator.isDivision() ? UNDEF : NAC;
+            } else {
+                kind = kindX == NAC || kindY == NAC ? NAC : UNDEF;
+            }
+        } else {
+            kind = NAC;
+        }
+        int d = def.getIndex();
+        ensureCapacity(Math.max(in.kinds.length, d + 1));
+        boolean changed = false;
+        for (int i = 0; i < in.kinds.length; ++i) {
+            if (i != d && in.kinds[i] != UNDEF) {
+                changed |= set(i, in.kinds[i], in.constants[i]);
+            }
+        }
+        // like copyFrom, an UNDEF value does not overwrite this fact
+        if (kind != UNDEF) {
+            changed |= set(d, kind, constant);
+        }
+        return changed;
+    }
+
+    private byte kindOf(Var var) {
+        int i = var.getIndex();
+        return i < kinds.length ? kinds[i] : UNDEF;
+    }
+
+    private int constantOf(Var var) {
+        int i = var.getIndex();
+        return i < kinds.length ? constants[i] : 0;
+    }
+
+    /**
+     * Meets this fact into given fact in place.
+     *
+     * @return true if {@code target} changed as a result of the call.
+     */
+    public boolean meetInto(ArrayCPFact target) {
+        target.ensureCapacity(kinds.length);
+        boolean changed = false;
+        for (int i = 0; i < kinds.length; ++i) {
+            byte kind = kinds[i];
+            byte targetKind = target.kinds[i];
+            if (kind == UNDEF || targetKind == NAC) {
+                continue;
+            }
+            if (kind == NAC || targetKind == UNDEF) {
+                changed |= target.set(i, kind, constants[i]);
+            } else if (constants[i] != target.constants[i]) {
+                changed |= target.set(i, NAC, 0);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public ArrayCPFact copy() {
+        return new ArrayCPFact(indexer, kinds.clone(), constants.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(kinds, UNDEF);
+        Arrays.fill(constants, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (byte kind : kinds) {
+            if (kind != UNDEF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        return indexes().mapToObj(indexer)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return indexes().mapToObj(i ->
+                new AbstractMap.SimpleImmutableEntry<>(indexer.apply(i), valueAt(i)));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                action.accept(indexer.apply(i), valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * @return indexes of the variables whose values are not UNDEF.
+     */
+    private IntStream indexes() {
+        return IntStream.range(0, kinds.length).filter(i -> kinds[i] != UNDEF);
+    }
+
+    /**
+     * @return a {@link CPFact} with the same mappings as this fact.
+     */
+    public CPFact toCPFact() {
+        CPFact fact = new CPFact();
+        forEach(fact::update);
+        return fact;
+    }
+
+    /**
+     * Compares the mappings of this fact and given fact, which may be
+     * either an {@link ArrayCPFact} or a plain {@link CPFact}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ArrayCPFact that) {
+            int n = Math.max(kinds.length, that.kinds.length);
+            for (int i = 0; i < n; ++i) {
+                byte kind = i < kinds.length ? kinds[i] : UNDEF;
+                byte thatKind = i < that.kinds.length ? that.kinds[i] : UNDEF;
+                if (kind != thatKind ||
+                        (kind == CONSTANT && constants[i] != that.constants[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (o == null || o.getClass() != CPFact.class) {
+            return false;
+        }
+        CPFact that = (CPFact) o;
+        int size = 0;
+        for (byte kind : kinds) {
+            if (kind != UNDEF) {
+                ++size;
+            }
+        }
+        return size == that.keySet().size() &&
+                that.entries().allMatch(e -> get(e.getKey()).equals(e.getValue()));
+    }
+
+    /**
+     * Consistent with the hash code of a plain {@link CPFact} with
+     * the same mappings, i.e., {@link Map#hashCode()} of the mappings.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                int valueHash = kinds[i] == CONSTANT ?
+                        constants[i] : Value.getNAC().hashCode();
+                hash += indexer.apply(i).hashCode() ^ valueHash;
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toCPFact().toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Evaluator of a binary operator on the lattice of {@link Value}s.
+ * <p>
+ * The evaluator of each operator is created once, so evaluating
+ * a {@link BinaryExp} looks up its operator in a table instead of
+ * testing the operator against every kind of binary expression,
+ * and folds constants by a switch over a precomputed code.
+ * {@link #fold} works on ints, thus it does not allocate,
+ * e.g., for {@link ArrayCPFact}.
+ * <p>
+ * The operands of {@link ComparisonExp}s are longs, floats or doubles,
+ * which are not tracked by constant propagation, thus the results of
+ * comparisons are always NAC (see {@link #isComparison()}).
+ */
+final class BinaryEvaluator {
+
+    private static final int ADD = 0, SUB = 1, MUL = 2, DIV = 3, REM = 4,
+            AND = 5, OR = 6, XOR = 7, SHL = 8, SHR = 9, USHR = 10,
+            EQ = 11, NE = 12, LT = 13, GT = 14, LE = 15, GE = 16,
+            CMP = 17;
+
+    private static final Map<BinaryExp.Op, BinaryEvaluator> evaluators = Maps.newMap();
+
+    static {
+        register(ArithmeticExp.Op.ADD, ADD);
+        register(ArithmeticExp.Op.SUB, SUB);
+        register(ArithmeticExp.Op.MUL, MUL);
+        register(ArithmeticExp.Op.DIV, DIV);
+        register(ArithmeticExp.Op.REM, REM);
+        register(BitwiseExp.Op.AND, AND);
+        register(BitwiseExp.Op.OR, OR);
+        register(BitwiseExp.Op.XOR, XOR);
+        register(ShiftExp.Op.SHL, SHL);
+        register(ShiftExp.Op.SHR, SHR);
+        register(ShiftExp.Op.USHR, USHR);
+        register(ConditionExp.Op.EQ, EQ);
+        register(ConditionExp.Op.NE, NE);
+        register(ConditionExp.Op.LT, LT);
+        register(ConditionExp.Op.GT, GT);
+        register(ConditionExp.Op.LE, LE);
+        register(ConditionExp.Op.GE, GE);
+        register(ComparisonExp.Op.CMP, CMP);
+        register(ComparisonExp.Op.CMPL, CMP);
+        register(ComparisonExp.Op.CMPG, CMP);
+    }
+
+    private static void register(BinaryExp.Op op, int code) {
+        evaluators.put(op, new BinaryEvaluator(code));
+    }
+
+    private final int code;
+
+    private BinaryEvaluator(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the evaluator of given operator.
+     */
+    static BinaryEvaluator of(BinaryExp.Op op) {
+        BinaryEvaluator evaluator = evaluators.get(op);
+        if (evaluator == null) {
+            throw new AnalysisException("Unexpected binary operator: " + op);
+        }
+        return evaluator;
+    }
+
+    /**
+     * @return true if the operator is / or %, whose result is UNDEF
+     * when the divisor is 0 (the execution throws an exception).
+     */
+    boolean isDivision() {
+        return code == DIV || code == REM;
+    }
+
+    /**
+     * @return true if the operator is cmp, cmpl or cmpg, whose result
+     * is always NAC as its operands are not int values.
+     */
+    boolean isComparison() {
+        return code == CMP;
+    }
+
+    /**
+     * Folds two constants. Conditions are folded to 1 (true) or 0 (false).
+     * The caller is responsible for divisions by zero
+     * (see {@link #isDivision()}) and comparisons
+     * (see {@link #isComparison()}).
+     */
+    int fold(int x, int y) {
+        return switch (code) {
+            case ADD -> x + y;
+            case SUB -> x - y;
+            case MUL -> x * y;
+            case DIV -> x / y;
+            case REM -> x % y;
+            case AND -> x & y;
+            case OR -> x | y;
+            case XOR -> x ^ y;
+            case SHL -> x << y;
+            case SHR -> x >> y;
+            case USHR -> x >>> y;
+            case EQ -> x == y ? 1 : 0;
+            case NE -> x != y ? 1 : 0;
+            case LT -> x < y ? 1 : 0;
+            case GT -> x > y ? 1 : 0;
+            case LE -> x <= y ? 1 : 0;
+            case GE -> x >= y ? 1 : 0;
+            default -> throw new AnalysisException("Unexpected code: " + code);
+        };
+    }
+
+    /**
+     * Evaluates the operator on two values.
+     */
+    Value evaluate(Value v1, Value v2) {
+        if (isComparison()) {
+            return Value.getNAC();
+        }
+        if (v1.isConstant() && v2.isConstant()) {
+            int y = v2.getConstant();
+            return isDivision() && y == 0 ?
+                    Value.getUndef() :
+                    Value.makeConstant(fold(v1.getConstant(), y));
+        }
+        if (v1.isNAC() && v2.isConstant() && v2.getConstant() == 0) {
+            // NAC / 0 and NAC % 0 always throw
+            return isDivision() ? Value.getUndef() : Value.getNAC();
+        }
+        return v1.isNAC() || v2.isNAC() ? Value.getNAC() : Value.getUndef();
+    }
+}
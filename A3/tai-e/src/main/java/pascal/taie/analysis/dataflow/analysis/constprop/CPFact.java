@@ -23,8 +23,10 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentMap;
 import pascal.taie.ir.exp.Var;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Map;
 
@@ -48,6 +50,19 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    private CPFact(CPFact fact) {
+        super(fact);
+    }
+
+    /**
+     * Creates a fact backed by given map, which is used as is.
+     * {@link ArrayCPFact} gives {@code null} as it keeps its mappings
+     * in arrays.
+     */
+    protected CPFact(@Nullable PersistentMap<Var, Value> map) {
+        super(map);
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -71,6 +86,23 @@ public class CPFact extends MapFact<Var, Value> {
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(this);
+    }
+
+    /**
+     * Two facts are equal if they have the same mappings, no matter
+     * whether they are plain {@link CPFact}s or {@link ArrayCPFact}s.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof ArrayCPFact) {
+            return o.equals(this);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
     }
 }
@@ -0,0 +1,91 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Result of conditional constant propagation
+ * (see {@link ConditionalConstantPropagation}), which also holds
+ * the CFG edges and nodes found to be executable.
+ * <p>
+ * The facts of the nodes which are not executable are empty,
+ * i.e., all variables are UNDEF.
+ */
+public class ConditionalCPResult extends StmtDataflowResult<CPFact> {
+
+    private final Set<Edge<Stmt>> executableEdges = Sets.newSet();
+
+    /**
+     * Indexes of the executable nodes.
+     */
+    private final BitSet executableNodes = new BitSet();
+
+    ConditionalCPResult(IR ir) {
+        super(ir);
+    }
+
+    /**
+     * Marks given edge and its target as executable.
+     *
+     * @return true if the edge was not executable before.
+     */
+    boolean addExecutableEdge(Edge<Stmt> edge) {
+        if (executableEdges.add(edge)) {
+            executableNodes.set(edge.getTarget().getIndex());
+            return true;
+        }
+        return false;
+    }
+
+    void addExecutableNode(Stmt node) {
+        executableNodes.set(node.getIndex());
+    }
+
+    /**
+     * @return the edges which may be taken in some execution.
+     */
+    public Set<Edge<Stmt>> getExecutableEdges() {
+        return Collections.unmodifiableSet(executableEdges);
+    }
+
+    public boolean isExecutable(Edge<Stmt> edge) {
+        return executableEdges.contains(edge);
+    }
+
+    /**
+     * @return true if given node may be executed, i.e., it is the entry
+     * or the target of an executable edge.
+     */
+    public boolean isExecutable(Stmt node) {
+        return executableNodes.get(node.getIndex());
+    }
+}
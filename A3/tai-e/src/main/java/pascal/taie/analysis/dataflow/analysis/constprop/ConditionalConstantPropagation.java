@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+
+import java.util.BitSet;
+
+/**
+ * Conditional constant propagation, which propagates facts only along
+ * the CFG edges that are executable under the facts computed so far,
+ * in the manner of Wegman and Zadeck's sparse conditional constant
+ * propagation (on the CFG instead of SSA form, which this IR is not in).
+ * <p>
+ * Initially, only the entry node is executable. When a node is processed,
+ * its in-fact is met from the executable in-edges, and its out-edges
+ * become executable according to its kind:
+ * <ul>
+ *     <li>for an {@link If} whose operands hold ints, only the edge of
+ *     the constant condition, or no edge if the condition is UNDEF;</li>
+ *     <li>for a {@link SwitchStmt}, only the edge of the constant case
+ *     (or the default edge), or no edge if the value is UNDEF;</li>
+ *     <li>otherwise, all out-edges.</li>
+ * </ul>
+ * The nodes which never become executable are not transferred at all,
+ * and the facts of infeasible branches are not merged into the facts
+ * after them, so the result is at least as precise as the one of the
+ * dense solver.
+ */
+final class ConditionalConstantPropagation {
+
+    private final ConstantPropagation analysis;
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * CFG nodes indexed by {@link Stmt#getIndex()}.
+     */
+    private final Stmt[] nodes;
+
+    ConditionalConstantPropagation(ConstantPropagation analysis, CFG<Stmt> cfg) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+        nodes = new Stmt[cfg.getIR().getStmts().size() + 2]; // plus entry and exit
+        cfg.forEach(node -> nodes[node.getIndex()] = node);
+    }
+
+    ConditionalCPResult solve() {
+        ConditionalCPResult result = new ConditionalCPResult(cfg.getIR());
+        for (Stmt node : cfg) {
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
+        }
+        Stmt entry = cfg.getEntry();
+        result.setOutFact(entry, analysis.newBoundaryFact(cfg));
+        result.addExecutableNode(entry);
+        BitSet workList = new BitSet(nodes.length);
+        workList.set(entry.getIndex());
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Stmt node = nodes[i];
+            CPFact in = result.getInFact(node);
+            for (Edge<Stmt> inEdge : cfg.getInEdgesOf(node)) {
+                if (result.isExecutable(inEdge)) {
+                    analysis.meetInto(result.getOutFact(inEdge.getSource()), in);
+                }
+            }
+            boolean changed = analysis.transferNode(node, in, result.getOutFact(node));
+            for (Edge<Stmt> outEdge : cfg.getOutEdgesOf(node)) {
+                if (isFeasible(outEdge, in) &&
+                        (result.addExecutableEdge(outEdge) || changed)) {
+                    workList.set(outEdge.getTarget().getIndex());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return whether given out-edge of a node may be taken
+     * when the node is executed with the in-fact {@code in}.
+     */
+    private static boolean isFeasible(Edge<Stmt> edge, CPFact in) {
+        Stmt source = edge.getSource();
+        if (source instanceof If ifStmt &&
+                (edge.getKind() == Edge.Kind.IF_TRUE ||
+                        edge.getKind() == Edge.Kind.IF_FALSE)) {
+            ConditionExp cond = ifStmt.getCondition();
+            if (!ConstantPropagation.canHoldInt(cond.getOperand1()) ||
+                    !ConstantPropagation.canHoldInt(cond.getOperand2())) {
+                // e.g., comparison of references, which are not tracked
+                return true;
+            }
+            Value value = ConstantPropagation.evaluate(cond, in);
+            if (value.isConstant()) {
+                return (value.getConstant() == 1) ==
+                        (edge.getKind() == Edge.Kind.IF_TRUE);
+            }
+            return value.isNAC();
+        }
+        if (source instanceof SwitchStmt switchStmt &&
+                (edge.getKind() == Edge.Kind.SWITCH_CASE ||
+                        edge.getKind() == Edge.Kind.SWITCH_DEFAULT)) {
+            Value value = in.get(switchStmt.getVar());
+            if (value.isConstant()) {
+                int constant = value.getConstant();
+                return edge.getKind() == Edge.Kind.SWITCH_CASE ?
+                        edge.getCaseValue() == constant :
+                        !switchStmt.getCaseValues().contains(constant);
+            }
+            return value.isNAC();
+        }
+        return true;
+    }
+}
@@ -23,8 +23,11 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.DefinitionStmt;
@@ -37,14 +40,68 @@ import polyglot.ast.Assign;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to propagate values along def-use chains
+     * (see {@link SparseConstantPropagation}) instead of solving
+     * the data-flow equations on every node of the CFG.
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether to use {@link ArrayCPFact} as data-flow facts.
+     */
+    private final boolean arrayFact;
+
+    /**
+     * Whether to propagate facts only along executable edges
+     * (see {@link ConditionalConstantPropagation}).
+     */
+    private final boolean conditional;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        arrayFact = getOptions().getBooleanOrDefault("array-fact", false);
+        conditional = getOptions().getBooleanOrDefault("conditional", false);
+        if (conditional || sparse) {
+            // both modes compute the result without the solver,
+            // thus the options of the solver would take no effect
+            for (String option : List.of("metrics", "loop-aware")) {
+                if (getOptions().getBooleanOrDefault(option, false)) {
+                    throw new ConfigException("Option \"" + option +
+                            "\" is not supported by the " +
+                            (conditional ? "conditional" : "sparse") +
+                            " constant propagation");
+                }
+            }
+        }
+    }
+
+    /**
+     * When option {@code conditional} is enabled, the result is
+     * a {@link ConditionalCPResult}, which takes precedence over
+     * option {@code sparse}. Neither of the two modes uses the solver,
+     * so {@link #getSolver()} and its incremental solving still give
+     * the results of the dense, unconditional propagation.
+     */
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (conditional) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new ConditionalConstantPropagation(this, cfg).solve();
+        }
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseConstantPropagation(this, cfg).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -57,7 +114,7 @@ public class ConstantPropagation extends
         // TODO - finish me
         // 空就是undefine
         List<Var> params = cfg.getIR().getParams();
-        CPFact fact = new CPFact();
+        CPFact fact = newInitialFact(cfg);
         for(Var item: params)
             if(ConstantPropagation.canHoldInt(item))
                 fact.update(item,Value.getNAC());
@@ -71,10 +128,29 @@ public class ConstantPropagation extends
         return new CPFact();
     }
 
+    @Override
+    public CPFact newInitialFact(CFG<Stmt> cfg) {
+        if (arrayFact) {
+            IR ir = cfg.getIR();
+            return new ArrayCPFact(ir::getVar, ir.getVars().size());
+        }
+        return newInitialFact();
+    }
+
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        if (fact instanceof ArrayCPFact arrayFact &&
+                target instanceof ArrayCPFact arrayTarget) {
+            arrayFact.meetInto(arrayTarget);
+            return;
+        }
+        // meeting with all-UNDEF target results in fact itself, thus share it
+        if (target.isEmpty()) {
+            target.copyFrom(fact);
+            return;
+        }
         fact.forEach((var,value)->{
             //  如果是int我在进行meet
             if(ConstantPropagation.canHoldInt(var)) {
@@ -104,59 +180,33 @@ public class ConstantPropagation extends
      */
     public Value meetValue(Value v1, Value v2) {
         // TODO - finish me
-        return null;
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else {
+            return v1.equals(v2) ? v1 : Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        //判断是不是赋值语句
-        if (stmt instanceof DefinitionStmt defStmt) {
-            //判断左值是不是空的
-            if (defStmt.getLValue()!=null){
-                Var def_var = (Var)defStmt.getLValue();
-                //判断左值是不是承载int的
-                if(ConstantPropagation.canHoldInt(def_var)) {
-                    // kill
-                    CPFact inCopy = in.copy();
-                    in.remove(def_var);
-
-                    // gen
-                    CPFact gen = new CPFact();
-                    RValue rvalue = defStmt.getRValue();
-
-                    // 分情况讨论
-
-                    // 右值是常量
-                    if (rvalue instanceof IntLiteral intliteral) {
-                        gen.update(def_var, Value.makeConstant(intliteral.getValue()));
-                    }
-                    //右值是函数调用
-                    else if (rvalue instanceof InvokeExp) {
-                        gen.update(def_var,Value.getNAC());
-                    }
-                    else if (rvalue instanceof FieldAccess) {
-                        gen.update(def_var,Value.getNAC());
-                    }
-                    //右值是一个变量
-                    else if (rvalue instanceof Var var) {
-                        Value temp = in.get(var);
-                        gen.update(def_var,temp);
-                    }
-                    //右值是二元表达式
-                    else if (rvalue instanceof BinaryExp bexp) {
-                        Value value = evaluate(bexp, inCopy);
-                        gen.update(def_var, value);
-                    }
-                    //其他任何情况，safe估计为NAC
-                    else {
-                        gen.update(def_var, Value.getNAC());
-                    }
-                    gen.copyFrom(in);
-                    // 更新out
-                    return out.copyFrom(gen);
-                }
+        // definition of a variable which can hold int values
+        if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                defStmt.getLValue() instanceof Var defVar &&
+                canHoldInt(defVar)) {
+            if (in instanceof ArrayCPFact arrayIn &&
+                    out instanceof ArrayCPFact arrayOut) {
+                return arrayOut.copyFromAssigned(arrayIn, defVar, defStmt.getRValue());
             }
+            // kill & gen, without modifying in
+            CPFact gen = in.copy();
+            gen.update(defVar, evaluate(defStmt.getRValue(), in));
+            // update out
+            return out.copyFrom(gen);
         }
         return out.copyFrom(in);
     }
@@ -187,123 +237,38 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
-        BinaryExp bexp = (BinaryExp) exp;
-        BinaryExp.Op op= bexp.getOperator();
-        Var left = bexp.getOperand1();
-        Var right = bexp.getOperand2();
-
-        Value leftValue = in.get(left);
-        Value rightValue = in.get(right);
-
-        // if val(y) and val(z) are constants
-        if(leftValue.isConstant() && rightValue.isConstant()){
-            int leftNumber = leftValue.getConstant();
-            int rightNumber = rightValue.getConstant();
-
-            //条件运算符
-            if(op instanceof ConditionExp.Op){
-                boolean flag = false;
-                if(op==ConditionExp.Op.EQ){
-                    flag = leftNumber==rightNumber;
-                }
-                else if(op==ConditionExp.Op.NE){
-                    flag = leftNumber!=rightNumber;
-                }
-                else if(op==ConditionExp.Op.LT){
-                    flag = leftNumber<rightNumber;
-                }
-                else if(op==ConditionExp.Op.GT){
-                    flag = leftNumber>rightNumber;
-                }
-                else if(op==ConditionExp.Op.LE){
-                    flag = leftNumber<=rightNumber;
-                }
-                else if(op==ConditionExp.Op.GE){
-                    flag = leftNumber>=rightNumber;
-                }
-
-                int flagInt=-1;
-                if (flag) {flagInt = 1;}
-                else{
-                    flagInt=0;
-                }
-                return Value.makeConstant(flagInt);
-            }
-
-            //常规操作
-            //+ - * / %
-            if(op instanceof  ArithmeticExp.Op){
-                //除以0的错误
-                if((op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM) && rightValue.getConstant()==0){
-                    return Value.getUndef();
-                }
-                int number =-1;
-                if(op == ArithmeticExp.Op.ADD){
-                    number=leftNumber+rightNumber;
-                }
-                else if(op == ArithmeticExp.Op.SUB){
-                    number=leftNumber-rightNumber;
-                }
-                else if(op == ArithmeticExp.Op.MUL){
-                    number=leftNumber*rightNumber;
-                }
-                else if(op == ArithmeticExp.Op.DIV){
-                    number=leftNumber/rightNumber;
-                }
-                else if (op == ArithmeticExp.Op.REM){
-                    number=leftNumber%rightNumber;
-                }
-                return Value.makeConstant(number);
-            }
-
-            // Shift << >> >>>
-            if(op instanceof ShiftExp.Op){
-                int number = -1;
-                if (op == ShiftExp.Op.SHL){
-                    number=leftNumber<<rightNumber;
-                }
-                else if(op == ShiftExp.Op.SHR){
-                    number=leftNumber>>rightNumber;
-                }
-                else if(op== ShiftExp.Op.USHR){
-                    number=leftNumber>>>rightNumber;
-                }
-                return Value.makeConstant(number);
-            }
+        // variables and binary expressions, which are evaluated on every
+        // visit of their statements, look up the fact directly instead of
+        // allocating a function that does it
+        if (exp instanceof Var var) {
+            return in.get(var);
+        }
+        if (exp instanceof BinaryExp bexp) {
+            return BinaryEvaluator.of(bexp.getOperator()).evaluate(
+                    in.get(bexp.getOperand1()), in.get(bexp.getOperand2()));
+        }
+        return evaluate(exp, in::get);
+    }
 
-            // Bitwise	| & ^
-            if(op instanceof BitwiseExp.Op){
-                int number = -1;
-                if (op == BitwiseExp.Op.AND){
-                    number=leftNumber&rightNumber;
-                }
-                else if(op == BitwiseExp.Op.OR){
-                    number=leftNumber|rightNumber;
-                }
-                else if(op == BitwiseExp.Op.XOR){
-                    number=leftNumber^rightNumber;
-                }
-                return Value.makeConstant(number);
-            }
-            return Value.getUndef();
+    /**
+     * Evaluates the {@link Value} of given expression, where the values
+     * of the variables in the expression are given by {@code valueOf}.
+     */
+    static Value evaluate(Exp exp, Function<Var, Value> valueOf) {
+        // int literal
+        if (exp instanceof IntLiteral intLiteral) {
+            return Value.makeConstant(intLiteral.getValue());
         }
-        // NAC / 0  NAC % 0
-        else if(leftValue.isNAC() && rightValue.isConstant() && rightValue.getConstant()==0){
-            if(op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM){
-                return Value.getUndef();
-            }
-            else{
-                return Value.getNAC();
-            }
+        // variable
+        if (exp instanceof Var var) {
+            return valueOf.apply(var);
         }
-        // if val(y) or val(z) is NAC
-        else if (leftValue.isNAC() || rightValue.isNAC()) {
+        // invocations, field accesses and the other expressions are safely NAC
+        if (!(exp instanceof BinaryExp bexp)) {
             return Value.getNAC();
         }
-        else{
-            return Value.getUndef();
-        }
-        //return Value.getUndef();
+        return BinaryEvaluator.of(bexp.getOperator()).evaluate(
+                valueOf.apply(bexp.getOperand1()),
+                valueOf.apply(bexp.getOperand2()));
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.defuse.DefUseChains;
+import pascal.taie.analysis.defuse.ReachingDefinitions;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.BitSet;
+
+/**
+ * Sparse solver of constant propagation, which propagates {@link Value}s
+ * along def-use chains instead of carrying a {@link CPFact} through every
+ * node of the CFG.
+ * <p>
+ * As the IR is not in SSA form, the def-use chains are derived from the
+ * reaching definitions of the variables (see {@link DefUseChains}),
+ * which are computed once per CFG. Each definition of an int variable
+ * then holds a single value, and is re-evaluated only when the value of
+ * a definition reaching one of its operands changes. The {@link CPFact}s
+ * of a node are materialized from the values of its reaching definitions
+ * when they are queried, and they are equal to the facts computed by
+ * the dense solver. Thus the {@link ReachingDefinitions} of the CFG
+ * are held by the result, and are released together with it.
+ */
+final class SparseConstantPropagation {
+
+    private final ConstantPropagation analysis;
+
+    private final CFG<Stmt> cfg;
+
+    private final ReachingDefinitions reachingDefs;
+
+    private final DefUseChains chains;
+
+    /**
+     * Values of the definitions of int variables, indexed by
+     * {@link Stmt#getIndex()}, or null for the other statements.
+     */
+    private final Value[] values;
+
+    SparseConstantPropagation(ConstantPropagation analysis, CFG<Stmt> cfg) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+        this.reachingDefs = new ReachingDefinitions(cfg);
+        this.chains = new DefUseChains(reachingDefs);
+        this.values = new Value[cfg.getIR().getStmts().size()];
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        propagate();
+        return new Result();
+    }
+
+    /**
+     * Propagates values along def-use chains. The value of a definition
+     * only moves up the lattice (it is met with its previous value),
+     * which guarantees termination and matches the dense solver, whose
+     * facts are never lowered either.
+     */
+    private void propagate() {
+        IR ir = cfg.getIR();
+        BitSet workList = new BitSet(values.length);
+        for (Stmt stmt : ir) {
+            Var def = chains.getIndex().getDef(stmt);
+            if (def != null && ConstantPropagation.canHoldInt(def)) {
+                values[stmt.getIndex()] = Value.getUndef();
+                workList.set(stmt.getIndex());
+            }
+        }
+        for (int i = workList.nextSetBit(0); i >= 0;
+             i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Stmt stmt = ir.getStmt(i);
+            Value value = analysis.meetValue(values[i], ConstantPropagation.evaluate(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue(),
+                    var -> valueAt(stmt, var)));
+            if (!value.equals(values[i])) {
+                values[i] = value;
+                for (Stmt user : chains.getUses(stmt)) {
+                    if (values[user.getIndex()] != null) {
+                        workList.set(user.getIndex());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the value of {@code var} used by {@code stmt}, i.e.,
+     * the meet of the values of its reaching definitions.
+     */
+    private Value valueAt(Stmt stmt, Var var) {
+        Value value = Value.getUndef();
+        if (ConstantPropagation.canHoldInt(var)) {
+            for (Stmt def : chains.getDefs(stmt, var)) {
+                value = analysis.meetValue(value, valueOf(def));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the fact which maps each int variable to the meet of the
+     * values of its definitions reaching the program point before given node.
+     */
+    private CPFact materializeIn(Stmt node) {
+        CPFact fact = analysis.newInitialFact(cfg);
+        reachingDefs.forEachReachingDef(node, (var, def) -> {
+            if (ConstantPropagation.canHoldInt(var)) {
+                fact.update(var, analysis.meetValue(fact.get(var), valueOf(def)));
+            }
+        });
+        return fact;
+    }
+
+    /**
+     * @return the value of given definition, where the parameters
+     * defined by the entry are NAC.
+     */
+    private Value valueOf(Stmt def) {
+        return def == cfg.getEntry() ? Value.getNAC() : values[def.getIndex()];
+    }
+
+    /**
+     * Result of the sparse solver, which materializes the facts of each
+     * node from the values of the definitions when they are queried
+     * for the first time.
+     */
+    private class Result extends DataflowResult<Stmt, CPFact> {
+
+        private final CPFact[] inFacts;
+
+        private final CPFact[] outFacts;
+
+        private Result() {
+            super(null, null);
+            int size = values.length + 2; // plus entry and exit
+            inFacts = new CPFact[size];
+            outFacts = new CPFact[size];
+        }
+
+        @Override
+        public CPFact getInFact(Stmt node) {
+            int i = indexOf(node);
+            if (i < 0) {
+                return null;
+            }
+            if (inFacts[i] == null) {
+                inFacts[i] = materializeIn(node);
+            }
+            return inFacts[i];
+        }
+
+        /**
+         * The OUT fact of a node is its IN fact, where the variable defined
+         * by the node only holds the value of the definition.
+         */
+        @Override
+        public CPFact getOutFact(Stmt node) {
+            int i = indexOf(node);
+            if (i < 0) {
+                return null;
+            }
+            if (outFacts[i] == null) {
+                CPFact out = getInFact(node).copy();
+                if (node == cfg.getEntry()) {
+                    for (Var param : cfg.getIR().getParams()) {
+                        if (ConstantPropagation.canHoldInt(param)) {
+                            out.update(param, Value.getNAC());
+                        }
+                    }
+                } else if (i < values.length && values[i] != null) {
+                    out.update(chains.getIndex().getDef(node), values[i]);
+                }
+                outFacts[i] = out;
+            }
+            return outFacts[i];
+        }
+
+        private int indexOf(Stmt node) {
+            int i = node.getIndex();
+            return i >= 0 && i < inFacts.length && cfg.hasNode(node) ? i : -1;
+        }
+
+        @Override
+        public void setInFact(Stmt node, CPFact fact) {
+            inFacts[node.getIndex()] = fact;
+        }
+
+        @Override
+        public void setOutFact(Stmt node, CPFact fact) {
+            outFacts[node.getIndex()] = fact;
+        }
+    }
+}
@@ -51,6 +51,18 @@ public class Value {
         }
     }
 
+    private static final int RECENT_BITS = 10;
+
+    /**
+     * Recently made constants out of the range of {@link #cache}, so that
+     * making the same constant again, e.g., when an expression is evaluated
+     * on every visit of its statement, does not allocate. Each constant
+     * has a fixed slot, which keeps the last constant made for it.
+     * The slots are updated without synchronization, which is safe
+     * as values are immutable.
+     */
+    private static final Value[] recent = new Value[1 << RECENT_BITS];
+
     private final Kind kind;
 
     private final int value;
@@ -82,7 +94,14 @@ public class Value {
         if (value >= -128 && value <= 127) { // will cache
             return cache[value + offset];
         }
-        return new Value(value);
+        // Fibonacci hashing spreads nearby constants over the slots
+        int slot = (value * 0x9E3779B9) >>> (Integer.SIZE - RECENT_BITS);
+        Value constant = recent[slot];
+        if (constant == null || constant.value != value) {
+            constant = new Value(value);
+            recent[slot] = constant;
+        }
+        return constant;
     }
 
     /**
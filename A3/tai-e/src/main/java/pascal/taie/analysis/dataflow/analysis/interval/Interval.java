@@ -0,0 +1,206 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+/**
+ * Represents lattice values in interval analysis, i.e., ranges of int
+ * values {@code [low, high]}. The bounds {@link Integer#MIN_VALUE} and
+ * {@link Integer#MAX_VALUE} stand for negative and positive infinity.
+ * The empty interval (bottom) is the initial value of every variable,
+ * like UNDEF in constant propagation.
+ * <p>
+ * The arithmetic of intervals is performed on longs, and a result which
+ * exceeds the range of int is the full interval, as int operations wrap
+ * around on overflow.
+ */
+public final class Interval {
+
+    private static final Interval EMPTY =
+            new Interval(Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    private static final Interval FULL =
+            new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private static final Interval FALSE = new Interval(0, 0);
+
+    private static final Interval TRUE = new Interval(1, 1);
+
+    private static final Interval BOOLEAN = new Interval(0, 1);
+
+    private final int low;
+
+    private final int high;
+
+    private Interval(int low, int high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * @return the empty interval.
+     */
+    public static Interval getEmpty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the interval of all int values.
+     */
+    public static Interval getFull() {
+        return FULL;
+    }
+
+    /**
+     * @return the interval {@code [low, high]}, which is empty
+     * if {@code low > high}.
+     */
+    public static Interval of(int low, int high) {
+        if (low > high) {
+            return EMPTY;
+        }
+        if (low == Integer.MIN_VALUE && high == Integer.MAX_VALUE) {
+            return FULL;
+        }
+        return new Interval(low, high);
+    }
+
+    /**
+     * @return the interval {@code [low, high]}, or the full interval
+     * if the bounds exceed the range of int.
+     */
+    static Interval ofLongs(long low, long high) {
+        if (low > high) {
+            return EMPTY;
+        }
+        if (low < Integer.MIN_VALUE || high > Integer.MAX_VALUE) {
+            return FULL;
+        }
+        return of((int) low, (int) high);
+    }
+
+    /**
+     * @return the interval of a single value.
+     */
+    public static Interval makeConstant(int value) {
+        return value == 0 ? FALSE : value == 1 ? TRUE : new Interval(value, value);
+    }
+
+    /**
+     * @return the interval of a condition, i.e., {@code [1, 1]} if it
+     * must hold, {@code [0, 0]} if it cannot hold, and {@code [0, 1]}
+     * otherwise.
+     */
+    static Interval ofCondition(boolean mayHold, boolean mayNotHold) {
+        return mayHold ? (mayNotHold ? BOOLEAN : TRUE) : FALSE;
+    }
+
+    public boolean isEmpty() {
+        return low > high;
+    }
+
+    public boolean isFull() {
+        return low == Integer.MIN_VALUE && high == Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return true if this interval holds exactly one value.
+     */
+    public boolean isConstant() {
+        return low == high;
+    }
+
+    /**
+     * @return the lower bound of this interval, which is meaningless
+     * if this interval is empty.
+     */
+    public int getLow() {
+        return low;
+    }
+
+    /**
+     * @return the upper bound of this interval, which is meaningless
+     * if this interval is empty.
+     */
+    public int getHigh() {
+        return high;
+    }
+
+    public boolean contains(int value) {
+        return low <= value && value <= high;
+    }
+
+    /**
+     * @return the smallest interval containing both intervals.
+     */
+    public Interval join(Interval other) {
+        return of(Math.min(low, other.low), Math.max(high, other.high));
+    }
+
+    /**
+     * @return the intersection of both intervals.
+     */
+    public Interval meet(Interval other) {
+        return of(Math.max(low, other.low), Math.min(high, other.high));
+    }
+
+    /**
+     * Widens this interval with the next one, i.e., every bound which
+     * is not stable is moved to infinity.
+     */
+    public Interval widen(Interval next) {
+        if (isEmpty()) {
+            return next;
+        }
+        if (next.isEmpty()) {
+            return this;
+        }
+        return of(next.low < low ? Integer.MIN_VALUE : low,
+                next.high > high ? Integer.MAX_VALUE : high);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Interval that)) {
+            return false;
+        }
+        return isEmpty() ? that.isEmpty() :
+                low == that.low && high == that.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return isEmpty() ? 0 : 31 * low + high;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "EMPTY";
+        }
+        return "[" + (low == Integer.MIN_VALUE ? "-inf" : low) + ", " +
+                (high == Integer.MAX_VALUE ? "+inf" : high) + "]";
+    }
+}
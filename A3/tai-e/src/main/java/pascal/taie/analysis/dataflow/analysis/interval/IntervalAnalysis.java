@@ -0,0 +1,430 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.DominatorTree;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.BitSet;
+
+/**
+ * Interval analysis, which computes a range of values for each int
+ * variable. Unlike constant propagation, it keeps loop counters bounded,
+ * e.g., {@code i} is in {@code [0, +inf]} in {@code for (i = 0; ...; ++i)},
+ * and it refines the intervals of the operands of an {@link If} along
+ * its true and false edges.
+ * <p>
+ * As the lattice has infinite ascending chains, the facts are widened at
+ * the widening points of the CFG, i.e., the targets of retreating edges
+ * (which are the loop heads in reducible CFGs) and the nodes unreachable
+ * from the entry. Every cycle of the CFG contains a widening point, thus
+ * the solver terminates after a few iterations of each loop, regardless
+ * of its trip count. Option {@code widening} disables widening, which is
+ * only useful for comparison, as the solver then iterates once per value
+ * of a loop counter, or does not terminate at all.
+ */
+public class IntervalAnalysis extends
+        AbstractDataflowAnalysis<Stmt, IntervalFact> {
+
+    public static final String ID = "interval";
+
+    /**
+     * Key of the widening points of a CFG cached in its IR.
+     */
+    private static final String WIDENING_POINTS = ID + "-widening-points";
+
+    /**
+     * Key of the variables of a method indexed by {@link Var#getIndex()},
+     * which are cached in its IR and shared by the facts of the method.
+     */
+    private static final String VARS = ID + "-vars";
+
+    private final boolean widening;
+
+    public IntervalAnalysis(AnalysisConfig config) {
+        super(config);
+        widening = getOptions().getBooleanOrDefault("widening", true);
+    }
+
+    @Override
+    public boolean isForward() {
+        return true;
+    }
+
+    @Override
+    public IntervalFact newBoundaryFact(CFG<Stmt> cfg) {
+        IntervalFact fact = newInitialFact(cfg);
+        for (Var param : cfg.getIR().getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                fact.update(param, Interval.getFull());
+            }
+        }
+        return fact;
+    }
+
+    /**
+     * @return a fact where all intervals are empty, which is not created
+     * for a specific method, thus it grows as variables are updated,
+     * and is never widened.
+     */
+    @Override
+    public IntervalFact newInitialFact() {
+        return new IntervalFact(new Var[0], new BitSet(0));
+    }
+
+    @Override
+    public IntervalFact newInitialFact(CFG<Stmt> cfg) {
+        IR ir = cfg.getIR();
+        return new IntervalFact(ir.getResult(VARS,
+                () -> ir.getVars().toArray(new Var[0])),
+                getWideningPoints(cfg));
+    }
+
+    /**
+     * @return the indexes of the widening points of given CFG, which are
+     * computed once and cached in its IR.
+     */
+    private BitSet getWideningPoints(CFG<Stmt> cfg) {
+        if (!widening) {
+            return new BitSet(0);
+        }
+        WideningPoints points = cfg.getIR().getResult(WIDENING_POINTS);
+        if (points == null || points.cfg != cfg) {
+            points = new WideningPoints(cfg, computeWideningPoints(cfg));
+            cfg.getIR().storeResult(WIDENING_POINTS, points);
+        }
+        return points.indexes;
+    }
+
+    private record WideningPoints(CFG<Stmt> cfg, BitSet indexes) {
+    }
+
+    private static BitSet computeWideningPoints(CFG<Stmt> cfg) {
+        DominatorTree<Stmt> dominators = DominatorTree.of(cfg);
+        BitSet points = new BitSet(cfg.getNumberOfNodes());
+        for (Stmt node : cfg) {
+            int i = dominators.indexOf(node);
+            if (i < 0) {
+                points.set(node.getIndex());
+                continue;
+            }
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                // retreating edges go to a node which is not after
+                // their sources in reverse postorder
+                if (dominators.indexOf(pred) >= i) {
+                    points.set(node.getIndex());
+                    break;
+                }
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public void meetInto(IntervalFact fact, IntervalFact target) {
+        fact.joinInto(target);
+    }
+
+    @Override
+    public boolean transferNode(Stmt stmt, IntervalFact in, IntervalFact out) {
+        Var def = null;
+        Interval value = null;
+        if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                defStmt.getLValue() instanceof Var defVar &&
+                ConstantPropagation.canHoldInt(defVar)) {
+            def = defVar;
+            value = evaluate(defStmt.getRValue(), in);
+        }
+        return out.assign(in, def, value, out.isWideningPoint(stmt));
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<Stmt> edge) {
+        return (edge.getKind() == Edge.Kind.IF_TRUE ||
+                edge.getKind() == Edge.Kind.IF_FALSE) &&
+                edge.getSource() instanceof If ifStmt &&
+                ConstantPropagation.canHoldInt(ifStmt.getCondition().getOperand1()) &&
+                ConstantPropagation.canHoldInt(ifStmt.getCondition().getOperand2());
+    }
+
+    /**
+     * Refines the intervals of the operands of the condition of an
+     * {@link If} by the outcome of the condition on the edge. If the
+     * outcome is impossible, no values flow along the edge, i.e.,
+     * all intervals are empty.
+     */
+    @Override
+    public IntervalFact transferEdge(Edge<Stmt> edge, IntervalFact nodeFact) {
+        ConditionExp cond = ((If) edge.getSource()).getCondition();
+        ConditionExp.Op op = edge.getKind() == Edge.Kind.IF_TRUE ?
+                cond.getOperator() : negate(cond.getOperator());
+        Var x = cond.getOperand1(), y = cond.getOperand2();
+        Interval a = nodeFact.get(x), b = nodeFact.get(y);
+        if (a.isEmpty() || b.isEmpty()) {
+            return nodeFact;
+        }
+        Interval refinedX = refine(op, a, b);
+        Interval refinedY = refine(swap(op), b, a);
+        if (x == y) {
+            refinedX = refinedY = refinedX.meet(refinedY);
+        }
+        IntervalFact fact = nodeFact.copy();
+        if (refinedX.isEmpty() || refinedY.isEmpty()) {
+            fact.clear();
+        } else {
+            fact.update(x, refinedX);
+            fact.update(y, refinedY);
+        }
+        return fact;
+    }
+
+    /**
+     * @return the values of {@code a} for which {@code a op b} may hold.
+     */
+    private static Interval refine(ConditionExp.Op op, Interval a, Interval b) {
+        return switch (op) {
+            case EQ -> a.meet(b);
+            case NE -> {
+                if (b.isConstant() && b.getLow() == a.getLow()) {
+                    yield Interval.ofLongs(a.getLow() + 1L, a.getHigh());
+                } else if (b.isConstant() && b.getLow() == a.getHigh()) {
+                    yield Interval.ofLongs(a.getLow(), a.getHigh() - 1L);
+                }
+                yield a;
+            }
+            case LT -> a.meet(Interval.ofLongs(Integer.MIN_VALUE, b.getHigh() - 1L));
+            case LE -> a.meet(Interval.of(Integer.MIN_VALUE, b.getHigh()));
+            case GT -> a.meet(Interval.ofLongs(b.getLow() + 1L, Integer.MAX_VALUE));
+            case GE -> a.meet(Interval.of(b.getLow(), Integer.MAX_VALUE));
+        };
+    }
+
+    /**
+     * @return the operator which holds iff {@code op} does not hold.
+     */
+    private static ConditionExp.Op negate(ConditionExp.Op op) {
+        return switch (op) {
+            case EQ -> ConditionExp.Op.NE;
+            case NE -> ConditionExp.Op.EQ;
+            case LT -> ConditionExp.Op.GE;
+            case GE -> ConditionExp.Op.LT;
+            case GT -> ConditionExp.Op.LE;
+            case LE -> ConditionExp.Op.GT;
+        };
+    }
+
+    /**
+     * @return the operator {@code op'} such that {@code b op' a}
+     * iff {@code a op b}.
+     */
+    private static ConditionExp.Op swap(ConditionExp.Op op) {
+        return switch (op) {
+            case EQ, NE -> op;
+            case LT -> ConditionExp.Op.GT;
+            case GT -> ConditionExp.Op.LT;
+            case LE -> ConditionExp.Op.GE;
+            case GE -> ConditionExp.Op.LE;
+        };
+    }
+
+    /**
+     * Evaluates the {@link Interval} of given expression. The outcome of
+     * a {@link ConditionExp} is {@code [1, 1]} if it must hold,
+     * {@code [0, 0]} if it cannot hold, and {@code [0, 1]} otherwise.
+     *
+     * @param exp the expression to be evaluated
+     * @param in  IN fact of the statement
+     * @return the resulting {@link Interval}
+     */
+    public static Interval evaluate(Exp exp, IntervalFact in) {
+        if (exp instanceof IntLiteral literal) {
+            return Interval.makeConstant(literal.getValue());
+        }
+        if (exp instanceof Var var) {
+            return ConstantPropagation.canHoldInt(var) ?
+                    in.get(var) : Interval.getFull();
+        }
+        if (!(exp instanceof BinaryExp binary) ||
+                !ConstantPropagation.canHoldInt(binary.getOperand1()) ||
+                !ConstantPropagation.canHoldInt(binary.getOperand2())) {
+            return Interval.getFull();
+        }
+        Interval a = in.get(binary.getOperand1());
+        Interval b = in.get(binary.getOperand2());
+        if (a.isEmpty() || b.isEmpty()) {
+            return Interval.getEmpty();
+        }
+        if (binary instanceof ArithmeticExp arithmetic) {
+            return evaluateArithmetic(arithmetic.getOperator(), a, b);
+        } else if (binary instanceof ConditionExp condition) {
+            return evaluateCondition(condition.getOperator(), a, b);
+        } else if (binary instanceof BitwiseExp bitwise) {
+            return evaluateBitwise(bitwise.getOperator(), a, b);
+        } else if (binary instanceof ShiftExp shift) {
+            return evaluateShift(shift.getOperator(), a, b);
+        }
+        return Interval.getFull();
+    }
+
+    private static Interval evaluateArithmetic(
+            ArithmeticExp.Op op, Interval a, Interval b) {
+        return switch (op) {
+            case ADD -> Interval.ofLongs((long) a.getLow() + b.getLow(),
+                    (long) a.getHigh() + b.getHigh());
+            case SUB -> Interval.ofLongs((long) a.getLow() - b.getHigh(),
+                    (long) a.getHigh() - b.getLow());
+            case MUL -> hull((long) a.getLow() * b.getLow(),
+                    (long) a.getLow() * b.getHigh(),
+                    (long) a.getHigh() * b.getLow(),
+                    (long) a.getHigh() * b.getHigh());
+            case DIV -> {
+                // division by zero throws, thus the divisor excludes 0
+                Interval negative = b.meet(Interval.of(Integer.MIN_VALUE, -1));
+                Interval positive = b.meet(Interval.of(1, Integer.MAX_VALUE));
+                yield divide(a, negative).join(divide(a, positive));
+            }
+            case REM -> {
+                if (b.isConstant() && b.getLow() == 0) {
+                    yield Interval.getEmpty();
+                }
+                if (a.isConstant() && b.isConstant()) {
+                    yield Interval.makeConstant(a.getLow() % b.getLow());
+                }
+                // the result has the sign of the dividend, and its
+                // magnitude is less than the one of the divisor
+                long m = Math.max(Math.abs((long) b.getLow()),
+                        Math.abs((long) b.getHigh())) - 1;
+                yield Interval.ofLongs(
+                        Math.max(Math.min(a.getLow(), 0), -m),
+                        Math.min(Math.max(a.getHigh(), 0), m));
+            }
+        };
+    }
+
+    /**
+     * @return the quotients of {@code a} divided by {@code b}, where
+     * {@code b} does not contain 0. The quotient is monotone in both
+     * operands within such ranges, thus the bounds are at the corners.
+     */
+    private static Interval divide(Interval a, Interval b) {
+        if (b.isEmpty()) {
+            return Interval.getEmpty();
+        }
+        return hull((long) a.getLow() / b.getLow(),
+                (long) a.getLow() / b.getHigh(),
+                (long) a.getHigh() / b.getLow(),
+                (long) a.getHigh() / b.getHigh());
+    }
+
+    private static Interval hull(long v1, long v2, long v3, long v4) {
+        return Interval.ofLongs(Math.min(Math.min(v1, v2), Math.min(v3, v4)),
+                Math.max(Math.max(v1, v2), Math.max(v3, v4)));
+    }
+
+    private static Interval evaluateCondition(
+            ConditionExp.Op op, Interval a, Interval b) {
+        return switch (op) {
+            case EQ -> Interval.ofCondition(!a.meet(b).isEmpty(),
+                    !(a.isConstant() && a.equals(b)));
+            case NE -> Interval.ofCondition(!(a.isConstant() && a.equals(b)),
+                    !a.meet(b).isEmpty());
+            case LT -> Interval.ofCondition(a.getLow() < b.getHigh(),
+                    a.getHigh() >= b.getLow());
+            case GE -> Interval.ofCondition(a.getHigh() >= b.getLow(),
+                    a.getLow() < b.getHigh());
+            case GT -> Interval.ofCondition(a.getHigh() > b.getLow(),
+                    a.getLow() <= b.getHigh());
+            case LE -> Interval.ofCondition(a.getLow() <= b.getHigh(),
+                    a.getHigh() > b.getLow());
+        };
+    }
+
+    /**
+     * Bitwise operations are precise on constants, and on non-negative
+     * values, whose results are bounded by the bit length of the operands.
+     */
+    private static Interval evaluateBitwise(
+            BitwiseExp.Op op, Interval a, Interval b) {
+        if (a.isConstant() && b.isConstant()) {
+            int x = a.getLow(), y = b.getLow();
+            return Interval.makeConstant(switch (op) {
+                case AND -> x & y;
+                case OR -> x | y;
+                case XOR -> x ^ y;
+            });
+        }
+        boolean nonNegativeA = a.getLow() >= 0, nonNegativeB = b.getLow() >= 0;
+        if (op == BitwiseExp.Op.AND && (nonNegativeA || nonNegativeB)) {
+            int high = nonNegativeA && nonNegativeB ?
+                    Math.min(a.getHigh(), b.getHigh()) :
+                    nonNegativeA ? a.getHigh() : b.getHigh();
+            return Interval.of(0, high);
+        }
+        if (nonNegativeA && nonNegativeB) {
+            int max = Math.max(a.getHigh(), b.getHigh());
+            return Interval.of(0, max == 0 ? 0 :
+                    (int) ((Integer.highestOneBit(max) * 2L) - 1));
+        }
+        return Interval.getFull();
+    }
+
+    /**
+     * Shifts are precise on constants, and an arithmetic right shift
+     * by a constant distance is monotone in the shifted value.
+     */
+    private static Interval evaluateShift(
+            ShiftExp.Op op, Interval a, Interval b) {
+        if (!b.isConstant()) {
+            return Interval.getFull();
+        }
+        int distance = b.getLow();
+        if (a.isConstant()) {
+            int x = a.getLow();
+            return Interval.makeConstant(switch (op) {
+                case SHL -> x << distance;
+                case SHR -> x >> distance;
+                case USHR -> x >>> distance;
+            });
+        }
+        if (op == ShiftExp.Op.SHR) {
+            return Interval.of(a.getLow() >> distance, a.getHigh() >> distance);
+        }
+        return Interval.getFull();
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+
+/**
+ * Data-flow fact of interval analysis, which maps int variables to their
+ * {@link Interval}s. The bounds are kept in primitive arrays indexed by
+ * {@link Var#getIndex()}, where an empty interval is stored as
+ * {@code [MAX_VALUE, MIN_VALUE]}, so that joining two facts is
+ * an element-wise min/max of the bounds. The arrays grow when
+ * a variable beyond them is updated, e.g., for a fact given by
+ * {@link IntervalAnalysis#newInitialFact()}, which is not created
+ * for a specific method.
+ * <p>
+ * All facts of a CFG share the set of its widening points (see
+ * {@link IntervalAnalysis}), as the transfer function receives the facts
+ * but not the CFG.
+ */
+public class IntervalFact {
+
+    private static final int EMPTY_LOW = Integer.MAX_VALUE;
+
+    private static final int EMPTY_HIGH = Integer.MIN_VALUE;
+
+    /**
+     * Maps indexes back to variables, which is used when this fact
+     * needs to expose its variables, e.g., {@link #forEach}. The facts
+     * of a method share the table, which may lack the variables this
+     * fact has never held, and the variables beyond it.
+     */
+    private Var[] vars;
+
+    /**
+     * Indexes of the statements where the facts are widened.
+     */
+    private final BitSet wideningPoints;
+
+    private int[] lows;
+
+    private int[] highs;
+
+    /**
+     * Creates a fact where all intervals are empty.
+     *
+     * @param vars           the variables indexed by {@link Var#getIndex()}
+     * @param wideningPoints indexes of the statements where the facts
+     *                       are widened
+     */
+    IntervalFact(Var[] vars, BitSet wideningPoints) {
+        this(vars, wideningPoints, new int[vars.length], new int[vars.length]);
+        Arrays.fill(lows, EMPTY_LOW);
+        Arrays.fill(highs, EMPTY_HIGH);
+    }
+
+    private IntervalFact(Var[] vars, BitSet wideningPoints,
+                         int[] lows, int[] highs) {
+        this.vars = vars;
+        this.wideningPoints = wideningPoints;
+        this.lows = lows;
+        this.highs = highs;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = lows.length;
+        if (length < capacity) {
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            Arrays.fill(lows, length, capacity, EMPTY_LOW);
+            Arrays.fill(highs, length, capacity, EMPTY_HIGH);
+        }
+        if (vars.length < capacity) {
+            vars = Arrays.copyOf(vars, capacity);
+        }
+    }
+
+    /**
+     * Records the variable of index {@code i} in {@link #vars}, which is
+     * large enough. The table may be shared with other facts, which is
+     * safe as an index always maps to the same variable in a method.
+     */
+    private void record(int i, Var var) {
+        if (vars[i] == null) {
+            vars[i] = var;
+        }
+    }
+
+    /**
+     * @return the interval of given variable.
+     */
+    public Interval get(Var var) {
+        int i = var.getIndex();
+        return i < lows.length ?
+                Interval.of(lows[i], highs[i]) : Interval.getEmpty();
+    }
+
+    /**
+     * Updates the interval of given variable.
+     *
+     * @return true if this fact changed as a result of the call.
+     */
+    public boolean update(Var var, Interval interval) {
+        int i = var.getIndex();
+        ensureCapacity(i + 1);
+        record(i, var);
+        return set(i, interval);
+    }
+
+    private boolean set(int i, Interval interval) {
+        int low = interval.isEmpty() ? EMPTY_LOW : interval.getLow();
+        int high = interval.isEmpty() ? EMPTY_HIGH : interval.getHigh();
+        return set(i, low, high);
+    }
+
+    private boolean set(int i, int low, int high) {
+        if (lows[i] == low && highs[i] == high) {
+            return false;
+        }
+        lows[i] = low;
+        highs[i] = high;
+        return true;
+    }
+
+    /**
+     * @return true if the facts of given statement are widened.
+     */
+    boolean isWideningPoint(Stmt stmt) {
+        return wideningPoints.get(stmt.getIndex());
+    }
+
+    /**
+     * Joins this fact into given fact in place.
+     *
+     * @return true if {@code target} changed as a result of the call.
+     */
+    public boolean joinInto(IntervalFact target) {
+        target.ensureCapacity(lows.length);
+        boolean shared = vars == target.vars;
+        boolean changed = false;
+        for (int i = 0; i < lows.length; ++i) {
+            if (target.set(i, Math.min(lows[i], target.lows[i]),
+                    Math.max(highs[i], target.highs[i]))) {
+                if (!shared) {
+                    target.record(i, vars[i]);
+                }
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Sets this fact to {@code in}, where the interval of {@code def} is
+     * replaced by {@code value}, i.e., performs the transfer of
+     * an assignment. If {@code widen} is true, the resulting intervals
+     * are widened with the current ones of this fact.
+     *
+     * @param def the variable defined by the transferred statement,
+     *            or {@code null} if it does not define an int variable
+     * @return true if this fact changed as a result of the call.
+     */
+    boolean assign(IntervalFact in, Var def, Interval value, boolean widen) {
+        int d = def == null ? -1 : def.getIndex();
+        ensureCapacity(Math.max(in.lows.length, d + 1));
+        if (def != null) {
+            record(d, def);
+        }
+        boolean shared = vars == in.vars;
+        boolean changed = false;
+        for (int i = 0; i < lows.length; ++i) {
+            int low, high;
+            if (i == d) {
+                low = value.isEmpty() ? EMPTY_LOW : value.getLow();
+                high = value.isEmpty() ? EMPTY_HIGH : value.getHigh();
+            } else if (i < in.lows.length) {
+                low = in.lows[i];
+                high = in.highs[i];
+                if (!shared && low <= high) {
+                    record(i, in.vars[i]);
+                }
+            } else {
+                low = EMPTY_LOW;
+                high = EMPTY_HIGH;
+            }
+            if (widen && lows[i] <= highs[i] && low <= high) {
+                low = low < lows[i] ? Integer.MIN_VALUE : lows[i];
+                high = high > highs[i] ? Integer.MAX_VALUE : highs[i];
+            }
+            changed |= set(i, low, high);
+        }
+        return changed;
+    }
+
+    /**
+     * Sets all intervals to empty.
+     */
+    public void clear() {
+        Arrays.fill(lows, EMPTY_LOW);
+        Arrays.fill(highs, EMPTY_HIGH);
+    }
+
+    public IntervalFact copy() {
+        return new IntervalFact(vars, wideningPoints,
+                lows.clone(), highs.clone());
+    }
+
+    /**
+     * Applies {@code action} to every variable whose interval is not empty.
+     */
+    public void forEach(BiConsumer<Var, Interval> action) {
+        for (int i = 0; i < lows.length; ++i) {
+            if (lows[i] <= highs[i]) {
+                action.accept(vars[i], Interval.of(lows[i], highs[i]));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntervalFact that)) {
+            return false;
+        }
+        if (lows.length == that.lows.length) {
+            return Arrays.equals(lows, that.lows) &&
+                    Arrays.equals(highs, that.highs);
+        }
+        // the intervals beyond the arrays are empty
+        int n = Math.max(lows.length, that.lows.length);
+        for (int i = 0; i < n; ++i) {
+            if (lowAt(i) != that.lowAt(i) || highAt(i) != that.highAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lowAt(int i) {
+        return i < lows.length ? lows[i] : EMPTY_LOW;
+    }
+
+    private int highAt(int i) {
+        return i < highs.length ? highs[i] : EMPTY_HIGH;
+    }
+
+    /**
+     * Hashes the non-empty intervals only, so that equal facts
+     * of different capacities have the same hash.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < lows.length; ++i) {
+            if (lows[i] <= highs[i]) {
+                hash = 31 * (31 * (31 * hash + i) + lows[i]) + highs[i];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((var, interval) -> joiner.add(var + "=" + interval));
+        return joiner.toString();
+    }
+}
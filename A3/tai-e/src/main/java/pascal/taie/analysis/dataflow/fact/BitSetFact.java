@@ -0,0 +1,373 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Set-like data-flow facts backed by a dense bit vector, where each element
+ * is represented by the bit at {@link Indexable#getIndex()}.
+ * <p>
+ * This class is API-compatible with {@link SetFact}, and is suitable for
+ * elements with small and dense indexes, e.g., {@link pascal.taie.ir.exp.Var}s
+ * of a method. Operations between two {@link BitSetFact}s, i.e.,
+ * union, intersection, difference, copy and equality, run word-at-a-time.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * Maps indexes back to elements, which is used when this fact
+     * needs to expose its elements, e.g., {@link #stream()}.
+     */
+    private final IntFunction<E> indexer;
+
+    private long[] words;
+
+    /**
+     * @param indexer  maps indexes to the corresponding elements
+     * @param capacity the number of elements this fact is expected to hold,
+     *                 i.e., one plus the maximum index of the elements.
+     */
+    public BitSetFact(IntFunction<E> indexer, int capacity) {
+        this(indexer, new long[wordIndex(capacity - 1) + 1]);
+    }
+
+    private BitSetFact(IntFunction<E> indexer, long[] words) {
+        super(null, false);
+        this.indexer = indexer;
+        this.words = words;
+    }
+
+    /**
+     * Creates a copy of given fact, which is used by the subclasses
+     * to implement {@link #copy()}.
+     */
+    protected BitSetFact(BitSetFact<E> fact) {
+        this(fact.indexer, fact.words.clone());
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        if (words.length < wordsRequired) {
+            words = Arrays.copyOf(words, Math.max(2 * words.length, wordsRequired));
+        }
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int index = e.getIndex();
+        int wordIndex = wordIndex(index);
+        return wordIndex < words.length &&
+                (words[wordIndex] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int index = e.getIndex();
+        int wordIndex = wordIndex(index);
+        ensureCapacity(wordIndex + 1);
+        long oldWord = words[wordIndex];
+        words[wordIndex] = oldWord | (1L << index);
+        return words[wordIndex] != oldWord;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int index = e.getIndex();
+        int wordIndex = wordIndex(index);
+        if (wordIndex >= words.length) {
+            return false;
+        }
+        long oldWord = words[wordIndex];
+        words[wordIndex] = oldWord & ~(1L << index);
+        return words[wordIndex] != oldWord;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (filter.test(indexer.apply(i))) {
+                words[wordIndex(i)] &= ~(1L << i);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            ensureCapacity(otherWords.length);
+            boolean changed = false;
+            for (int i = 0; i < otherWords.length; ++i) {
+                long oldWord = words[i];
+                long newWord = oldWord | otherWords[i];
+                if (newWord != oldWord) {
+                    words[i] = newWord;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        boolean changed = false;
+        for (E e : other.asSet()) {
+            changed |= add(e);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long oldWord = words[i];
+                long newWord = i < otherWords.length ? oldWord & otherWords[i] : 0;
+                if (newWord != oldWord) {
+                    words[i] = newWord;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return removeIf(e -> !other.contains(e));
+    }
+
+    @Override
+    public boolean removeAll(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            int n = Math.min(words.length, otherWords.length);
+            boolean changed = false;
+            for (int i = 0; i < n; ++i) {
+                long oldWord = words[i];
+                long newWord = oldWord & ~otherWords[i];
+                if (newWord != oldWord) {
+                    words[i] = newWord;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        return removeIf(other::contains);
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            long[] otherWords = that.words;
+            ensureCapacity(otherWords.length);
+            System.arraycopy(otherWords, 0, words, 0, otherWords.length);
+            Arrays.fill(words, otherWords.length, words.length, 0L);
+        } else {
+            super.set(other);
+        }
+    }
+
+    /**
+     * Sets this fact to {@code gen ∪ (base - {kill})} in place, i.e.,
+     * performs the transfer of a gen/kill analysis which kills at most
+     * one element, without allocating a new fact.
+     *
+     * @param kill index of the killed element, or -1 if no element
+     *             is killed
+     * @return true if this fact changed as a result of the call.
+     */
+    public boolean setGenKill(BitSetFact<E> base, int kill, BitSetFact<E> gen) {
+        long[] baseWords = base.words, genWords = gen.words;
+        int n = Math.max(baseWords.length, genWords.length);
+        ensureCapacity(n);
+        int killWord = kill >= 0 ? wordIndex(kill) : -1;
+        boolean changed = false;
+        for (int i = 0; i < words.length; ++i) {
+            long newWord = i < baseWords.length ? baseWords[i] : 0L;
+            if (i == killWord) {
+                newWord &= ~(1L << kill);
+            }
+            if (i < genWords.length) {
+                newWord |= genWords[i];
+            }
+            if (newWord != words[i]) {
+                words[i] = newWord;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        return new BitSetFact<>(indexer, words.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return indexes().mapToObj(indexer);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    protected Set<E> asSet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o instanceof Indexable && BitSetFact.this.contains((E) o);
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<>() {
+
+                    private int next = nextSetBit(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public E next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        E e = indexer.apply(next);
+                        next = nextSetBit(next + 1);
+                        return e;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return BitSetFact.this.size();
+            }
+        };
+    }
+
+    /**
+     * @return indexes of all elements in this fact in ascending order.
+     */
+    private IntStream indexes() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    /**
+     * @return the index of the first set bit that occurs on or after
+     * given index, or -1 if there is no such bit.
+     */
+    private int nextSetBit(int fromIndex) {
+        int u = wordIndex(fromIndex);
+        if (u >= words.length) {
+            return -1;
+        }
+        long word = words[u] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (u << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++u == words.length) {
+                return -1;
+            }
+            word = words[u];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof BitSetFact<?> that) {
+            long[] longer = words.length >= that.words.length ? words : that.words;
+            long[] shorter = longer == words ? that.words : words;
+            for (int i = 0; i < shorter.length; ++i) {
+                if (shorter[i] != longer[i]) {
+                    return false;
+                }
+            }
+            for (int i = shorter.length; i < longer.length; ++i) {
+                if (longer[i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return o instanceof SetFact<?> && asSet().equals(((SetFact<?>) o).asSet());
+    }
+
+    @Override
+    public int hashCode() {
+        return asSet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return Streams.toString(stream());
+    }
+}
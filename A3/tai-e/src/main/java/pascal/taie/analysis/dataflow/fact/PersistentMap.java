@@ -0,0 +1,677 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Map backed by a persistent hash trie in the CHAMP layout, i.e., each
+ * trie node keeps its inline entries and its sub-nodes in two separate
+ * bitmaps.
+ * <p>
+ * The trie nodes are immutable, so that {@link #copy()} shares the whole
+ * trie in O(1), and {@link #put} and {@link #remove} copy only the nodes
+ * on the path to the changed entry. Removal keeps the trie in canonical
+ * form, thus two maps with the same mappings have tries of the same shape,
+ * and {@link #equals} compares two tries node by node, skipping the nodes
+ * shared by both maps.
+ * <p>
+ * This class does not support null keys, and its views are unmodifiable.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS_PER_LEVEL = 5;
+
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    /**
+     * Marks that a key is absent.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    private Node root;
+
+    private int size;
+
+    /**
+     * Value associated with the key before the last {@link Node#put}
+     * or {@link Node#remove}, or {@link #NOT_FOUND} if the key was absent.
+     */
+    private Object previous;
+
+    PersistentMap() {
+        this(BitmapNode.EMPTY, 0);
+    }
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return a map with the same mappings as this map, which shares
+     * the trie with this map.
+     */
+    PersistentMap<K, V> copy() {
+        return new PersistentMap<>(root, size);
+    }
+
+    /**
+     * Replaces the mappings of this map by the ones of given map,
+     * by sharing the trie of given map.
+     */
+    void setAll(PersistentMap<K, V> other) {
+        root = other.root;
+        size = other.size;
+    }
+
+    /**
+     * @return true if this map shares the whole trie with given map.
+     */
+    boolean sharesWith(PersistentMap<?, ?> other) {
+        return root == other.root;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root.find(key, hash(key), 0) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object value = root.find(key, hash(key), 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Object value = root.find(key, hash(key), 0);
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        root = root.put(Objects.requireNonNull(key), value, hash(key), 0, this);
+        if (previous == NOT_FOUND) {
+            ++size;
+        }
+        return takePrevious();
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        root = root.remove(key, hash(key), 0, this);
+        if (previous != NOT_FOUND) {
+            --size;
+        }
+        return takePrevious();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V takePrevious() {
+        Object prev = previous;
+        previous = null;
+        return prev == NOT_FOUND ? null : (V) prev;
+    }
+
+    @Override
+    public void clear() {
+        root = BitmapNode.EMPTY;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PersistentMap<?, ?> that) {
+            return size == that.size && root.equalsNode(that.root);
+        }
+        return super.equals(o);
+    }
+
+    private static int hash(Object key) {
+        return key == null ? 0 : key.hashCode();
+    }
+
+    private static int bitOf(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    /**
+     * Immutable node of the trie.
+     */
+    private abstract static class Node {
+
+        /**
+         * @return the value of the key, or {@link #NOT_FOUND} if absent.
+         */
+        abstract Object find(Object key, int hash, int shift);
+
+        /**
+         * @return the node with given mapping, or this node if the mapping
+         * already exists. The previous value is recorded in {@code map}.
+         */
+        abstract Node put(Object key, Object value, int hash, int shift,
+                          PersistentMap<?, ?> map);
+
+        /**
+         * @return the node without the key, or this node if the key is
+         * absent. The previous value is recorded in {@code map}.
+         */
+        abstract Node remove(Object key, int hash, int shift,
+                             PersistentMap<?, ?> map);
+
+        abstract int entryCount();
+
+        abstract Object keyAt(int i);
+
+        abstract Object valueAt(int i);
+
+        abstract int nodeCount();
+
+        abstract Node nodeAt(int i);
+
+        abstract boolean equalsNode(Node other);
+
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < entryCount(); ++i) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+            for (int i = 0; i < nodeCount(); ++i) {
+                nodeAt(i).forEach(action);
+            }
+        }
+
+        /**
+         * @return true if this node holds exactly one entry. Such nodes
+         * are inlined into their parents to keep the trie canonical.
+         */
+        boolean isSingleEntry() {
+            return entryCount() == 1 && nodeCount() == 0;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY =
+                new BitmapNode(0, 0, new Object[0]);
+
+        /**
+         * Bitmap of the positions holding inline entries.
+         */
+        private final int dataMap;
+
+        /**
+         * Bitmap of the positions holding sub-nodes.
+         */
+        private final int nodeMap;
+
+        /**
+         * Inline entries as key-value pairs, followed by sub-nodes.
+         */
+        private final Object[] content;
+
+        private BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap) +
+                    Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bitOf(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                return key.equals(content[i]) ? content[i + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)])
+                        .find(key, hash, shift + BITS_PER_LEVEL);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift,
+                 PersistentMap<?, ?> map) {
+            int bit = bitOf(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                Object k = content[i];
+                if (key.equals(k)) {
+                    Object v = content[i + 1];
+                    map.previous = v;
+                    if (Objects.equals(v, value)) {
+                        return this;
+                    }
+                    Object[] newContent = content.clone();
+                    newContent[i + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                // move the existing entry and the new one to a sub-node
+                map.previous = NOT_FOUND;
+                Node sub = merge(k, content[i + 1], hash(k),
+                        key, value, hash, shift + BITS_PER_LEVEL);
+                return replaceEntryByNode(bit, i, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node sub = (Node) content[i];
+                Node newSub = sub.put(key, value, hash,
+                        shift + BITS_PER_LEVEL, map);
+                if (newSub == sub) {
+                    return this;
+                }
+                Object[] newContent = content.clone();
+                newContent[i] = newSub;
+                return new BitmapNode(dataMap, nodeMap, newContent);
+            }
+            map.previous = NOT_FOUND;
+            int i = 2 * dataIndex(bit);
+            Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, i);
+            newContent[i] = key;
+            newContent[i + 1] = value;
+            System.arraycopy(content, i, newContent, i + 2, content.length - i);
+            return new BitmapNode(dataMap | bit, nodeMap, newContent);
+        }
+
+        private static Node merge(Object key1, Object value1, int hash1,
+                                  Object key2, Object value2, int hash2,
+                                  int shift) {
+            if (shift >= Integer.SIZE) {
+                return new CollisionNode(hash1,
+                        new Object[]{ key1, value1, key2, value2 });
+            }
+            int bit1 = bitOf(hash1, shift);
+            int bit2 = bitOf(hash2, shift);
+            if (bit1 != bit2) {
+                return Integer.compareUnsigned(bit1, bit2) < 0 ?
+                        new BitmapNode(bit1 | bit2, 0,
+                                new Object[]{ key1, value1, key2, value2 }) :
+                        new BitmapNode(bit1 | bit2, 0,
+                                new Object[]{ key2, value2, key1, value1 });
+            }
+            return new BitmapNode(0, bit1, new Object[]{
+                    merge(key1, value1, hash1, key2, value2, hash2,
+                            shift + BITS_PER_LEVEL) });
+        }
+
+        /**
+         * @param i index of the key of the entry at {@code bit}
+         */
+        private Node replaceEntryByNode(int bit, int i, Node node) {
+            int newNodeMap = nodeMap | bit;
+            int dataLength = 2 * Integer.bitCount(dataMap);
+            // index of the node in the new content
+            int j = dataLength - 2 + Integer.bitCount(nodeMap & (bit - 1));
+            Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, i);
+            System.arraycopy(content, i + 2, newContent, i, j - i);
+            newContent[j] = node;
+            System.arraycopy(content, j + 2, newContent, j + 1,
+                    content.length - j - 2);
+            return new BitmapNode(dataMap ^ bit, newNodeMap, newContent);
+        }
+
+        /**
+         * @param i index of the node at {@code bit}
+         */
+        private Node replaceNodeByEntry(int bit, int i, Object key, Object value) {
+            // index of the key in the new content
+            int j = 2 * dataIndex(bit);
+            Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, j);
+            newContent[j] = key;
+            newContent[j + 1] = value;
+            System.arraycopy(content, j, newContent, j + 2, i - j);
+            System.arraycopy(content, i + 1, newContent, i + 2,
+                    content.length - i - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, PersistentMap<?, ?> map) {
+            int bit = bitOf(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                if (!key.equals(content[i])) {
+                    map.previous = NOT_FOUND;
+                    return this;
+                }
+                map.previous = content[i + 1];
+                Object[] newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, i);
+                System.arraycopy(content, i + 2, newContent, i,
+                        content.length - i - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+            }
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node sub = (Node) content[i];
+                Node newSub = sub.remove(key, hash, shift + BITS_PER_LEVEL, map);
+                if (newSub == sub) {
+                    return this;
+                }
+                if (newSub.isSingleEntry()) {
+                    if (shift == 0 || entryCount() > 0 || nodeCount() > 1) {
+                        return replaceNodeByEntry(bit, i,
+                                newSub.keyAt(0), newSub.valueAt(0));
+                    }
+                    // this node also holds a single entry, which will be
+                    // inlined into the parent
+                    return newSub;
+                }
+                Object[] newContent = content.clone();
+                newContent[i] = newSub;
+                return new BitmapNode(dataMap, nodeMap, newContent);
+            }
+            map.previous = NOT_FOUND;
+            return this;
+        }
+
+        @Override
+        int entryCount() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            return (Node) content[2 * Integer.bitCount(dataMap) + i];
+        }
+
+        @Override
+        boolean equalsNode(Node other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BitmapNode that) ||
+                    dataMap != that.dataMap || nodeMap != that.nodeMap) {
+                return false;
+            }
+            int dataLength = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < dataLength; ++i) {
+                if (!Objects.equals(content[i], that.content[i])) {
+                    return false;
+                }
+            }
+            for (int i = dataLength; i < content.length; ++i) {
+                if (!((Node) content[i]).equalsNode((Node) that.content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Node holding the entries whose keys have the same hash code.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        /**
+         * Entries as key-value pairs.
+         */
+        private final Object[] content;
+
+        private CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i >= 0 ? content[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift,
+                 PersistentMap<?, ?> map) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                map.previous = content[i + 1];
+                if (Objects.equals(content[i + 1], value)) {
+                    return this;
+                }
+                Object[] newContent = content.clone();
+                newContent[i + 1] = value;
+                return new CollisionNode(hash, newContent);
+            }
+            map.previous = NOT_FOUND;
+            Object[] newContent = Arrays.copyOf(content, content.length + 2);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            return new CollisionNode(hash, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, PersistentMap<?, ?> map) {
+            int i = indexOf(key);
+            if (i < 0) {
+                map.previous = NOT_FOUND;
+                return this;
+            }
+            map.previous = content[i + 1];
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, i);
+            System.arraycopy(content, i + 2, newContent, i,
+                    content.length - i - 2);
+            return new CollisionNode(hash, newContent);
+        }
+
+        @Override
+        int entryCount() {
+            return content.length / 2;
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        int nodeCount() {
+            return 0;
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        boolean equalsNode(Node other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CollisionNode that) ||
+                    content.length != that.content.length) {
+                return false;
+            }
+            // the entries may be in different orders
+            for (int i = 0; i < content.length; i += 2) {
+                int j = that.indexOf(content[i]);
+                if (j < 0 || !Objects.equals(content[i + 1], that.content[j + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iterates the entries of a trie in depth-first order.
+     */
+    private static final class EntryIterator<K, V>
+            implements Iterator<Entry<K, V>> {
+
+        /**
+         * Depth of a trie, plus one for the collision nodes.
+         */
+        private static final int MAX_DEPTH =
+                (Integer.SIZE + BITS_PER_LEVEL - 1) / BITS_PER_LEVEL + 1;
+
+        private final Node[] nodes = new Node[MAX_DEPTH];
+
+        /**
+         * Position in each node on the stack, which counts the entries
+         * first and then the sub-nodes.
+         */
+        private final int[] positions = new int[MAX_DEPTH];
+
+        private int top;
+
+        private EntryIterator(Node root) {
+            nodes[0] = root;
+            advance();
+        }
+
+        /**
+         * Moves the top of the stack to the next node which has an entry
+         * at its current position, or empties the stack.
+         */
+        private void advance() {
+            while (top >= 0) {
+                Node node = nodes[top];
+                int pos = positions[top];
+                if (pos < node.entryCount()) {
+                    return;
+                }
+                int sub = pos - node.entryCount();
+                if (sub < node.nodeCount()) {
+                    ++positions[top];
+                    ++top;
+                    nodes[top] = node.nodeAt(sub);
+                    positions[top] = 0;
+                } else {
+                    nodes[top--] = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (top < 0) {
+                throw new NoSuchElementException();
+            }
+            Node node = nodes[top];
+            int pos = positions[top]++;
+            Entry<K, V> entry = new SimpleImmutableEntry<>(
+                    (K) node.keyAt(pos), (V) node.valueAt(pos));
+            advance();
+            return entry;
+        }
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.fact;
 import pascal.taie.util.collection.CollectionUtils;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
@@ -48,6 +49,19 @@ public class SetFact<E> {
         this(Collections.emptySet());
     }
 
+    /**
+     * Creates a fact backed by given set, which is used as is if
+     * {@code copy} is false. Subclasses that represent their elements
+     * without {@link #set}, e.g., {@link BitSetFact}, can give
+     * {@code null} to avoid allocating a set they never use.
+     *
+     * @param set  the backing set, or {@code null} if it is unused
+     * @param copy whether to copy {@code set} into a new set
+     */
+    protected SetFact(@Nullable Set<E> set, boolean copy) {
+        this.set = copy ? Sets.newHybridSet(set) : set;
+    }
+
     /**
      * @return true if this set contains the specified element, otherwise false.
      */
@@ -89,7 +103,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        return set.addAll(other.asSet());
     }
 
     /**
@@ -107,7 +121,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        return set.retainAll(other.asSet());
     }
 
     /**
@@ -119,6 +133,15 @@ public class SetFact<E> {
         return result;
     }
 
+    /**
+     * Removes all elements of other fact from this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean removeAll(SetFact<E> other) {
+        return set.removeAll(other.asSet());
+    }
+
     /**
      * Sets the content of this set to the same as other set.
      */
@@ -153,6 +176,16 @@ public class SetFact<E> {
         return set.size();
     }
 
+    /**
+     * @return a {@link Set} view of the elements in this fact. Subclasses
+     * that do not keep their elements in {@link #set} must override this
+     * method, so that operations across different fact implementations
+     * still work.
+     */
+    protected Set<E> asSet() {
+        return set;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -161,7 +194,7 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        return set.equals(that.asSet());
     }
 
     @Override
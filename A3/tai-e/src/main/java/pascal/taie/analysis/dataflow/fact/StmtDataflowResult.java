@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.AnalysisException;
+
+/**
+ * A {@link DataflowResult} for CFGs of {@link Stmt}s, which keeps
+ * the facts in arrays indexed by {@link Stmt#getIndex()}.
+ * <p>
+ * The arrays have two extra slots for the entry and exit nodes of the CFG,
+ * whose indexes are the number of statements in the IR and that plus one.
+ * Like the map-based {@link DataflowResult}, the facts of the nodes that
+ * are not in the CFG are {@code null}.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class StmtDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    /**
+     * Nodes whose facts have been set, which are used to tell
+     * statements of other IRs with the same indexes.
+     */
+    private final Stmt[] nodes;
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    public StmtDataflowResult(IR ir) {
+        super(null, null);
+        int size = ir.getStmts().size() + 2; // plus entry and exit
+        nodes = new Stmt[size];
+        inFacts = new Object[size];
+        outFacts = new Object[size];
+    }
+
+    @Override
+    public Fact getInFact(Stmt node) {
+        return getFact(inFacts, node);
+    }
+
+    @Override
+    public void setInFact(Stmt node, Fact fact) {
+        setFact(inFacts, node, fact);
+    }
+
+    @Override
+    public Fact getOutFact(Stmt node) {
+        return getFact(outFacts, node);
+    }
+
+    @Override
+    public void setOutFact(Stmt node, Fact fact) {
+        setFact(outFacts, node, fact);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact getFact(Object[] facts, Stmt node) {
+        int index = node.getIndex();
+        return index >= 0 && index < nodes.length && nodes[index] == node ?
+                (Fact) facts[index] : null;
+    }
+
+    private void setFact(Object[] facts, Stmt node, Fact fact) {
+        int index = node.getIndex();
+        if (index < 0 || index >= nodes.length) {
+            throw new AnalysisException(node + " is out of the IR");
+        }
+        Stmt prev = nodes[index];
+        if (prev != node) {
+            if (prev != null) {
+                throw new AnalysisException(node + " and " + prev +
+                        " have the same index " + index);
+            }
+            nodes[index] = node;
+        }
+        facts[index] = fact;
+    }
+}
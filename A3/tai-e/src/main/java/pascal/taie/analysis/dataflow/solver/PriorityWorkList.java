@@ -0,0 +1,242 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.LoopNest;
+import pascal.taie.analysis.graph.cfg.LoopNest.Loop;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.ReversePostorder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Work-list of CFG nodes which always polls the node with the highest
+ * priority, and holds at most one entry for each node.
+ * <p>
+ * For forward analyses, the priorities follow the reverse postorder of
+ * the CFG, i.e., a node is processed before its successors (except for
+ * back edges). For backward analyses, the priorities follow the reverse
+ * postorder of the reversed CFG, i.e., a node is processed before its
+ * predecessors. The order is computed once when the work-list is created,
+ * and membership is tracked by a bitmap indexed by the priorities.
+ * <p>
+ * The order can be made loop-aware, i.e., the nodes of each loop get
+ * consecutive priorities, which makes the work-list stabilize an inner loop
+ * before any node after the loop is polled again. Otherwise, a reverse
+ * postorder may interleave the nodes after a loop with the loop body, and
+ * they are re-processed on every iteration of the loop.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class PriorityWorkList<Node> {
+
+    /**
+     * Nodes sorted by their priorities.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Maps each node to its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Bitmap of the priorities of the nodes in this work-list.
+     */
+    private final BitSet members;
+
+    /**
+     * Bitmap of the priorities of the nodes which can be added to this
+     * work-list, or {@code null} if all nodes can be added.
+     */
+    private BitSet allowed;
+
+    /**
+     * Number of nodes polled from this work-list.
+     */
+    private int visits;
+
+    /**
+     * Number of nodes added to this work-list, excluding the nodes
+     * which were already in this work-list.
+     */
+    private int pushes;
+
+    /**
+     * Creates a work-list of the nodes in given CFG. The work-list is
+     * initially empty.
+     *
+     * @param forward whether the nodes are ordered for a forward analysis
+     */
+    PriorityWorkList(CFG<Node> cfg, boolean forward) {
+        this(cfg, forward, null);
+    }
+
+    /**
+     * Creates a work-list of the nodes in given CFG, whose order is
+     * loop-aware if {@code loops} is given. The work-list is initially empty.
+     *
+     * @param forward whether the nodes are ordered for a forward analysis
+     * @param loops   the loop nest of the CFG, or {@code null}
+     */
+    PriorityWorkList(CFG<Node> cfg, boolean forward, LoopNest<Node> loops) {
+        // every node gets a priority, including the unreachable ones
+        List<Node> order = forward ?
+                ReversePostorder.all(cfg, cfg.getEntry()) :
+                ReversePostorder.all(new ReverseGraph<>(cfg), cfg.getExit());
+        nodes = loops == null ? order : nestLoops(order, loops);
+        priorities = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            priorities.put(nodes.get(i), i);
+        }
+        members = new BitSet(nodes.size());
+    }
+
+    /**
+     * Reorders {@code order} so that the nodes of each loop are consecutive.
+     * The nodes and the loops directly nested in the same loop (or at the
+     * top level) are ordered by their first nodes in {@code order}, which
+     * is the header of a loop for forward analyses.
+     */
+    private static <Node> List<Node> nestLoops(List<Node> order,
+                                               LoopNest<Node> loops) {
+        Map<Node, Integer> ranks = Maps.newMap(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            ranks.put(order.get(i), i);
+        }
+        Map<Loop<Node>, Integer> loopRanks = Maps.newMap();
+        for (Loop<Node> loop : loops.getLoops()) {
+            loopRanks.put(loop, loop.getNodes()
+                    .stream()
+                    .mapToInt(ranks::get)
+                    .min()
+                    .orElseThrow());
+        }
+        List<Node> nested = new ArrayList<>(order);
+        nested.sort((a, b) -> {
+            // lifts both nodes to the children of their innermost common
+            // loop, and compares the ranks of the children
+            Loop<Node> x = loops.getLoopOf(a), y = loops.getLoopOf(b);
+            int rankA = ranks.get(a), rankB = ranks.get(b);
+            while (depthOf(x) > depthOf(y)) {
+                rankA = loopRanks.get(x);
+                x = x.getParent();
+            }
+            while (depthOf(y) > depthOf(x)) {
+                rankB = loopRanks.get(y);
+                y = y.getParent();
+            }
+            while (x != y) {
+                rankA = loopRanks.get(x);
+                rankB = loopRanks.get(y);
+                x = x.getParent();
+                y = y.getParent();
+            }
+            return Integer.compare(rankA, rankB);
+        });
+        return nested;
+    }
+
+    private static int depthOf(Loop<?> loop) {
+        return loop == null ? 0 : loop.getDepth();
+    }
+
+    /**
+     * Restricts this work-list to given nodes, i.e., other nodes are
+     * ignored when they are added to this work-list.
+     */
+    void restrictTo(Collection<Node> nodes) {
+        allowed = new BitSet(this.nodes.size());
+        nodes.forEach(node -> allowed.set(priorities.get(node)));
+        pushes -= members.cardinality();
+        members.and(allowed);
+        pushes += members.cardinality();
+    }
+
+    /**
+     * Adds a node to this work-list if it is not in this work-list.
+     */
+    void add(Node node) {
+        int priority = priorities.get(node);
+        if ((allowed == null || allowed.get(priority)) &&
+                !members.get(priority)) {
+            members.set(priority);
+            ++pushes;
+        }
+    }
+
+    /**
+     * Adds given nodes to this work-list.
+     */
+    void addAll(Collection<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Adds all nodes of the CFG (or the nodes this work-list is
+     * restricted to) to this work-list.
+     */
+    void addAllNodes() {
+        pushes -= members.cardinality();
+        if (allowed == null) {
+            members.set(0, nodes.size());
+        } else {
+            members.or(allowed);
+        }
+        pushes += members.cardinality();
+    }
+
+    /**
+     * Removes and returns the node with the highest priority in this work-list.
+     */
+    Node poll() {
+        int i = members.nextSetBit(0);
+        members.clear(i);
+        ++visits;
+        return nodes.get(i);
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * @return the number of nodes polled from this work-list so far.
+     */
+    int getVisits() {
+        return visits;
+    }
+
+    /**
+     * @return the number of nodes added to this work-list so far.
+     */
+    int getPushes() {
+        return pushes;
+    }
+}
@@ -24,7 +24,17 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +47,35 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Number of node visits performed by this solver, accumulated over
+     * all CFGs it has solved.
+     */
+    private final LongAdder nodeVisits = new LongAdder();
+
+    /**
+     * Statistics used when metrics are disabled, which only count
+     * {@link #nodeVisits}.
+     */
+    private final SolverStats nodeVisitCounter = SolverStats.popsOnly(nodeVisits);
+
+    /**
+     * ID of the analysis which is recorded in {@link #metrics}.
+     */
+    private String analysisId;
+
+    /**
+     * Collector of the statistics of this solver, or {@code null}
+     * if metrics are disabled (by default).
+     */
+    private SolverMetrics metrics;
+
+    /**
+     * Whether the solver stabilizes inner loops before propagating
+     * facts out of them (disabled by default).
+     */
+    private boolean loopAware;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -56,18 +95,179 @@ public abstract class Solver<Node, Fact> {
      * @return the analysis result
      */
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        SolverStats stats = newStats();
         DataflowResult<Node, Fact> result = initialize(cfg);
-        doSolve(cfg, result);
+        doSolve(cfg, result, stats);
+        finish(cfg, stats, start);
         return result;
     }
 
+    /**
+     * Re-solves the data-flow problem on the given CFG after some of its
+     * nodes have been changed, e.g., statements replaced by edits of the IR,
+     * reusing the facts of {@code previous} for the nodes which cannot be
+     * affected by the changes.
+     * <p>
+     * This method is the same as {@link #solve(CFG, CFG, DataflowResult, Collection)},
+     * except that the CFG is expected to have the same edges as the CFG of
+     * {@code previous}, i.e., the edits keep the edges of the changed nodes.
+     *
+     * @param cfg      control-flow graph where the analysis is performed on
+     * @param previous the result of a previous solving of the analysis
+     * @param changed  the nodes of {@code cfg} whose transfer may differ
+     *                 from the ones of the previous solving
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg,
+                                            DataflowResult<Node, Fact> previous,
+                                            Collection<Node> changed) {
+        return solve(cfg, null, previous, changed);
+    }
+
+    /**
+     * Re-solves the data-flow problem on the given CFG after some of its
+     * nodes have been changed, e.g., statements replaced by edits of the IR,
+     * reusing the facts of {@code previous} for the nodes which cannot be
+     * affected by the changes.
+     * <p>
+     * The affected nodes are the changed nodes, the nodes whose predecessors
+     * (for forward analyses) or successors (for backward analyses) differ
+     * from the ones in {@code previousCFG}, e.g., the old jump target of
+     * a removed branch, and the nodes reachable from them, i.e., their
+     * successors for forward analyses and predecessors for backward analyses.
+     * Their facts are reset and solved again, starting from the final facts
+     * of the other nodes, so the result is identical to the one of
+     * {@link #solve(CFG)}. The entry and exit of {@code cfg} correspond to
+     * the ones of {@code previousCFG}. The other nodes without facts in
+     * {@code previous} are solved again as well, but as they are not changed,
+     * their facts stay the same and the nodes reachable from them are not
+     * affected.
+     * <p>
+     * The facts of the unaffected nodes are shared with {@code previous}
+     * (or copied from it, see {@link #doSolveIncrementally}), and the ones
+     * of {@code previous} are not modified by this solver.
+     *
+     * @param cfg         control-flow graph where the analysis is performed on
+     * @param previousCFG the CFG of {@code previous}, or {@code null} if it
+     *                    has the same edges as {@code cfg}
+     * @param previous    the result of a previous solving of the analysis
+     * @param changed     the nodes of {@code cfg} whose transfer may differ
+     *                    from the ones of the previous solving
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg,
+                                            @Nullable CFG<Node> previousCFG,
+                                            DataflowResult<Node, Fact> previous,
+                                            Collection<Node> changed) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        SolverStats stats = newStats();
+        Set<Node> affected = collectAffectedNodes(cfg, previousCFG, previous, changed);
+        DataflowResult<Node, Fact> result = newResult(cfg);
+        for (Node node : cfg) {
+            if (affected.contains(node)) {
+                initializeNode(cfg, result, node);
+            } else {
+                result.setInFact(node, previous.getInFact(node));
+                result.setOutFact(node, previous.getOutFact(node));
+            }
+        }
+        doSolveIncrementally(cfg, result, affected, stats);
+        finish(cfg, stats, start);
+        return result;
+    }
+
+    /**
+     * @return the nodes whose facts may differ from the ones in
+     * {@code previous} after the given nodes have been changed.
+     */
+    private Set<Node> collectAffectedNodes(
+            CFG<Node> cfg, @Nullable CFG<Node> previousCFG,
+            DataflowResult<Node, Fact> previous, Collection<Node> changed) {
+        Set<Node> affected = Sets.newSet();
+        Deque<Node> workList = new ArrayDeque<>();
+        for (Node node : changed) {
+            if (affected.add(node)) {
+                workList.add(node);
+            }
+        }
+        boolean forward = analysis.isForward();
+        if (previousCFG != null) {
+            for (Node node : cfg) {
+                if (!affected.contains(node) && previousCFG.hasNode(node) &&
+                        !hasSameSources(cfg, previousCFG, node, forward)) {
+                    affected.add(node);
+                    workList.add(node);
+                }
+            }
+        }
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            for (Node next : forward ?
+                    cfg.getSuccsOf(node) : cfg.getPredsOf(node)) {
+                if (affected.add(next)) {
+                    workList.add(next);
+                }
+            }
+        }
+        for (Node node : cfg) {
+            if (previous.getInFact(node) == null ||
+                    previous.getOutFact(node) == null) {
+                affected.add(node);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * @return true if the nodes whose facts flow into given node, i.e.,
+     * its predecessors (forward) or successors (backward), are the same
+     * in both CFGs, where the entries (and exits) of them are the same.
+     */
+    private static <Node> boolean hasSameSources(
+            CFG<Node> cfg, CFG<Node> previousCFG, Node node, boolean forward) {
+        Set<Node> sources = forward ?
+                cfg.getPredsOf(node) : cfg.getSuccsOf(node);
+        Set<Node> previousSources = forward ?
+                previousCFG.getPredsOf(node) : previousCFG.getSuccsOf(node);
+        if (sources.size() != previousSources.size()) {
+            return false;
+        }
+        for (Node source : sources) {
+            Node previousSource = source == cfg.getEntry() ? previousCFG.getEntry()
+                    : source == cfg.getExit() ? previousCFG.getExit() : source;
+            if (!previousSources.contains(previousSource)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Initializes the facts of a single node in the same way as
+     * {@link #initializeForward} and {@link #initializeBackward}.
+     */
+    private void initializeNode(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                Node node) {
+        result.setInFact(node, analysis.newInitialFact(cfg));
+        result.setOutFact(node, analysis.newInitialFact(cfg));
+        if (analysis.isForward()) {
+            if (node == cfg.getEntry()) {
+                result.setOutFact(node, analysis.newBoundaryFact(cfg));
+            }
+        } else if (node == cfg.getExit()) {
+            result.setInFact(node, analysis.newBoundaryFact(cfg));
+            result.setOutFact(node, analysis.newBoundaryFact(cfg));
+        }
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,11 +276,25 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Creates an empty data-flow result for given CFG. For CFGs of
+     * {@link Stmt}s, the facts are kept in arrays indexed by the statements,
+     * which avoids hashing in the solving loop.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>(cfg.getIR());
+        }
+        return new DataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         for (Node node : cfg){
-            result.setInFact(node, this.analysis.newInitialFact());
-            result.setOutFact(node, this.analysis.newInitialFact());
+            result.setInFact(node, this.analysis.newInitialFact(cfg));
+            result.setOutFact(node, this.analysis.newInitialFact(cfg));
         }
         result.setOutFact(cfg.getEntry(),this.analysis.newBoundaryFact(cfg));
 
@@ -93,8 +307,8 @@ public abstract class Solver<Node, Fact> {
 
         for (Node node : cfg){
             if(node != cfg.getExit()){
-                result.setInFact(node,this.analysis.newInitialFact());
-                result.setOutFact(node,this.analysis.newInitialFact());
+                result.setInFact(node,this.analysis.newInitialFact(cfg));
+                result.setOutFact(node,this.analysis.newInitialFact(cfg));
             }
         }
     }
@@ -102,15 +316,109 @@ public abstract class Solver<Node, Fact> {
     /**
      * Solves the data-flow problem for given CFG.
      */
-    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                         SolverStats stats) {
         if (analysis.isForward()) {
-            doSolveForward(cfg, result);
+            doSolveForward(cfg, result, stats);
         } else {
-            doSolveBackward(cfg, result);
+            doSolveBackward(cfg, result, stats);
+        }
+    }
+
+    /**
+     * @return the statistics of solving a CFG, which are allocated
+     * only if metrics are enabled.
+     */
+    private SolverStats newStats() {
+        return metrics != null ? new SolverStats() : nodeVisitCounter;
+    }
+
+    /**
+     * Accumulates the statistics of solving given CFG, which started
+     * at {@code start} (if metrics are enabled).
+     */
+    private void finish(CFG<Node> cfg, SolverStats stats, long start) {
+        if (metrics != null) {
+            nodeVisits.add(stats.getPops());
+            metrics.record(analysisId, String.valueOf(cfg.getMethod()),
+                    cfg.getNumberOfNodes(), stats, System.nanoTime() - start);
         }
     }
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * Enables metrics of this solver, i.e., the statistics of every CFG
+     * solved afterwards are recorded in {@code metrics} under given
+     * analysis ID. This should be called before the solver is used.
+     */
+    public void enableMetrics(String analysisId, SolverMetrics metrics) {
+        this.analysisId = analysisId;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Enables loop-aware scheduling of this solver, i.e., the nodes of each
+     * loop are processed until the loop is stable before the nodes after
+     * the loop. This requires the loop nest of every solved CFG, which is
+     * computed once and cached in its IR. This should be called before
+     * the solver is used.
+     */
+    public void enableLoopAwareScheduling() {
+        loopAware = true;
+    }
+
+    protected boolean isLoopAware() {
+        return loopAware;
+    }
+
+    /**
+     * @return the number of node visits performed by this solver so far.
+     */
+    public long getNodeVisits() {
+        return nodeVisits.sum();
+    }
+
+    /**
+     * Solves the data-flow problem of a forward analysis, and adds
+     * the work performed to {@code stats}.
+     */
+    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                           SolverStats stats);
+
+    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                            SolverStats stats);
+
+    /**
+     * Solves the data-flow problem for the {@code affected} nodes of given
+     * CFG, whose facts have been initialized, while the facts of the other
+     * nodes are already final.
+     * <p>
+     * By default, this solves the whole CFG from these facts. The facts
+     * of the unaffected nodes are recomputed to the same values, as
+     * their predecessors (forward) or successors (backward) are unaffected
+     * as well, but they are written by the solving, thus they are copied
+     * first instead of being shared with the previous result. Solvers
+     * should override this to restrict the work to the affected nodes,
+     * and then must not modify the facts of the other nodes.
+     */
+    protected void doSolveIncrementally(
+            CFG<Node> cfg, DataflowResult<Node, Fact> result, Set<Node> affected,
+            SolverStats stats) {
+        for (Node node : cfg) {
+            if (!affected.contains(node)) {
+                result.setInFact(node, copyFact(cfg, result.getInFact(node)));
+                result.setOutFact(node, copyFact(cfg, result.getOutFact(node)));
+            }
+        }
+        doSolve(cfg, result, stats);
+    }
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * @return a copy of given fact, i.e., the meet of the fact and
+     * a new initial fact, which is the identity of the meet.
+     */
+    private Fact copyFact(CFG<Node> cfg, Fact fact) {
+        Fact copy = analysis.newInitialFact(cfg);
+        analysis.meetInto(fact, copy);
+        return copy;
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.util.AnalysisException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the {@link SolverStats} of the solvers which have metrics
+ * enabled (see {@link Solver#enableMetrics}), one entry per analysis and
+ * CFG, so that the methods which are expensive to solve can be spotted.
+ * <p>
+ * Entries may be added by multiple threads. The collected entries are
+ * dumped to CSV and JSON files by {@link #dump(File)}.
+ */
+public class SolverMetrics {
+
+    /**
+     * Key of the metrics of a run stored in {@link pascal.taie.World}.
+     */
+    public static final String ID = "solver-metrics";
+
+    private static final Logger logger = LogManager.getLogger(SolverMetrics.class);
+
+    private static final String CSV_FILE = "solver-metrics.csv";
+
+    private static final String JSON_FILE = "solver-metrics.json";
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Metrics of solving a CFG.
+     *
+     * @param analysis ID of the analysis
+     * @param method   the method of the CFG
+     * @param nodes    number of nodes in the CFG
+     * @param time     wall time in nanoseconds, including the
+     *                 initialization of the facts
+     */
+    public record Entry(String analysis, String method, int nodes,
+                        long pushes, long pops, long transfers,
+                        long changedTransfers, long meets, long time) {
+
+        /**
+         * @return the ratio of the transfers which changed the output fact.
+         */
+        @JsonProperty
+        public double changedRatio() {
+            return transfers == 0 ? 0 : (double) changedTransfers / transfers;
+        }
+    }
+
+    void record(String analysis, String method, int nodes,
+                SolverStats stats, long time) {
+        entries.add(new Entry(analysis, method, nodes,
+                stats.getPushes(), stats.getPops(), stats.getTransfers(),
+                stats.getChangedTransfers(), stats.getMeets(), time));
+    }
+
+    /**
+     * @return the collected entries sorted by analysis and method.
+     */
+    public List<Entry> getEntries() {
+        return entries.stream()
+                .sorted(Comparator.comparing(Entry::analysis)
+                        .thenComparing(Entry::method))
+                .toList();
+    }
+
+    /**
+     * Dumps the collected entries to solver-metrics.csv and
+     * solver-metrics.json in given directory.
+     */
+    public void dump(File dir) {
+        List<Entry> sorted = getEntries();
+        File csv = new File(dir, CSV_FILE);
+        File json = new File(dir, JSON_FILE);
+        logger.info("Dumping metrics of {} solvings to {} and {}",
+                sorted.size(), csv, json);
+        try (PrintStream out = new PrintStream(csv)) {
+            out.println("analysis,method,nodes,pushes,pops,transfers," +
+                    "changedTransfers,meets,changedRatio,time");
+            sorted.forEach(e -> out.printf(Locale.ROOT, "%s,\"%s\",%d,%d,%d,%d,%d,%d,%.4f,%d%n",
+                    e.analysis(), e.method().replace("\"", "\"\""),
+                    e.nodes(), e.pushes(), e.pops(), e.transfers(),
+                    e.changedTransfers(), e.meets(), e.changedRatio(), e.time()));
+            new ObjectMapper().writerWithDefaultPrettyPrinter()
+                    .writeValue(json, sorted);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to dump solver metrics", e);
+        }
+    }
+}
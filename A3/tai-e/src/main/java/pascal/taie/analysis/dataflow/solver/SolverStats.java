@@ -0,0 +1,110 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the work performed by a solver on a single CFG.
+ * Solvers count the work with local variables, and add the counts
+ * to the statistics when they finish the CFG.
+ */
+public class SolverStats {
+
+    private long pushes;
+
+    private long pops;
+
+    private long transfers;
+
+    private long changedTransfers;
+
+    private long meets;
+
+    SolverStats() {
+    }
+
+    /**
+     * @return statistics which only add the numbers of nodes removed from
+     * the work-list to {@code counter}, and ignore the other counts. As they
+     * keep no state, they can be shared by all CFGs solved by a solver
+     * when metrics are disabled.
+     */
+    static SolverStats popsOnly(LongAdder counter) {
+        return new SolverStats() {
+            @Override
+            public void addWorkListOperations(long pushes, long pops) {
+                counter.add(pops);
+            }
+
+            @Override
+            public void addTransfers(long transfers, long changedTransfers) {
+            }
+
+            @Override
+            public void addMeets(long meets) {
+            }
+        };
+    }
+
+    /**
+     * Adds the numbers of nodes added to and removed from the work-list.
+     */
+    public void addWorkListOperations(long pushes, long pops) {
+        this.pushes += pushes;
+        this.pops += pops;
+    }
+
+    /**
+     * Adds the number of transfer function calls, among which
+     * {@code changedTransfers} calls changed the output fact.
+     */
+    public void addTransfers(long transfers, long changedTransfers) {
+        this.transfers += transfers;
+        this.changedTransfers += changedTransfers;
+    }
+
+    public void addMeets(long meets) {
+        this.meets += meets;
+    }
+
+    public long getPushes() {
+        return pushes;
+    }
+
+    public long getPops() {
+        return pops;
+    }
+
+    public long getTransfers() {
+        return transfers;
+    }
+
+    public long getChangedTransfers() {
+        return changedTransfers;
+    }
+
+    public long getMeets() {
+        return meets;
+    }
+}
@@ -25,10 +25,16 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.LoopNest;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Set;
 
+/**
+ * Solver which processes the nodes in a {@link PriorityWorkList}, and meets
+ * the facts along the edges of the CFG, which are transferred by
+ * {@link DataflowAnalysis#transferEdge} when the analysis needs it.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
@@ -36,45 +42,97 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                  SolverStats stats) {
+        PriorityWorkList<Node> worklist = newWorkList(cfg, true);
+        worklist.addAllNodes();
+        solveForward(cfg, result, worklist, stats);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   SolverStats stats) {
+        PriorityWorkList<Node> worklist = newWorkList(cfg, false);
+        worklist.addAllNodes();
+        solveBackward(cfg, result, worklist, stats);
+    }
 
-        Queue<Node> worklist = new LinkedList<>();
-        for (Node node : cfg){
-            worklist.add(node);
+    /**
+     * The work-list is restricted to the affected nodes, as the facts
+     * of the other nodes do not change.
+     */
+    @Override
+    protected void doSolveIncrementally(
+            CFG<Node> cfg, DataflowResult<Node, Fact> result, Set<Node> affected,
+            SolverStats stats) {
+        PriorityWorkList<Node> worklist = newWorkList(cfg, analysis.isForward());
+        worklist.restrictTo(affected);
+        worklist.addAllNodes();
+        if (analysis.isForward()) {
+            solveForward(cfg, result, worklist, stats);
+        } else {
+            solveBackward(cfg, result, worklist, stats);
         }
-        while(!worklist.isEmpty()) {
+    }
+
+    /**
+     * Creates an empty work-list for given CFG, whose order is loop-aware
+     * if loop-aware scheduling is enabled.
+     */
+    private PriorityWorkList<Node> newWorkList(CFG<Node> cfg, boolean forward) {
+        return new PriorityWorkList<>(cfg, forward,
+                isLoopAware() ? LoopNest.of(cfg) : null);
+    }
+
+    private void solveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                              PriorityWorkList<Node> worklist,
+                              SolverStats stats) {
+        int meets = 0, changes = 0;
+        while (!worklist.isEmpty()) {
             Node node = worklist.poll();
-            for (Node pred : cfg.getPredsOf(node)) {
-                this.analysis.meetInto(result.getOutFact(pred), result.getInFact(node));
+            Fact inFact = result.getInFact(node);
+            for (Edge<Node> edge : cfg.getInEdgesOf(node)) {
+                Fact predOut = result.getOutFact(edge.getSource());
+                analysis.meetInto(analysis.needTransferEdge(edge) ?
+                        analysis.transferEdge(edge, predOut) : predOut, inFact);
+                ++meets;
             }
-
-            var inFact = result.getInFact(node);
-            var outFact = result.getOutFact(node);
-            boolean isChanged = this.analysis.transferNode(node, inFact, outFact);
-            if (isChanged) {
+            if (analysis.transferNode(node, inFact, result.getOutFact(node))) {
+                ++changes;
                 worklist.addAll(cfg.getSuccsOf(node));
             }
         }
+        recordStats(worklist, meets, changes, stats);
     }
 
-    @Override
-    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        boolean inFactAnyChange = true;
-        while(inFactAnyChange) {
-            //reset flag
-            inFactAnyChange = false;
-
-            for(Node node : cfg){
-                for(Node succ :cfg.getSuccsOf(node)){
-
-                    this.analysis.meetInto(result.getInFact(succ),result.getOutFact(node));
-                }
-                var inFact = result.getInFact(node);
-                boolean isChanged = this.analysis.transferNode(node,inFact,result.getOutFact(node));
-                inFactAnyChange = inFactAnyChange || isChanged;
+    private void solveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                               PriorityWorkList<Node> worklist,
+                               SolverStats stats) {
+        int meets = 0, changes = 0;
+        while (!worklist.isEmpty()) {
+            Node node = worklist.poll();
+            Fact outFact = result.getOutFact(node);
+            for (Edge<Node> edge : cfg.getOutEdgesOf(node)) {
+                Fact succIn = result.getInFact(edge.getTarget());
+                analysis.meetInto(analysis.needTransferEdge(edge) ?
+                        analysis.transferEdge(edge, succIn) : succIn, outFact);
+                ++meets;
+            }
+            if (analysis.transferNode(node, result.getInFact(node), outFact)) {
+                ++changes;
+                worklist.addAll(cfg.getPredsOf(node));
             }
         }
+        recordStats(worklist, meets, changes, stats);
+    }
+
+    /**
+     * Each node polled from the work-list is transferred once.
+     */
+    private static void recordStats(PriorityWorkList<?> worklist,
+                                    int meets, int changes, SolverStats stats) {
+        stats.addWorkListOperations(worklist.getPushes(), worklist.getVisits());
+        stats.addTransfers(worklist.getVisits(), changes);
+        stats.addMeets(meets);
     }
 }
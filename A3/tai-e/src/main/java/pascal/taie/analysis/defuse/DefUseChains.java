@@ -0,0 +1,207 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.defuse;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Def-use and use-def chains of an IR, which are derived from the
+ * reaching definitions of the variables. A definition is a statement
+ * which defines a variable (see {@link DefUseIndex}), and it reaches
+ * the uses of the variable along the paths of the CFG that do not
+ * define the variable again. The parameters are defined by the entry
+ * of the CFG. The other variables may be used before any definition,
+ * thus their uses may have no reaching definitions.
+ * <p>
+ * The chains are built from {@link ReachingDefinitions}, whose bit vectors
+ * are not kept afterwards, and are kept in compressed rows like the ones
+ * of {@link DefUseIndex}, where the entry is denoted by its index.
+ * The chains are not cached in the IR, as they are a building block of
+ * other analyses rather than a result of their own.
+ */
+public class DefUseChains {
+
+    private final CFG<Stmt> cfg;
+
+    private final DefUseIndex index;
+
+    /**
+     * Index of the entry of {@link #cfg}, which follows the statements.
+     */
+    private final int entry;
+
+    /**
+     * Definitions reaching each use, where the uses are numbered by their
+     * positions in the concatenated uses of {@link DefUseIndex}.
+     */
+    private final int[] reachingDefOffsets;
+
+    private final int[] reachingDefs;
+
+    /**
+     * Statements using each definition, indexed by statements and entry.
+     */
+    private final int[] reachedUseOffsets;
+
+    private final int[] reachedUses;
+
+    public DefUseChains(CFG<Stmt> cfg) {
+        this(new ReachingDefinitions(cfg));
+    }
+
+    public DefUseChains(ReachingDefinitions reachingDefinitions) {
+        this.cfg = reachingDefinitions.getCFG();
+        IR ir = cfg.getIR();
+        index = reachingDefinitions.getIndex();
+        int numStmts = ir.getStmts().size();
+        entry = cfg.getEntry().getIndex();
+        int numUses = index.getNumberOfUses();
+        // use-def chains
+        reachingDefOffsets = new int[numUses + 1];
+        int[] buffer = new int[Math.max(16, numUses)];
+        int size = 0;
+        for (int s = 0; s < numStmts; ++s) {
+            for (int u = index.getUseOffset(s); u < index.getUseOffset(s + 1); ++u) {
+                reachingDefOffsets[u] = size;
+                int v = index.getUseAt(u);
+                // at most all definitions of v reach the use
+                int numDefs = index.getNumberOfDefStmts(v) + 1;
+                if (buffer.length - size < numDefs) {
+                    buffer = Arrays.copyOf(buffer, 2 * buffer.length + numDefs);
+                }
+                int node = s;
+                int paramDef = reachingDefinitions.getParamDef(v);
+                if (paramDef >= 0 && reachingDefinitions.reaches(node, paramDef)) {
+                    buffer[size++] = entry;
+                }
+                int[] defs = buffer;
+                int[] count = { size };
+                index.forEachDefStmt(v, d -> {
+                    if (reachingDefinitions.reaches(node, d)) {
+                        defs[count[0]++] = d;
+                    }
+                });
+                size = count[0];
+            }
+        }
+        reachingDefOffsets[numUses] = size;
+        reachingDefs = Arrays.copyOf(buffer, size);
+        // def-use chains, i.e., the inverse of the use-def chains
+        int numDefs = numStmts + 1; // plus entry
+        int[] counts = new int[numDefs + 1];
+        for (int d : reachingDefs) {
+            ++counts[d + 1];
+        }
+        for (int d = 0; d < numDefs; ++d) {
+            counts[d + 1] += counts[d];
+        }
+        reachedUseOffsets = counts;
+        reachedUses = new int[size];
+        int[] next = Arrays.copyOf(reachedUseOffsets, numDefs);
+        for (int s = 0; s < numStmts; ++s) {
+            for (int u = index.getUseOffset(s); u < index.getUseOffset(s + 1); ++u) {
+                for (int i = reachingDefOffsets[u]; i < reachingDefOffsets[u + 1]; ++i) {
+                    reachedUses[next[reachingDefs[i]]++] = s;
+                }
+            }
+        }
+    }
+
+    public DefUseIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the definitions of {@code var} which reach its use
+     * at {@code stmt}, including the entry of the CFG if {@code var}
+     * is a parameter, or an empty list if {@code stmt} does not use
+     * {@code var}, e.g., {@code stmt} is the entry or exit of the CFG.
+     */
+    public List<Stmt> getDefs(Stmt stmt, Var var) {
+        int s = stmt.getIndex();
+        if (s >= reachedUseOffsets.length - 2) { // the entry and exit
+            return List.of();
+        }
+        for (int u = index.getUseOffset(s); u < index.getUseOffset(s + 1); ++u) {
+            if (index.getUseAt(u) == var.getIndex()) {
+                return new NodeList(reachingDefs,
+                        reachingDefOffsets[u], reachingDefOffsets[u + 1]);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * @return the statements using the variable defined by {@code def},
+     * which are reached by the definition. If {@code def} is the entry
+     * of the CFG, they are the uses of the parameters. If {@code def} is
+     * the exit of the CFG, or does not define a variable, the list is empty.
+     */
+    public List<Stmt> getUses(Stmt def) {
+        int s = def.getIndex();
+        if (s + 1 >= reachedUseOffsets.length) { // the exit
+            return List.of();
+        }
+        return new NodeList(reachedUses,
+                reachedUseOffsets[s], reachedUseOffsets[s + 1]);
+    }
+
+    /**
+     * Unmodifiable view of a row of node indexes.
+     */
+    private class NodeList extends AbstractList<Stmt> {
+
+        private final int[] elements;
+
+        private final int from;
+
+        private final int size;
+
+        private NodeList(int[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public Stmt get(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            int node = elements[from + i];
+            return node == entry ? cfg.getEntry() : cfg.getIR().getStmt(node);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.defuse;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of the variables defined and used by the statements of an IR,
+ * and of the statements defining and using each variable.
+ * <p>
+ * The index is built in one pass over the statements, and kept in
+ * primitive arrays indexed by {@link Stmt#getIndex()} and
+ * {@link Var#getIndex()}, where the variable-length parts are stored
+ * in compressed rows, i.e., the elements of row {@code i} are
+ * {@code elements[offsets[i]]} to {@code elements[offsets[i + 1] - 1]}.
+ * The queries do not scan the statements or allocate streams, so
+ * clients can query the index in their inner loops instead of calling
+ * {@link Stmt#getDef()} and {@link Stmt#getUses()}.
+ * <p>
+ * The index of an IR is built once, and cached in the IR
+ * (see {@link #of(IR)}).
+ */
+public class DefUseIndex {
+
+    /**
+     * Key of the index cached in {@link IR}.
+     */
+    public static final String ID = "def-use-index";
+
+    private final IR ir;
+
+    /**
+     * Index of the variable defined by each statement, or -1.
+     */
+    private final int[] defs;
+
+    /**
+     * Variables used by each statement (without duplicates).
+     */
+    private final int[] useOffsets;
+
+    private final int[] uses;
+
+    /**
+     * Statements defining each variable.
+     */
+    private final int[] defStmtOffsets;
+
+    private final int[] defStmts;
+
+    /**
+     * Statements using each variable.
+     */
+    private final int[] useStmtOffsets;
+
+    private final int[] useStmts;
+
+    public DefUseIndex(IR ir) {
+        this.ir = ir;
+        List<Stmt> stmts = ir.getStmts();
+        int numStmts = stmts.size(), numVars = ir.getVars().size();
+        defs = new int[numStmts];
+        useOffsets = new int[numStmts + 1];
+        int[] buffer = new int[16];
+        int numUses = 0;
+        int[] defCounts = new int[numVars + 1];
+        int[] useCounts = new int[numVars + 1];
+        for (Stmt stmt : stmts) {
+            int s = stmt.getIndex();
+            defs[s] = stmt.getDef().orElse(null) instanceof Var def ?
+                    def.getIndex() : -1;
+            if (defs[s] >= 0) {
+                ++defCounts[defs[s] + 1];
+            }
+            useOffsets[s] = numUses;
+            for (RValue use : stmt.getUses()) {
+                if (use instanceof Var var &&
+                        !contains(buffer, useOffsets[s], numUses, var.getIndex())) {
+                    if (numUses == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                    }
+                    buffer[numUses++] = var.getIndex();
+                    ++useCounts[var.getIndex() + 1];
+                }
+            }
+        }
+        useOffsets[numStmts] = numUses;
+        uses = Arrays.copyOf(buffer, numUses);
+        // inverts the rows of the statements to the rows of the variables
+        defStmtOffsets = prefixSums(defCounts);
+        defStmts = new int[defStmtOffsets[numVars]];
+        useStmtOffsets = prefixSums(useCounts);
+        useStmts = new int[useStmtOffsets[numVars]];
+        int[] nextDef = Arrays.copyOf(defStmtOffsets, numVars);
+        int[] nextUse = Arrays.copyOf(useStmtOffsets, numVars);
+        for (int s = 0; s < numStmts; ++s) {
+            if (defs[s] >= 0) {
+                defStmts[nextDef[defs[s]]++] = s;
+            }
+            for (int i = useOffsets[s]; i < useOffsets[s + 1]; ++i) {
+                useStmts[nextUse[uses[i]]++] = s;
+            }
+        }
+    }
+
+    /**
+     * @return the index of given IR, which is cached in the IR.
+     */
+    public static DefUseIndex of(IR ir) {
+        return ir.getResult(ID, () -> new DefUseIndex(ir));
+    }
+
+    private static boolean contains(int[] array, int from, int to, int value) {
+        for (int i = from; i < to; ++i) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts counts, where {@code counts[i + 1]} is the number of elements
+     * of row {@code i}, to offsets in place.
+     */
+    private static int[] prefixSums(int[] counts) {
+        for (int i = 1; i < counts.length; ++i) {
+            counts[i] += counts[i - 1];
+        }
+        return counts;
+    }
+
+    public IR getIR() {
+        return ir;
+    }
+
+    /**
+     * @return the variable defined by given statement, or {@code null}
+     * if it does not define a variable (e.g., it stores to a field).
+     */
+    public Var getDef(Stmt stmt) {
+        int def = defs[stmt.getIndex()];
+        return def >= 0 ? ir.getVar(def) : null;
+    }
+
+    /**
+     * @return the index of the variable defined by given statement,
+     * or -1 if it does not define a variable.
+     */
+    public int getDefIndex(Stmt stmt) {
+        return defs[stmt.getIndex()];
+    }
+
+    /**
+     * @return the variables used by given statement, without duplicates.
+     */
+    public List<Var> getUses(Stmt stmt) {
+        int s = stmt.getIndex();
+        return new VarList(uses, useOffsets[s], useOffsets[s + 1]);
+    }
+
+    /**
+     * Applies {@code action} to the index of every variable used by
+     * given statement.
+     */
+    public void forEachUseIndex(Stmt stmt, IntConsumer action) {
+        int s = stmt.getIndex();
+        for (int i = useOffsets[s]; i < useOffsets[s + 1]; ++i) {
+            action.accept(uses[i]);
+        }
+    }
+
+    /**
+     * @return true if given statement uses given variable.
+     */
+    public boolean isUsedBy(Var var, Stmt stmt) {
+        int s = stmt.getIndex();
+        return contains(uses, useOffsets[s], useOffsets[s + 1], var.getIndex());
+    }
+
+    /**
+     * @return the statements defining given variable, in the order
+     * of their indexes.
+     */
+    public List<Stmt> getDefStmts(Var var) {
+        int v = var.getIndex();
+        return new StmtList(defStmts, defStmtOffsets[v], defStmtOffsets[v + 1]);
+    }
+
+    /**
+     * @return the statements using given variable, in the order
+     * of their indexes.
+     */
+    public List<Stmt> getUseStmts(Var var) {
+        int v = var.getIndex();
+        return new StmtList(useStmts, useStmtOffsets[v], useStmtOffsets[v + 1]);
+    }
+
+    /**
+     * @return the position of the first variable used by the statement
+     * of index {@code s} in the concatenated uses of all statements, where
+     * the uses of the statement end at the position for {@code s + 1}.
+     */
+    int getUseOffset(int s) {
+        return useOffsets[s];
+    }
+
+    /**
+     * @return the index of the variable at given position in the
+     * concatenated uses of all statements.
+     */
+    int getUseAt(int position) {
+        return uses[position];
+    }
+
+    /**
+     * @return the number of uses of all statements.
+     */
+    int getNumberOfUses() {
+        return uses.length;
+    }
+
+    /**
+     * @return the number of statements defining the variable of index
+     * {@code v}.
+     */
+    int getNumberOfDefStmts(int v) {
+        return defStmtOffsets[v + 1] - defStmtOffsets[v];
+    }
+
+    /**
+     * Applies {@code action} to the index of every statement defining
+     * the variable of index {@code v}.
+     */
+    void forEachDefStmt(int v, IntConsumer action) {
+        for (int i = defStmtOffsets[v]; i < defStmtOffsets[v + 1]; ++i) {
+            action.accept(defStmts[i]);
+        }
+    }
+
+    /**
+     * Unmodifiable view of a row of indexes.
+     */
+    private abstract static class Row<E> extends AbstractList<E> {
+
+        final int[] elements;
+
+        final int from;
+
+        private final int size;
+
+        private Row(int[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        int indexAt(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return elements[from + i];
+        }
+    }
+
+    private class VarList extends Row<Var> {
+
+        private VarList(int[] elements, int from, int to) {
+            super(elements, from, to);
+        }
+
+        @Override
+        public Var get(int i) {
+            return ir.getVar(indexAt(i));
+        }
+    }
+
+    private class StmtList extends Row<Stmt> {
+
+        private StmtList(int[] elements, int from, int to) {
+            super(elements, from, to);
+        }
+
+        @Override
+        public Stmt get(int i) {
+            return ir.getStmt(indexAt(i));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.defuse;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Reaching definitions of the variables at the program point before each
+ * node of a CFG, which are solved on bit vectors indexed by
+ * {@link Stmt#getIndex()}, followed by the definitions of the parameters
+ * by the entry of the CFG.
+ * <p>
+ * The bit vectors take O(nodes * definitions) space, thus they are not
+ * cached in the IR. {@link DefUseChains} are built from them and keep
+ * only the compressed rows, and an analysis which needs the definitions
+ * reaching every node (e.g., to materialize its facts) holds them as long
+ * as its own result.
+ */
+public class ReachingDefinitions {
+
+    private final CFG<Stmt> cfg;
+
+    private final DefUseIndex index;
+
+    /**
+     * Bit of the definition of each parameter by the entry, indexed by
+     * {@link Var#getIndex()}, or -1 for the other variables.
+     */
+    private final int[] paramDefs;
+
+    /**
+     * Definitions reaching the program point before each node,
+     * indexed by node indexes (including the entry and exit).
+     */
+    private final BitSet[] in;
+
+    public ReachingDefinitions(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        IR ir = cfg.getIR();
+        index = DefUseIndex.of(ir);
+        int numStmts = ir.getStmts().size();
+        paramDefs = new int[ir.getVars().size()];
+        Arrays.fill(paramDefs, -1);
+        List<Var> params = ir.getParams();
+        for (int i = 0; i < params.size(); ++i) {
+            paramDefs[params.get(i).getIndex()] = numStmts + i;
+        }
+        in = solve();
+    }
+
+    /**
+     * Solves reaching definitions by a forward bit-vector analysis,
+     * whose work-list polls the nodes in the order of their indexes.
+     *
+     * @return the definitions reaching the program point before each node,
+     * indexed by node indexes (including the entry and exit).
+     */
+    private BitSet[] solve() {
+        IR ir = cfg.getIR();
+        int numStmts = ir.getStmts().size();
+        int numDefs = numStmts + ir.getParams().size();
+        int size = numStmts + 2; // plus entry and exit
+        int entry = cfg.getEntry().getIndex();
+        Stmt[] nodes = new Stmt[size];
+        cfg.forEach(node -> nodes[node.getIndex()] = node);
+        // definitions of each variable, which are killed by each other
+        BitSet[] defsOfVar = new BitSet[ir.getVars().size()];
+        BitSet entryDefs = new BitSet(numDefs);
+        for (int s = 0; s < numStmts; ++s) {
+            int v = index.getDefIndex(ir.getStmt(s));
+            if (v >= 0 && defsOfVar[v] == null) {
+                BitSet defs = defsOfVar[v] = new BitSet(numDefs);
+                index.forEachDefStmt(v, defs::set);
+                if (paramDefs[v] >= 0) {
+                    defs.set(paramDefs[v]);
+                }
+            }
+        }
+        for (int d : paramDefs) {
+            if (d >= 0) {
+                entryDefs.set(d);
+            }
+        }
+        BitSet[] in = new BitSet[size];
+        BitSet[] out = new BitSet[size];
+        BitSet workList = new BitSet(size);
+        for (Stmt node : nodes) {
+            if (node != null) {
+                in[node.getIndex()] = new BitSet(numDefs);
+                out[node.getIndex()] = new BitSet(numDefs);
+                workList.set(node.getIndex());
+            }
+        }
+        BitSet newOut = new BitSet(numDefs);
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Stmt node = nodes[i];
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                in[i].or(out[pred.getIndex()]);
+            }
+            newOut.clear();
+            newOut.or(in[i]);
+            int v = i < numStmts ? index.getDefIndex(node) : -1;
+            if (v >= 0) {
+                newOut.andNot(defsOfVar[v]);
+                newOut.set(i);
+            } else if (i == entry) {
+                newOut.or(entryDefs);
+            }
+            if (!newOut.equals(out[i])) {
+                BitSet old = out[i];
+                out[i] = newOut;
+                newOut = old;
+                cfg.getSuccsOf(node).forEach(succ -> workList.set(succ.getIndex()));
+            }
+        }
+        return in;
+    }
+
+    public CFG<Stmt> getCFG() {
+        return cfg;
+    }
+
+    public DefUseIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the bit of the definition of the variable of given index
+     * by the entry if the variable is a parameter, otherwise -1.
+     */
+    int getParamDef(int var) {
+        return paramDefs[var];
+    }
+
+    /**
+     * @return true if the definition of given bit reaches the program
+     * point before the node of given index.
+     */
+    boolean reaches(int node, int def) {
+        return in[node].get(def);
+    }
+
+    /**
+     * Applies {@code action} to every definition reaching the program point
+     * before {@code node}, together with the variable it defines. The
+     * definitions of the parameters are given by the entry of the CFG.
+     */
+    public void forEachReachingDef(Stmt node, BiConsumer<Var, Stmt> action) {
+        IR ir = cfg.getIR();
+        int numStmts = ir.getStmts().size();
+        BitSet defs = in[node.getIndex()];
+        for (int d = defs.nextSetBit(0); d >= 0; d = defs.nextSetBit(d + 1)) {
+            if (d < numStmts) {
+                Stmt def = ir.getStmt(d);
+                action.accept(index.getDef(def), def);
+            } else {
+                action.accept(ir.getParams().get(d - numStmts), cfg.getEntry());
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.ReversePostorder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dominator tree of a CFG, which is computed by the iterative algorithm of
+ * Cooper, Harvey and Kennedy ("A Simple, Fast Dominance Algorithm") on the
+ * reverse postorder of the nodes reachable from the entry.
+ * The nodes which are not reachable from the entry are not in the tree.
+ * <p>
+ * The tree of the CFG of an IR is computed once, and cached in the IR
+ * (see {@link #of(CFG)}).
+ *
+ * @param <Node> type of CFG nodes
+ */
+public class DominatorTree<Node> {
+
+    /**
+     * Key of the dominator tree cached in {@link pascal.taie.ir.IR}.
+     */
+    public static final String ID = "dominator-tree";
+
+    private final CFG<Node> cfg;
+
+    /**
+     * Reachable nodes in reverse postorder, i.e., the entry is at index 0.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Maps each reachable node to its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> indexes;
+
+    /**
+     * Index of the immediate dominator of each node. The entry is its
+     * own immediate dominator.
+     */
+    private final int[] idoms;
+
+    /**
+     * Preorder and postorder numbers of the nodes in the dominator tree,
+     * which answer {@link #dominates} in constant time.
+     */
+    private final int[] preorder, postorder;
+
+    public DominatorTree(CFG<Node> cfg) {
+        this.cfg = cfg;
+        nodes = ReversePostorder.reachable(cfg, cfg.getEntry());
+        indexes = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            indexes.put(nodes.get(i), i);
+        }
+        idoms = computeImmediateDominators();
+        preorder = new int[nodes.size()];
+        postorder = new int[nodes.size()];
+        numberTree();
+    }
+
+    /**
+     * @return the dominator tree of given CFG, which is cached in
+     * the IR of the CFG.
+     */
+    public static <Node> DominatorTree<Node> of(CFG<Node> cfg) {
+        DominatorTree<Node> tree = cfg.getIR().getResult(ID);
+        if (tree == null || tree.cfg != cfg) {
+            tree = new DominatorTree<>(cfg);
+            cfg.getIR().storeResult(ID, tree);
+        }
+        return tree;
+    }
+
+    private int[] computeImmediateDominators() {
+        int[] idoms = new int[nodes.size()];
+        Arrays.fill(idoms, -1);
+        idoms[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < nodes.size(); ++i) {
+                int idom = -1;
+                for (Node pred : cfg.getPredsOf(nodes.get(i))) {
+                    Integer p = indexes.get(pred);
+                    if (p != null && idoms[p] != -1) {
+                        idom = idom == -1 ? p : intersect(idoms, p, idom);
+                    }
+                }
+                if (idoms[i] != idom) {
+                    idoms[i] = idom;
+                    changed = true;
+                }
+            }
+        }
+        return idoms;
+    }
+
+    /**
+     * @return the nearest common dominator of nodes {@code a} and {@code b}.
+     * As the nodes are indexed in reverse postorder, a dominator always
+     * has a smaller index than the nodes it dominates.
+     */
+    private static int intersect(int[] idoms, int a, int b) {
+        while (a != b) {
+            while (a > b) {
+                a = idoms[a];
+            }
+            while (b > a) {
+                b = idoms[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Numbers the nodes by a depth-first traversal of the dominator tree,
+     * whose children are kept in arrays indexed by their parents.
+     */
+    private void numberTree() {
+        int n = nodes.size();
+        int[] counts = new int[n + 1];
+        for (int i = 1; i < n; ++i) {
+            ++counts[idoms[i] + 1];
+        }
+        for (int i = 0; i < n; ++i) {
+            counts[i + 1] += counts[i];
+        }
+        int[] children = new int[Math.max(0, n - 1)];
+        int[] next = Arrays.copyOf(counts, n);
+        for (int i = 1; i < n; ++i) {
+            children[next[idoms[i]]++] = i;
+        }
+        int[] stack = new int[n];
+        int[] cursors = new int[n];
+        int top = 0, pre = 0, post = 0;
+        stack[top++] = 0;
+        preorder[0] = pre++;
+        cursors[0] = counts[0];
+        while (top > 0) {
+            int node = stack[top - 1];
+            if (cursors[node] < counts[node + 1]) {
+                int child = children[cursors[node]++];
+                preorder[child] = pre++;
+                cursors[child] = counts[child];
+                stack[top++] = child;
+            } else {
+                postorder[node] = post++;
+                --top;
+            }
+        }
+    }
+
+    public CFG<Node> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return true if given node is reachable from the entry of the CFG,
+     * i.e., it is in this tree.
+     */
+    public boolean isReachable(Node node) {
+        return indexes.containsKey(node);
+    }
+
+    /**
+     * @return the immediate dominator of given node, or {@code null} if
+     * the node is the entry or not reachable from the entry.
+     */
+    public Node getImmediateDominator(Node node) {
+        Integer i = indexes.get(node);
+        return i == null || i == 0 ? null : nodes.get(idoms[i]);
+    }
+
+    /**
+     * @return true if node {@code a} dominates node {@code b}. Every
+     * reachable node dominates itself, and unreachable nodes neither
+     * dominate nor are dominated by any node.
+     */
+    public boolean dominates(Node a, Node b) {
+        Integer i = indexes.get(a), j = indexes.get(b);
+        return i != null && j != null &&
+                preorder[i] <= preorder[j] && postorder[j] <= postorder[i];
+    }
+
+    /**
+     * @return the reachable nodes in reverse postorder, where every node
+     * is preceded by its dominators.
+     */
+    public List<Node> getReversePostorder() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * @return the index of given node in {@link #getReversePostorder()},
+     * or -1 if the node is not reachable.
+     */
+    public int indexOf(Node node) {
+        return indexes.getOrDefault(node, -1);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Natural loops of a CFG and their nesting. A back edge is an edge whose
+ * target (the header) dominates its source, and the natural loop of a
+ * header consists of the header and the nodes which can reach a source
+ * of its back edges without passing through the header. The loops of
+ * different headers are either disjoint or nested, thus they form a forest.
+ * <p>
+ * The cycles of irreducible regions have no dominating header, thus
+ * they are not loops. The loop nest of the CFG of an IR is computed once,
+ * and cached in the IR (see {@link #of(CFG)}).
+ *
+ * @param <Node> type of CFG nodes
+ */
+public class LoopNest<Node> {
+
+    /**
+     * Key of the loop nest cached in {@link pascal.taie.ir.IR}.
+     */
+    public static final String ID = "loop-nest";
+
+    private final DominatorTree<Node> dominators;
+
+    /**
+     * Loops in the reverse postorder of their headers, thus every loop
+     * is preceded by its enclosing loops.
+     */
+    private final List<Loop<Node>> loops = new ArrayList<>();
+
+    /**
+     * Maps each node in a loop to the innermost loop containing it.
+     */
+    private final Map<Node, Loop<Node>> innermost = Maps.newMap();
+
+    public LoopNest(DominatorTree<Node> dominators) {
+        this.dominators = dominators;
+        findLoops();
+        nestLoops();
+    }
+
+    /**
+     * @return the loop nest of given CFG, which is cached in the IR
+     * of the CFG.
+     */
+    public static <Node> LoopNest<Node> of(CFG<Node> cfg) {
+        LoopNest<Node> nest = cfg.getIR().getResult(ID);
+        if (nest == null || nest.getCFG() != cfg) {
+            nest = new LoopNest<>(DominatorTree.of(cfg));
+            cfg.getIR().storeResult(ID, nest);
+        }
+        return nest;
+    }
+
+    private void findLoops() {
+        CFG<Node> cfg = dominators.getCFG();
+        for (Node header : dominators.getReversePostorder()) {
+            Set<Node> body = Sets.newHybridSet();
+            Deque<Node> workList = new ArrayDeque<>();
+            body.add(header);
+            for (Node pred : cfg.getPredsOf(header)) {
+                if (dominators.dominates(header, pred) && body.add(pred)) {
+                    workList.add(pred);
+                }
+            }
+            if (body.size() == 1 && !cfg.getPredsOf(header).contains(header)) {
+                continue; // no back edges
+            }
+            while (!workList.isEmpty()) {
+                Node node = workList.poll();
+                for (Node pred : cfg.getPredsOf(node)) {
+                    // unreachable predecessors are not in the loop
+                    if (dominators.isReachable(pred) && body.add(pred)) {
+                        workList.add(pred);
+                    }
+                }
+            }
+            loops.add(new Loop<>(header, Collections.unmodifiableSet(body)));
+        }
+    }
+
+    /**
+     * Connects the loops to their parents. The loops are visited from
+     * the largest to the smallest, so a loop is visited after all loops
+     * enclosing it, and the innermost loop visited so far that contains
+     * its header is its parent.
+     */
+    private void nestLoops() {
+        List<Loop<Node>> bySize = new ArrayList<>(loops);
+        bySize.sort(Comparator.comparingInt((Loop<Node> loop) -> loop.nodes.size())
+                .reversed());
+        for (Loop<Node> loop : bySize) {
+            Loop<Node> parent = innermost.get(loop.header);
+            if (parent != null) {
+                loop.parent = parent;
+                loop.depth = parent.depth + 1;
+                parent.children.add(loop);
+            }
+            loop.nodes.forEach(node -> innermost.put(node, loop));
+        }
+        // keeps the children in the reverse postorder of their headers
+        loops.forEach(loop -> loop.children.sort(Comparator.comparingInt(
+                (Loop<Node> child) -> dominators.indexOf(child.header))));
+    }
+
+    public CFG<Node> getCFG() {
+        return dominators.getCFG();
+    }
+
+    public DominatorTree<Node> getDominatorTree() {
+        return dominators;
+    }
+
+    /**
+     * @return all loops, where every loop is preceded by its enclosing loops.
+     */
+    public List<Loop<Node>> getLoops() {
+        return Collections.unmodifiableList(loops);
+    }
+
+    /**
+     * @return the loops which are not enclosed by other loops.
+     */
+    public List<Loop<Node>> getTopLevelLoops() {
+        return loops.stream().filter(loop -> loop.parent == null).toList();
+    }
+
+    /**
+     * @return the innermost loop containing given node, or {@code null}
+     * if the node is not in any loop.
+     */
+    public Loop<Node> getLoopOf(Node node) {
+        return innermost.get(node);
+    }
+
+    /**
+     * @return the number of loops containing given node.
+     */
+    public int getLoopDepth(Node node) {
+        Loop<Node> loop = innermost.get(node);
+        return loop == null ? 0 : loop.depth;
+    }
+
+    /**
+     * A natural loop.
+     *
+     * @param <Node> type of CFG nodes
+     */
+    public static class Loop<Node> {
+
+        private final Node header;
+
+        private final Set<Node> nodes;
+
+        private Loop<Node> parent;
+
+        private final List<Loop<Node>> children = new ArrayList<>();
+
+        private int depth = 1;
+
+        private Loop(Node header, Set<Node> nodes) {
+            this.header = header;
+            this.nodes = nodes;
+        }
+
+        public Node getHeader() {
+            return header;
+        }
+
+        /**
+         * @return the nodes of this loop, including the header and
+         * the nodes of the nested loops.
+         */
+        public Set<Node> getNodes() {
+            return nodes;
+        }
+
+        public boolean contains(Node node) {
+            return nodes.contains(node);
+        }
+
+        /**
+         * @return the innermost loop enclosing this loop, or {@code null}
+         * if this loop is a top-level loop.
+         */
+        public Loop<Node> getParent() {
+            return parent;
+        }
+
+        /**
+         * @return the loops directly nested in this loop.
+         */
+        public List<Loop<Node>> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * @return the number of loops enclosing this loop, plus one.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            return "Loop{header=" + header + ", size=" + nodes.size() +
+                    ", depth=" + depth + "}";
+        }
+    }
+}
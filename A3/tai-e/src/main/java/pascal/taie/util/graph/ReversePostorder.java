@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes reverse postorder of the nodes of a graph by iterative
+ * depth-first search, which avoids stack overflow on large graphs,
+ * e.g., the CFGs of large methods. To order the nodes along the
+ * predecessors, give a {@link ReverseGraph}.
+ */
+public final class ReversePostorder {
+
+    private ReversePostorder() {
+    }
+
+    /**
+     * @return the nodes reachable from {@code root} in reverse postorder,
+     * i.e., {@code root} is the first node.
+     */
+    public static <N> List<N> reachable(Graph<N> graph, N root) {
+        return compute(graph, root, false);
+    }
+
+    /**
+     * @return all nodes of {@code graph} in reverse postorder. The nodes
+     * which are not reachable from {@code root} (e.g., unreachable code)
+     * are searched afterwards in the iteration order of {@code graph},
+     * and thus precede the reachable nodes.
+     */
+    public static <N> List<N> all(Graph<N> graph, N root) {
+        return compute(graph, root, true);
+    }
+
+    private static <N> List<N> compute(Graph<N> graph, N root, boolean all) {
+        List<N> postorder = new ArrayList<>(graph.getNumberOfNodes());
+        Set<N> visited = Sets.newSet(graph.getNumberOfNodes());
+        dfs(graph, root, visited, postorder);
+        if (all) {
+            for (N node : graph) {
+                if (!visited.contains(node)) {
+                    dfs(graph, node, visited, postorder);
+                }
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    private static <N> void dfs(Graph<N> graph, N root,
+                                Set<N> visited, List<N> postorder) {
+        Deque<N> stack = new ArrayDeque<>();
+        Deque<Iterator<N>> iterators = new ArrayDeque<>();
+        visited.add(root);
+        stack.push(root);
+        iterators.push(graph.getSuccsOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<N> it = iterators.peek();
+            if (it.hasNext()) {
+                N next = it.next();
+                if (visited.add(next)) {
+                    stack.push(next);
+                    iterators.push(graph.getSuccsOf(next).iterator());
+                }
+            } else {
+                postorder.add(stack.pop());
+                iterators.pop();
+            }
+        }
+    }
+}
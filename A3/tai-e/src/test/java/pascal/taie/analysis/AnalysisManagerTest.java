@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class AnalysisManagerTest {
+
+    private static List<MethodAnalysis> newPipeline() {
+        return List.of(
+                new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                        "exception", "none", "dump", false)),
+                new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)),
+                new LiveVariableAnalysis(new AnalysisConfig(
+                        LiveVariableAnalysis.ID, "strongly", false)),
+                new DeadCodeDetection(new AnalysisConfig(DeadCodeDetection.ID)));
+    }
+
+    /**
+     * @return the results stored in given IR by the pipeline, where
+     * the data-flow results are converted to the facts of each statement.
+     */
+    private static Map<String, Object> getResults(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        NodeResult<Stmt, ?> constants = ir.getResult(ConstantPropagation.ID);
+        NodeResult<Stmt, ?> liveVars = ir.getResult(LiveVariableAnalysis.ID);
+        return Map.of(
+                // entry and exit nodes are created for each CFG,
+                // thus the edges are compared by the indexes of nodes
+                CFGBuilder.ID, cfg.getNodes().stream()
+                        .flatMap(n -> cfg.getSuccsOf(n).stream()
+                                .map(s -> n.getIndex() + "->" + s.getIndex()))
+                        .collect(Collectors.toSet()),
+                ConstantPropagation.ID, getFacts(ir, constants),
+                LiveVariableAnalysis.ID, getFacts(ir, liveVars),
+                DeadCodeDetection.ID, Set.copyOf(ir.getResult(DeadCodeDetection.ID)));
+    }
+
+    private static List<String> getFacts(IR ir, NodeResult<Stmt, ?> result) {
+        List<String> facts = new ArrayList<>();
+        for (Stmt stmt : ir) {
+            facts.add(result.getInFact(stmt) + " " + result.getOutFact(stmt));
+        }
+        return facts;
+    }
+
+    @Test
+    public void testPipelineSameAsSequential() {
+        List<IR> irs = new ArrayList<>();
+        for (int seed = 0; seed < 16; ++seed) {
+            // few assignments in many variables keep most conditions constant
+            irs.add(SyntheticMethods.generate(64, 2, 4, 2, 2, seed, false));
+        }
+        List<Map<String, Object>> expected = new ArrayList<>();
+        for (IR ir : irs) {
+            for (MethodAnalysis analysis : newPipeline()) {
+                ir.storeResult(analysis.getId(), analysis.analyze(ir));
+            }
+            expected.add(getResults(ir));
+        }
+        // the pipeline overwrites the results stored by the sequential run
+        new AnalysisManager().runMethodAnalyses(newPipeline(), irs.parallelStream());
+        for (int i = 0; i < irs.size(); ++i) {
+            Map<String, Object> given = getResults(irs.get(i));
+            for (String id : given.keySet()) {
+                Assert.assertEquals(id, expected.get(i).get(id), given.get(id));
+            }
+        }
+        Assert.assertTrue(expected.stream().anyMatch(results ->
+                !((Set<?>) results.get(DeadCodeDetection.ID)).isEmpty()));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultCacheTest {
+
+    private static final String ID = LiveVariableAnalysis.ID;
+
+    private static List<IR> generateIRs(int n) {
+        List<IR> irs = new ArrayList<>();
+        for (int seed = 0; seed < n; ++seed) {
+            IR ir = SyntheticMethods.generate(32, 1, 4, 5, seed);
+            ir.storeResult(CFGBuilder.ID, SyntheticMethods.buildCFG(ir));
+            irs.add(ir);
+        }
+        return irs;
+    }
+
+    private static LiveVariableAnalysis newAnalysis() {
+        return new LiveVariableAnalysis(
+                new AnalysisConfig(ID, "strongly", false));
+    }
+
+    private static boolean holdsResult(IR ir) {
+        return ir.getKeys().contains(ID);
+    }
+
+    @Test
+    public void testEviction() {
+        List<IR> irs = generateIRs(4);
+        LiveVariableAnalysis analysis = newAnalysis();
+        ResultCache cache = new ResultCache();
+        // room for the results of two IRs
+        cache.register(analysis, irs.get(0).getStmts().size() +
+                irs.get(1).getStmts().size());
+        cache.put(irs.get(0), ID, analysis.analyze(irs.get(0)));
+        cache.put(irs.get(1), ID, analysis.analyze(irs.get(1)));
+        Assert.assertTrue(holdsResult(irs.get(0)));
+        // makes irs[0] more recently used than irs[1]
+        cache.get(irs.get(0), ID);
+        cache.put(irs.get(2), ID, analysis.analyze(irs.get(2)));
+        Assert.assertTrue(holdsResult(irs.get(0)));
+        Assert.assertFalse(holdsResult(irs.get(1)));
+        Assert.assertTrue(holdsResult(irs.get(2)));
+        Assert.assertTrue(cache.getEvictions(ID) >= 1);
+    }
+
+    @Test
+    public void testRecomputation() {
+        List<IR> irs = generateIRs(3);
+        LiveVariableAnalysis analysis = newAnalysis();
+        ResultCache cache = new ResultCache();
+        cache.register(analysis, 1);
+        List<DataflowResult<Stmt, SetFact<Var>>> expected = new ArrayList<>();
+        for (IR ir : irs) {
+            DataflowResult<Stmt, SetFact<Var>> result = analysis.analyze(ir);
+            expected.add(result);
+            cache.put(ir, ID, result);
+        }
+        // only the last result is kept
+        Assert.assertFalse(holdsResult(irs.get(0)));
+        Assert.assertFalse(holdsResult(irs.get(1)));
+        for (int i = irs.size() - 1; i >= 0; --i) {
+            IR ir = irs.get(i);
+            DataflowResult<Stmt, SetFact<Var>> result = cache.get(ir, ID);
+            Assert.assertTrue(holdsResult(ir));
+            for (Stmt stmt : ir) {
+                Assert.assertEquals(expected.get(i).getInFact(stmt),
+                        result.getInFact(stmt));
+                Assert.assertEquals(expected.get(i).getOutFact(stmt),
+                        result.getOutFact(stmt));
+            }
+        }
+        // irs[2] is hit, irs[1] and irs[0] are recomputed
+        Assert.assertEquals(1, cache.getHits(ID));
+        Assert.assertEquals(2, cache.getMisses(ID));
+    }
+
+    @Test
+    public void testInFlightNotEvicted() {
+        List<IR> irs = generateIRs(3);
+        LiveVariableAnalysis analysis = newAnalysis();
+        ResultCache cache = new ResultCache();
+        cache.register(analysis, 1);
+        cache.enter(irs.get(0));
+        for (IR ir : irs) {
+            cache.put(ir, ID, analysis.analyze(ir));
+        }
+        Assert.assertTrue(holdsResult(irs.get(0)));
+        Assert.assertFalse(holdsResult(irs.get(1)));
+        cache.exit(irs.get(0));
+        cache.put(irs.get(1), ID, analysis.analyze(irs.get(1)));
+        Assert.assertFalse(holdsResult(irs.get(0)));
+        Assert.assertFalse(holdsResult(irs.get(2)));
+    }
+
+    @Test
+    public void testUncachedAnalysis() {
+        IR ir = generateIRs(1).get(0);
+        ResultCache cache = new ResultCache();
+        Object result = newAnalysis().analyze(ir);
+        cache.put(ir, ID, result);
+        Assert.assertFalse(cache.isCached(ID));
+        Assert.assertSame(result, cache.get(ir, ID));
+    }
+}
@@ -28,9 +28,20 @@ import pascal.taie.analysis.Tests;
 public class DeadCodeTest {
 
     void testDCD(String inputClass) {
+        testDCD(inputClass, "edge-refine:false");
+    }
+
+    void testDCD(String inputClass, String cpOptions) {
         Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
                 DeadCodeDetection.ID,
                 "-a", "livevar=strongly:false",
+                "-a", "constprop=" + cpOptions);
+    }
+
+    void testFusedDCD(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "fused:true",
+                "-a", "livevar=strongly:false",
                 "-a", "constprop=edge-refine:false");
     }
 
@@ -58,4 +69,34 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testUnreachableIfBranchSparse() {
+        testDCD("UnreachableIfBranch", "edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testLoopsSparse() {
+        testDCD("Loops", "edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchArrayFact() {
+        testDCD("UnreachableSwitchBranch", "edge-refine:false;array-fact:true");
+    }
+
+    @Test
+    public void testLoopsArrayFact() {
+        testDCD("Loops", "edge-refine:false;array-fact:true");
+    }
+
+    @Test
+    public void testDeadAssignmentFused() {
+        testFusedDCD("DeadAssignment");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchFused() {
+        testFusedDCD("UnreachableSwitchBranch");
+    }
 }
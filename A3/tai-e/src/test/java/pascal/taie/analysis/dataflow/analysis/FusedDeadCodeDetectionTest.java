@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+
+/**
+ * Compares {@link FusedDeadCodeDetection} with {@link DeadCodeDetection}
+ * on large generated methods.
+ */
+public class FusedDeadCodeDetectionTest {
+
+    private static void compare(int numVars, int loopDepth,
+                                int loopsPerLevel, int blockSize, long seed) {
+        IR ir = SyntheticMethods.generate(
+                numVars, loopDepth, loopsPerLevel, blockSize, seed);
+        ir.storeResult(CFGBuilder.ID, SyntheticMethods.buildCFG(ir));
+        ir.storeResult(ConstantPropagation.ID, new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)).analyze(ir));
+        LiveVariableAnalysis livevar = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false));
+        DeadCodeDetection deadcode = new DeadCodeDetection(
+                new AnalysisConfig(DeadCodeDetection.ID));
+        DeadCodeDetection fused = new DeadCodeDetection(
+                new AnalysisConfig(DeadCodeDetection.ID, "fused", true));
+
+        ir.storeResult(LiveVariableAnalysis.ID, livevar.analyze(ir));
+        Assert.assertEquals(deadcode.analyze(ir), fused.analyze(ir));
+    }
+
+    @Test
+    public void testShallowLoops() {
+        for (long seed = 0; seed < 5; ++seed) {
+            compare(64, 1, 30, 20, seed);
+        }
+    }
+
+    @Test
+    public void testNestedLoops() {
+        for (long seed = 0; seed < 5; ++seed) {
+            compare(128, 3, 4, 10, seed);
+        }
+    }
+
+    @Test
+    public void testConstantBranches() {
+        // few assignments in many variables keep most conditions constant
+        for (long seed = 0; seed < 5; ++seed) {
+            compare(256, 2, 6, 2, seed);
+        }
+    }
+}
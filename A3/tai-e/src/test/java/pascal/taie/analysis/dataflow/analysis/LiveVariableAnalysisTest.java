@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the bit-vector facts of {@link LiveVariableAnalysis},
+ * whose transfer uses precomputed USE/DEF sets, with the hash-based facts.
+ */
+public class LiveVariableAnalysisTest {
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static LiveVariableAnalysis newAnalysis(boolean bitVector) {
+        return new LiveVariableAnalysis(new AnalysisConfig(
+                LiveVariableAnalysis.ID, "strongly", false, "bit-vector", bitVector));
+    }
+
+    private static IR generate(long seed) {
+        IR ir = SyntheticMethods.generate(128, 3, 4, 10, seed);
+        ir.storeResult(CFGBuilder.ID, SyntheticMethods.buildCFG(ir));
+        return ir;
+    }
+
+    @Test
+    public void testBitVector() {
+        for (long seed = 0; seed < 5; ++seed) {
+            IR ir = generate(seed);
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            DataflowResult<Stmt, SetFact<Var>> expected =
+                    newAnalysis(false).analyze(ir);
+            DataflowResult<Stmt, SetFact<Var>> given =
+                    newAnalysis(true).analyze(ir);
+            for (Stmt stmt : cfg) {
+                Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+                Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+            }
+        }
+    }
+
+    @Test
+    public void testTransferDoesNotAllocate() {
+        IR ir = generate(0);
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        LiveVariableAnalysis analysis = newAnalysis(true);
+        SetFact<Var> in = analysis.newInitialFact(cfg);
+        SetFact<Var> out = analysis.newInitialFact(cfg);
+        ir.getVars().forEach(out::add);
+        // iterating the CFG allocates, thus the nodes are collected first
+        Stmt[] nodes = cfg.getNodes().toArray(new Stmt[0]);
+        for (int round = 0; round < 3; ++round) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            for (Stmt stmt : nodes) {
+                analysis.transferNode(stmt, in, out);
+                Assert.assertFalse(analysis.transferNode(stmt, in, out));
+            }
+            bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+            if (round > 0) { // the first round may allocate the USE/DEF sets
+                Assert.assertEquals(0, bytes);
+            }
+        }
+    }
+}
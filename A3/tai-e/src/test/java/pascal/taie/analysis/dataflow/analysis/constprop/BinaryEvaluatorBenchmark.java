@@ -0,0 +1,256 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks constant propagation on all operators of {@link ArithmeticExp},
+ * {@link BitwiseExp}, {@link ShiftExp} and {@link ConditionExp}, through
+ * {@link ConstantPropagation#evaluate} on {@link CPFact}s, and through the
+ * transfer of a {@link Binary} statement on {@link CPFact}s and on
+ * {@link ArrayCPFact}s.
+ * <p>
+ * Each configuration, i.e., an operator and a path, is warmed up and then
+ * run repeatedly for a fixed time on the same facts, and its time and
+ * allocation per evaluation are reported. {@link #main} runs all
+ * configurations, and writes the results in CSV to the file given by
+ * the first argument (if any), like
+ * {@link pascal.taie.analysis.dataflow.solver.SolverBenchmark}.
+ */
+public final class BinaryEvaluatorBenchmark {
+
+    /**
+     * Result of a configuration.
+     *
+     * @param nanosPerOp nanoseconds of one evaluation
+     * @param bytesPerOp bytes allocated by one evaluation
+     */
+    public record Result(BinaryExp.Op op, Path path,
+                         double nanosPerOp, double bytesPerOp) {
+
+        static String csvHeader() {
+            return "operator,path,ns/op,bytes/op";
+        }
+
+        String toCSV() {
+            return String.format(Locale.ROOT, "%s,%s,%.2f,%.2f",
+                    op, path, nanosPerOp, bytesPerOp);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-4s %-10s %8.2f ns/op %8.2f B/op",
+                    op, path, nanosPerOp, bytesPerOp);
+        }
+    }
+
+    /**
+     * The ways of evaluating a binary expression in constant propagation.
+     */
+    public enum Path {
+
+        /**
+         * {@link ConstantPropagation#evaluate} on a {@link CPFact}.
+         */
+        EVALUATE,
+
+        /**
+         * Transfer of the statement on {@link CPFact}s.
+         */
+        CPFACT,
+
+        /**
+         * Transfer of the statement on {@link ArrayCPFact}s.
+         */
+        ARRAY;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Operators benchmarked by {@link #main}.
+     */
+    static final List<BinaryExp.Op> OPERATORS = Stream.of(
+                    ArithmeticExp.Op.values(), BitwiseExp.Op.values(),
+                    ShiftExp.Op.values(), ConditionExp.Op.values())
+            .<BinaryExp.Op>flatMap(Stream::of)
+            .toList();
+
+    /**
+     * Constants of the operands, most of which (and of the results)
+     * are out of the range of the constants cached by {@link Value}.
+     */
+    private static final int[] OPERANDS = {
+            0, 1, 3, 7, 1000, -1000, 65536, Integer.MAX_VALUE,
+    };
+
+    private static final Var x = new Var(null, "x", PrimitiveType.INT, 0);
+
+    private static final Var y = new Var(null, "y", PrimitiveType.INT, 1);
+
+    private static final Var z = new Var(null, "z", PrimitiveType.INT, 2);
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ConstantPropagation cp = new ConstantPropagation(
+            new AnalysisConfig(ConstantPropagation.ID));
+
+    private final int warmupRounds;
+
+    private final long measurementNanos;
+
+    /**
+     * Keeps the results of the evaluations alive.
+     */
+    private int sink;
+
+    /**
+     * @param warmupRounds      number of rounds over all facts
+     *                          before the measurement
+     * @param measurementMillis minimum time of the measurement
+     */
+    BinaryEvaluatorBenchmark(int warmupRounds, long measurementMillis) {
+        this.warmupRounds = warmupRounds;
+        this.measurementNanos = measurementMillis * 1_000_000;
+    }
+
+    /**
+     * @return the in facts of all pairs of {@link #OPERANDS} and NAC,
+     * which are {@link ArrayCPFact}s if {@code array} is true.
+     */
+    private static List<CPFact> newInFacts(boolean array) {
+        List<Value> values = new ArrayList<>();
+        for (int operand : OPERANDS) {
+            values.add(Value.makeConstant(operand));
+        }
+        values.add(Value.getNAC());
+        List<CPFact> facts = new ArrayList<>();
+        for (Value v1 : values) {
+            for (Value v2 : values) {
+                CPFact fact = newFact(array);
+                fact.update(x, v1);
+                fact.update(y, v2);
+                facts.add(fact);
+            }
+        }
+        return facts;
+    }
+
+    private static CPFact newFact(boolean array) {
+        return array ? new ArrayCPFact(List.of(x, y, z)::get, 3) : new CPFact();
+    }
+
+    /**
+     * Runs all given operators on all paths.
+     */
+    List<Result> run(List<BinaryExp.Op> ops) {
+        List<Result> results = new ArrayList<>();
+        for (BinaryExp.Op op : ops) {
+            for (Path path : Path.values()) {
+                results.add(run(op, path));
+            }
+        }
+        return results;
+    }
+
+    private Result run(BinaryExp.Op op, Path path) {
+        BinaryExp exp = BinaryEvaluatorTest.newExp(op, x, y);
+        Binary stmt = new Binary(z, exp);
+        List<CPFact> ins = newInFacts(path == Path.ARRAY);
+        List<CPFact> outs = ins.stream()
+                .map(in -> newFact(path == Path.ARRAY))
+                .toList();
+        IntUnaryOperator evaluation = path == Path.EVALUATE ?
+                i -> ConstantPropagation.evaluate(exp, ins.get(i)).hashCode() :
+                i -> cp.transferNode(stmt, ins.get(i), outs.get(i)) ? 1 : 0;
+        for (int round = 0; round < warmupRounds; ++round) {
+            runRound(evaluation, ins.size());
+        }
+        long ops = 0;
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            runRound(evaluation, ins.size());
+            ops += ins.size();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < measurementNanos);
+        bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+        return new Result(op, path, (double) elapsed / ops, (double) bytes / ops);
+    }
+
+    private void runRound(IntUnaryOperator evaluation, int size) {
+        for (int i = 0; i < size; ++i) {
+            sink += evaluation.applyAsInt(i);
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional path of the CSV file of the results,
+     *             optional number of warm-up rounds (default 10000), and
+     *             optional measurement time in milliseconds (default 200)
+     *             of each configuration
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        BinaryEvaluatorBenchmark benchmark =
+                new BinaryEvaluatorBenchmark(warmups, millis);
+        List<Result> results = new ArrayList<>();
+        for (BinaryExp.Op op : OPERATORS) {
+            List<Result> opResults = benchmark.run(List.of(op));
+            opResults.forEach(System.out::println);
+            results.addAll(opResults);
+        }
+        if (args.length > 0) {
+            try (PrintStream out = new PrintStream(args[0])) {
+                out.println(Result.csvHeader());
+                results.forEach(r -> out.println(r.toCSV()));
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Tests of {@link BinaryEvaluator} on all binary operators, through
+ * both {@link ConstantPropagation#evaluate} and the transfer on
+ * {@link ArrayCPFact}s.
+ */
+public class BinaryEvaluatorTest {
+
+    private static final Var x = new Var(null, "x", PrimitiveType.INT, 0);
+
+    private static final Var y = new Var(null, "y", PrimitiveType.INT, 1);
+
+    private static final Var z = new Var(null, "z", PrimitiveType.INT, 2);
+
+    private static final Var l1 = new Var(null, "l1", PrimitiveType.LONG, 3);
+
+    private static final Var l2 = new Var(null, "l2", PrimitiveType.LONG, 4);
+
+    private static final int[] operands = {
+            0, 1, -1, 2, 7, 31, 32, 33, 127, 128, -128, -129, 1000, -1000,
+            Integer.MAX_VALUE, Integer.MIN_VALUE,
+    };
+
+    /**
+     * Java semantics of the operators.
+     */
+    private static final Map<BinaryExp.Op, IntBinaryOperator> semantics = Map.ofEntries(
+            Map.entry(ArithmeticExp.Op.ADD, (a, b) -> a + b),
+            Map.entry(ArithmeticExp.Op.SUB, (a, b) -> a - b),
+            Map.entry(ArithmeticExp.Op.MUL, (a, b) -> a * b),
+            Map.entry(ArithmeticExp.Op.DIV, (a, b) -> a / b),
+            Map.entry(ArithmeticExp.Op.REM, (a, b) -> a % b),
+            Map.entry(BitwiseExp.Op.AND, (a, b) -> a & b),
+            Map.entry(BitwiseExp.Op.OR, (a, b) -> a | b),
+            Map.entry(BitwiseExp.Op.XOR, (a, b) -> a ^ b),
+            Map.entry(ShiftExp.Op.SHL, (a, b) -> a << b),
+            Map.entry(ShiftExp.Op.SHR, (a, b) -> a >> b),
+            Map.entry(ShiftExp.Op.USHR, (a, b) -> a >>> b),
+            Map.entry(ConditionExp.Op.EQ, (a, b) -> a == b ? 1 : 0),
+            Map.entry(ConditionExp.Op.NE, (a, b) -> a != b ? 1 : 0),
+            Map.entry(ConditionExp.Op.LT, (a, b) -> a < b ? 1 : 0),
+            Map.entry(ConditionExp.Op.GT, (a, b) -> a > b ? 1 : 0),
+            Map.entry(ConditionExp.Op.LE, (a, b) -> a <= b ? 1 : 0),
+            Map.entry(ConditionExp.Op.GE, (a, b) -> a >= b ? 1 : 0));
+
+    /**
+     * @return the expression of given operator on given operands.
+     */
+    static BinaryExp newExp(BinaryExp.Op op, Var x, Var y) {
+        if (op instanceof ArithmeticExp.Op arithmetic) {
+            return new ArithmeticExp(arithmetic, x, y);
+        } else if (op instanceof BitwiseExp.Op bitwise) {
+            return new BitwiseExp(bitwise, x, y);
+        } else if (op instanceof ShiftExp.Op shift) {
+            return new ShiftExp(shift, x, y);
+        } else {
+            return new ConditionExp((ConditionExp.Op) op, x, y);
+        }
+    }
+
+    private static List<Value> values() {
+        List<Value> values = new ArrayList<>();
+        values.add(Value.getUndef());
+        values.add(Value.getNAC());
+        for (int operand : operands) {
+            values.add(Value.makeConstant(operand));
+        }
+        return values;
+    }
+
+    @Test
+    public void testFolding() {
+        semantics.forEach((op, semantic) -> {
+            BinaryExp exp = newExp(op, x, y);
+            for (int a : operands) {
+                for (int b : operands) {
+                    CPFact fact = new CPFact();
+                    fact.update(x, Value.makeConstant(a));
+                    fact.update(y, Value.makeConstant(b));
+                    Value expected = b == 0 && (op == ArithmeticExp.Op.DIV ||
+                            op == ArithmeticExp.Op.REM) ?
+                            Value.getUndef() :
+                            Value.makeConstant(semantic.applyAsInt(a, b));
+                    Assert.assertEquals(a + " " + op + " " + b, expected,
+                            ConstantPropagation.evaluate(exp, fact));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testArrayTransfer() {
+        ConstantPropagation cp = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID));
+        for (BinaryExp.Op op : semantics.keySet()) {
+            Binary stmt = new Binary(z, newExp(op, x, y));
+            for (Value v1 : values()) {
+                for (Value v2 : values()) {
+                    for (Value old : List.of(Value.getUndef(), Value.makeConstant(1000))) {
+                        CPFact in = new CPFact();
+                        ArrayCPFact arrayIn = new ArrayCPFact(i -> List.of(x, y, z).get(i), 3);
+                        for (CPFact fact : List.of(in, arrayIn)) {
+                            fact.update(x, v1);
+                            fact.update(y, v2);
+                            fact.update(z, old);
+                        }
+                        CPFact out = new CPFact();
+                        ArrayCPFact arrayOut = new ArrayCPFact(i -> List.of(x, y, z).get(i), 3);
+                        out.update(z, old);
+                        arrayOut.update(z, old);
+                        Assert.assertEquals(cp.transferNode(stmt, in, out),
+                                cp.transferNode(stmt, arrayIn, arrayOut));
+                        Assert.assertEquals(out, arrayOut.toCPFact());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComparison() {
+        ConstantPropagation cp = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID));
+        List<Var> vars = List.of(x, y, z, l1, l2);
+        for (ComparisonExp.Op op : ComparisonExp.Op.values()) {
+            ComparisonExp exp = new ComparisonExp(op, l1, l2);
+            Assert.assertEquals(Value.getNAC(),
+                    ConstantPropagation.evaluate(exp, new CPFact()));
+            Binary stmt = new Binary(z, exp);
+            CPFact out = new CPFact();
+            ArrayCPFact arrayOut = new ArrayCPFact(vars::get, vars.size());
+            Assert.assertTrue(cp.transferNode(stmt, new CPFact(), out));
+            Assert.assertTrue(cp.transferNode(stmt,
+                    new ArrayCPFact(vars::get, vars.size()), arrayOut));
+            Assert.assertEquals(Value.getNAC(), out.get(z));
+            Assert.assertEquals(out, arrayOut.toCPFact());
+        }
+    }
+
+    @Test
+    public void testMixedEquality() {
+        for (Value v1 : values()) {
+            for (Value v2 : values()) {
+                CPFact fact = new CPFact();
+                ArrayCPFact arrayFact = new ArrayCPFact(i -> List.of(x, y, z).get(i), 1);
+                for (CPFact f : List.of(fact, arrayFact)) {
+                    f.update(x, v1);
+                    f.update(z, v2);
+                }
+                Assert.assertEquals(fact, arrayFact);
+                Assert.assertEquals(arrayFact, fact);
+                Assert.assertEquals(fact.hashCode(), arrayFact.hashCode());
+                arrayFact.update(y, Value.getNAC());
+                Assert.assertNotEquals(fact, arrayFact);
+                Assert.assertNotEquals(arrayFact, fact);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests of {@link ConditionalConstantPropagation}.
+ */
+public class ConditionalConstantPropagationTest {
+
+    private static DataflowResult<Stmt, CPFact> analyze(IR ir, boolean conditional) {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "conditional", conditional)).analyze(ir);
+    }
+
+    private static Set<Stmt> detectDeadCode(IR ir, boolean conditional, boolean fused) {
+        ir.storeResult(ConstantPropagation.ID, analyze(ir, conditional));
+        ir.storeResult(LiveVariableAnalysis.ID, new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false))
+                .analyze(ir));
+        return new DeadCodeDetection(new AnalysisConfig(
+                DeadCodeDetection.ID, "fused", fused)).analyze(ir);
+    }
+
+    /**
+     * <pre>
+     * 0: x = 1;
+     * 1: y = 1;
+     * 2: if (x == y) goto 4;
+     * 3: x = 2;
+     * 4: z = x + y;
+     * 5: return z;
+     * </pre>
+     */
+    @Test
+    public void testInfeasibleBranch() {
+        Var x = new Var(null, "x", PrimitiveType.INT, 0);
+        Var y = new Var(null, "y", PrimitiveType.INT, 1);
+        Var z = new Var(null, "z", PrimitiveType.INT, 2);
+        Binary add = new Binary(z, new ArithmeticExp(ArithmeticExp.Op.ADD, x, y));
+        If branch = new If(new ConditionExp(ConditionExp.Op.EQ, x, y));
+        branch.setTarget(add);
+        AssignLiteral infeasible = new AssignLiteral(x, IntLiteral.get(2));
+        List<Stmt> stmts = List.of(new AssignLiteral(x, IntLiteral.get(1)),
+                new AssignLiteral(y, IntLiteral.get(1)), branch,
+                infeasible, add, new Return(z));
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        IR ir = new DefaultIR(null, null, List.of(), Set.of(z),
+                List.of(x, y, z), stmts, List.of());
+        ir.storeResult(CFGBuilder.ID, SyntheticMethods.buildCFG(ir));
+
+        DataflowResult<Stmt, CPFact> dense = analyze(ir, false);
+        ConditionalCPResult conditional = (ConditionalCPResult) analyze(ir, true);
+        Assert.assertTrue(dense.getOutFact(add).get(z).isNAC());
+        Assert.assertEquals(Value.makeConstant(2), conditional.getOutFact(add).get(z));
+        Assert.assertFalse(conditional.isExecutable(infeasible));
+        // entry -> 0 -> 1 -> 2 -> 4 -> 5 -> exit
+        Assert.assertEquals(6, conditional.getExecutableEdges().size());
+        Assert.assertTrue(conditional.getExecutableEdges().stream().noneMatch(
+                e -> e.getSource() == infeasible || e.getTarget() == infeasible));
+        Assert.assertEquals(Set.of(infeasible), detectDeadCode(ir, true, false));
+        Assert.assertEquals(Set.of(infeasible), detectDeadCode(ir, true, true));
+    }
+
+    /**
+     * Checks that conditional constant propagation is at least as precise
+     * as the dense solver, and that it finds at least the same dead code.
+     */
+    @Test
+    public void testPrecision() {
+        for (long seed = 0; seed < 5; ++seed) {
+            IR ir = SyntheticMethods.generate(256, 2, 6, 2, seed);
+            CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+            ir.storeResult(CFGBuilder.ID, cfg);
+            ConstantPropagation cp = new ConstantPropagation(
+                    new AnalysisConfig(ConstantPropagation.ID));
+            DataflowResult<Stmt, CPFact> dense = analyze(ir, false);
+            ConditionalCPResult conditional = (ConditionalCPResult) analyze(ir, true);
+            for (Stmt stmt : cfg) {
+                if (conditional.isExecutable(stmt)) {
+                    for (Var var : ir.getVars()) {
+                        Value expected = dense.getOutFact(stmt).get(var);
+                        Value given = conditional.getOutFact(stmt).get(var);
+                        Assert.assertEquals(expected, cp.meetValue(expected, given));
+                    }
+                }
+            }
+            Set<Stmt> denseDeadCode = detectDeadCode(ir, false, false);
+            Set<Stmt> deadCode = detectDeadCode(ir, true, false);
+            Assert.assertTrue(deadCode.containsAll(denseDeadCode));
+            Assert.assertEquals(deadCode, detectDeadCode(ir, true, true));
+        }
+    }
+
+    /**
+     * The conditional mode does not use the solver, thus the options
+     * of the solver are rejected instead of being silently ignored.
+     */
+    @Test(expected = ConfigException.class)
+    public void testSolverOptionRejected() {
+        new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "conditional", true, "loop-aware", true));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares {@link SparseConstantPropagation} with the dense solver.
+ */
+public class SparseConstantPropagationTest {
+
+    private static DataflowResult<Stmt, CPFact> analyze(IR ir, boolean sparse) {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "sparse", sparse)).analyze(ir);
+    }
+
+    private static void compare(IR ir) {
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+        ir.storeResult(CFGBuilder.ID, cfg);
+        DataflowResult<Stmt, CPFact> expected = analyze(ir, false);
+        DataflowResult<Stmt, CPFact> given = analyze(ir, true);
+        for (Stmt node : cfg) {
+            Assert.assertEquals(expected.getInFact(node), given.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), given.getOutFact(node));
+        }
+    }
+
+    /**
+     * @return a copy of given generated IR whose first {@code numParams}
+     * variables are parameters, i.e., they are not defined at the entry
+     * of the method, but only in its loops.
+     */
+    private static IR withParams(IR ir, int numParams) {
+        List<Stmt> stmts = new ArrayList<>(ir.getStmts());
+        for (int i = 0; i < numParams; ++i) {
+            Nop nop = new Nop();
+            nop.setIndex(i);
+            nop.setLineNumber(i);
+            stmts.set(i, nop);
+        }
+        return new DefaultIR(null, null, ir.getVars().subList(0, numParams),
+                Set.copyOf(ir.getReturnVars()), ir.getVars(), stmts, List.of());
+    }
+
+    @Test
+    public void testNestedLoops() {
+        for (long seed = 0; seed < 5; ++seed) {
+            compare(SyntheticMethods.generate(16, 3, 3, 4, 2, seed, false));
+        }
+    }
+
+    @Test
+    public void testParams() {
+        for (long seed = 0; seed < 5; ++seed) {
+            compare(withParams(
+                    SyntheticMethods.generate(16, 3, 3, 4, 2, seed, false), 4));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class IntervalAnalysisTest {
+
+    private static Var newVar(String name, int index) {
+        return new Var(null, name, PrimitiveType.INT, index);
+    }
+
+    /**
+     * Builds the IR of
+     * <pre>
+     * i = 0; n = tripCount; one = 1; zero = 0;
+     * while (i < n) {
+     *     if (i < zero) { x = 42; continue; } // dead
+     *     i = i + one;
+     * }
+     * return i;
+     * </pre>
+     */
+    private static IR buildLoop(int tripCount) {
+        Var i = newVar("i", 0), n = newVar("n", 1), one = newVar("one", 2),
+                zero = newVar("zero", 3), x = newVar("x", 4);
+        If head = new If(new ConditionExp(ConditionExp.Op.GE, i, n));
+        If check = new If(new ConditionExp(ConditionExp.Op.LT, i, zero));
+        Goto back1 = new Goto(), back2 = new Goto();
+        Nop exit = new Nop();
+        AssignLiteral dead = new AssignLiteral(x, IntLiteral.get(42));
+        List<Stmt> stmts = List.of(
+                new AssignLiteral(i, IntLiteral.get(0)),
+                new AssignLiteral(n, IntLiteral.get(tripCount)),
+                new AssignLiteral(one, IntLiteral.get(1)),
+                new AssignLiteral(zero, IntLiteral.get(0)),
+                head, // 4
+                check, // 5
+                new Binary(i, new ArithmeticExp(ArithmeticExp.Op.ADD, i, one)),
+                back1, // 7
+                dead, // 8
+                back2, // 9
+                exit, // 10
+                new Return(i));
+        head.setTarget(exit);
+        check.setTarget(dead);
+        back1.setTarget(head);
+        back2.setTarget(head);
+        for (int k = 0; k < stmts.size(); ++k) {
+            stmts.get(k).setIndex(k);
+            stmts.get(k).setLineNumber(k);
+        }
+        IR ir = new DefaultIR(null, null, List.of(), Set.of(i),
+                List.of(i, n, one, zero, x), stmts, List.of());
+        ir.storeResult(CFGBuilder.ID, SyntheticMethods.buildCFG(ir));
+        return ir;
+    }
+
+    private static IntervalAnalysis newAnalysis(boolean widening) {
+        return new IntervalAnalysis(new AnalysisConfig(
+                IntervalAnalysis.ID, "widening", widening));
+    }
+
+    @Test
+    public void testLoopCounter() {
+        IR ir = buildLoop(1_000_000);
+        DataflowResult<Stmt, IntervalFact> result = newAnalysis(true).analyze(ir);
+        Var i = ir.getVar(0);
+        Assert.assertEquals(Interval.of(0, 999_999),
+                result.getInFact(ir.getStmt(5)).get(i));
+        Assert.assertEquals(Interval.of(1, 1_000_000),
+                result.getOutFact(ir.getStmt(6)).get(i));
+        // the dead branch is not reached
+        Assert.assertTrue(result.getInFact(ir.getStmt(8)).get(i).isEmpty());
+        // without narrowing, the upper bound after the loop is lost
+        Assert.assertEquals(Interval.of(1_000_000, Integer.MAX_VALUE),
+                result.getInFact(ir.getStmt(11)).get(i));
+    }
+
+    /**
+     * The fact which is not created for a specific method starts empty,
+     * and behaves like the facts of the method once it meets them.
+     */
+    @Test
+    public void testInitialFactWithoutCFG() {
+        IR ir = buildLoop(10);
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        IntervalAnalysis analysis = newAnalysis(true);
+        IntervalFact fact = analysis.newInitialFact();
+        Assert.assertEquals(analysis.newInitialFact(cfg), fact);
+        Assert.assertEquals(analysis.newInitialFact(cfg).hashCode(), fact.hashCode());
+        Assert.assertTrue(fact.get(ir.getVar(4)).isEmpty());
+
+        Var n = ir.getVar(1), x = ir.getVar(4);
+        IntervalFact expected = analysis.newInitialFact(cfg);
+        expected.update(n, Interval.of(10, 10));
+        expected.update(x, Interval.of(0, 42));
+        Assert.assertTrue(fact.update(x, Interval.of(42, 42)));
+        IntervalFact other = analysis.newInitialFact(cfg);
+        other.update(n, Interval.of(10, 10));
+        other.update(x, Interval.of(0, 0));
+        Assert.assertTrue(other.joinInto(fact));
+        Assert.assertEquals(expected, fact);
+        Assert.assertEquals(fact, expected);
+        Assert.assertEquals(expected.hashCode(), fact.hashCode());
+        Assert.assertEquals(expected.toString(), fact.toString());
+
+        // transfer of i = i + one into a fact without CFG
+        IntervalFact in = analysis.newBoundaryFact(cfg);
+        in.update(ir.getVar(0), Interval.of(3, 3));
+        in.update(ir.getVar(2), Interval.of(1, 1));
+        IntervalFact out = analysis.newInitialFact();
+        Assert.assertTrue(analysis.transferNode(ir.getStmt(6), in, out));
+        Assert.assertEquals(Interval.of(4, 4), out.get(ir.getVar(0)));
+        Assert.assertEquals("{i=[4, 4], one=[1, 1]}", out.toString());
+    }
+
+    @Test
+    public void testDeadBranch() {
+        IR ir = buildLoop(100);
+        ir.storeResult(ConstantPropagation.ID, new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)).analyze(ir));
+        ir.storeResult(LiveVariableAnalysis.ID, new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false))
+                .analyze(ir));
+        for (boolean fused : new boolean[]{ false, true }) {
+            ir.clearResult(IntervalAnalysis.ID);
+            DeadCodeDetection deadcode = new DeadCodeDetection(
+                    new AnalysisConfig(DeadCodeDetection.ID, "fused", fused));
+            // i is NAC in constant propagation, thus only the assignment
+            // to x is dead
+            Assert.assertEquals(Set.of(8), indexesOf(deadcode.analyze(ir)));
+            ir.storeResult(IntervalAnalysis.ID, newAnalysis(true).analyze(ir));
+            Assert.assertEquals(Set.of(8, 9), indexesOf(deadcode.analyze(ir)));
+        }
+    }
+
+    private static Set<Integer> indexesOf(Set<Stmt> stmts) {
+        return stmts.stream().map(Stmt::getIndex).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testConvergence() {
+        for (int tripCount : new int[]{ 1_000, 10_000, 100_000 }) {
+            IR ir = buildLoop(tripCount);
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            Solver<Stmt, IntervalFact> widening = newAnalysis(true).getSolver();
+            Solver<Stmt, IntervalFact> plain = newAnalysis(false).getSolver();
+            DataflowResult<Stmt, IntervalFact> widened = widening.solve(cfg);
+            DataflowResult<Stmt, IntervalFact> precise = plain.solve(cfg);
+            // the number of transfers does not depend on the trip count
+            Assert.assertTrue(widening.getNodeVisits() < 50);
+            Assert.assertTrue(plain.getNodeVisits() > tripCount);
+            // the loop condition keeps the widened counter bounded
+            Stmt body = ir.getStmt(5);
+            Assert.assertEquals(precise.getInFact(body), widened.getInFact(body));
+        }
+    }
+
+    @Test
+    public void testTermination() {
+        for (long seed = 0; seed < 3; ++seed) {
+            IR ir = SyntheticMethods.generate(64, 4, 3, 4, seed);
+            CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+            Solver<Stmt, IntervalFact> solver = newAnalysis(true).getSolver();
+            DataflowResult<Stmt, IntervalFact> result = solver.solve(cfg);
+            Assert.assertTrue(solver.getNodeVisits() < 10L * cfg.getNumberOfNodes());
+            Assert.assertFalse(result.getOutFact(cfg.getExit()).toString().isEmpty());
+        }
+    }
+
+    /**
+     * Checks that the interval of every binary expression contains
+     * the results of all operands in the intervals of the operands.
+     */
+    @Test
+    public void testSoundness() {
+        Var x = newVar("x", 0), y = newVar("y", 1);
+        IntervalFact fact = new IntervalFact(new Var[]{x, y}, new BitSet());
+        List<BinaryExp> exps = new ArrayList<>();
+        for (ArithmeticExp.Op op : ArithmeticExp.Op.values()) {
+            exps.add(new ArithmeticExp(op, x, y));
+        }
+        for (ConditionExp.Op op : ConditionExp.Op.values()) {
+            exps.add(new ConditionExp(op, x, y));
+        }
+        for (BitwiseExp.Op op : BitwiseExp.Op.values()) {
+            exps.add(new BitwiseExp(op, x, y));
+        }
+        for (ShiftExp.Op op : ShiftExp.Op.values()) {
+            exps.add(new ShiftExp(op, x, y));
+        }
+        int[] bounds = { Integer.MIN_VALUE, -100, -7, -1, 0, 1, 3, 7, 100,
+                Integer.MAX_VALUE };
+        Random random = new Random(0);
+        for (int round = 0; round < 2000; ++round) {
+            Interval a = randomInterval(random, bounds);
+            Interval b = randomInterval(random, bounds);
+            fact.update(x, a);
+            fact.update(y, b);
+            for (BinaryExp exp : exps) {
+                Interval result = IntervalAnalysis.evaluate(exp, fact);
+                for (int k = 0; k < 20; ++k) {
+                    int u = sample(random, a), v = sample(random, b);
+                    Integer concrete = compute(exp, u, v);
+                    if (concrete != null) {
+                        Assert.assertTrue(exp + " with " + a + ", " + b + ": " +
+                                        concrete + " not in " + result,
+                                result.contains(concrete));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Interval randomInterval(Random random, int[] bounds) {
+        int low = bounds[random.nextInt(bounds.length)];
+        int high = bounds[random.nextInt(bounds.length)];
+        return random.nextInt(4) == 0 ?
+                Interval.makeConstant(low) :
+                Interval.of(Math.min(low, high), Math.max(low, high));
+    }
+
+    private static int sample(Random random, Interval interval) {
+        return switch (random.nextInt(3)) {
+            case 0 -> interval.getLow();
+            case 1 -> interval.getHigh();
+            default -> (int) (interval.getLow() + (long) (random.nextDouble() *
+                    ((long) interval.getHigh() - interval.getLow())));
+        };
+    }
+
+    /**
+     * @return the result of given expression, or {@code null} if it throws.
+     */
+    private static Integer compute(BinaryExp exp, int u, int v) {
+        if (exp instanceof ArithmeticExp arithmetic) {
+            return switch (arithmetic.getOperator()) {
+                case ADD -> u + v;
+                case SUB -> u - v;
+                case MUL -> u * v;
+                case DIV -> v == 0 ? null : u / v;
+                case REM -> v == 0 ? null : u % v;
+            };
+        } else if (exp instanceof ConditionExp condition) {
+            boolean holds = switch (condition.getOperator()) {
+                case EQ -> u == v;
+                case NE -> u != v;
+                case LT -> u < v;
+                case GT -> u > v;
+                case LE -> u <= v;
+                case GE -> u >= v;
+            };
+            return holds ? 1 : 0;
+        } else if (exp instanceof BitwiseExp bitwise) {
+            return switch (bitwise.getOperator()) {
+                case AND -> u & v;
+                case OR -> u | v;
+                case XOR -> u ^ v;
+            };
+        } else {
+            return switch (((ShiftExp) exp).getOperator()) {
+                case SHL -> u << v;
+                case SHR -> u >> v;
+                case USHR -> u >>> v;
+            };
+        }
+    }
+}
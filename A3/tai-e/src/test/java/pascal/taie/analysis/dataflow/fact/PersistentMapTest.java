@@ -0,0 +1,117 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+public class PersistentMapTest {
+
+    /**
+     * Key whose hash code is given, so that the tests can control
+     * how the keys collide in the trie.
+     */
+    private record Key(int hash, int id) {
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Applies random updates to a {@link PersistentMap} and a {@link HashMap},
+     * and checks that the two maps, as well as the snapshots taken by
+     * {@link PersistentMap#copy()}, always have the same mappings.
+     */
+    private static void testRandomUpdates(IntUnaryOperator hash, long seed) {
+        Random random = new Random(seed);
+        PersistentMap<Key, Integer> map = new PersistentMap<>();
+        Map<Key, Integer> expected = new HashMap<>();
+        List<PersistentMap<Key, Integer>> snapshots = new ArrayList<>();
+        List<Map<Key, Integer>> expectedSnapshots = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            int id = random.nextInt(100);
+            Key key = new Key(hash.applyAsInt(id), id);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                Integer value = random.nextInt(3);
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            } else if (op < 9) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                snapshots.add(map.copy());
+                expectedSnapshots.add(new HashMap<>(expected));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected, new HashMap<>(map));
+            // the trie is canonical, i.e., a map built from scratch
+            // in any order has the same trie
+            List<Key> keys = new ArrayList<>(expected.keySet());
+            Collections.shuffle(keys, random);
+            PersistentMap<Key, Integer> rebuilt = new PersistentMap<>();
+            keys.forEach(k -> rebuilt.put(k, expected.get(k)));
+            Assert.assertEquals(map, rebuilt);
+        }
+        for (int i = 0; i < snapshots.size(); ++i) {
+            Assert.assertEquals(expectedSnapshots.get(i), snapshots.get(i));
+        }
+    }
+
+    @Test
+    public void testDistinctHashes() {
+        testRandomUpdates(id -> id * 31, 0);
+    }
+
+    @Test
+    public void testDeepTries() {
+        // the keys differ only in the highest bits of their hash codes
+        testRandomUpdates(id -> id << 27, 1);
+    }
+
+    @Test
+    public void testCollisions() {
+        testRandomUpdates(id -> id & 3, 2);
+    }
+
+    @Test
+    public void testCopyFromSharesMap() {
+        MapFact<String, Integer> fact = new MapFact<>(Map.of("a", 1, "b", 2));
+        MapFact<String, Integer> target = new MapFact<>(Map.of());
+        Assert.assertTrue(target.copyFrom(fact));
+        Assert.assertFalse(target.copyFrom(fact));
+        target.update("c", 3);
+        Assert.assertNull(fact.get("c"));
+        Assert.assertNotEquals(fact, target);
+        target.remove("c");
+        Assert.assertEquals(fact, target);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Solver with a FIFO work-list, which serves as the baseline of
+ * the scheduling of {@link WorkListSolver}.
+ */
+class FifoSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    FifoSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                  SolverStats stats) {
+        solve(cfg, result, stats, cfg::getPredsOf, cfg::getSuccsOf);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   SolverStats stats) {
+        solve(cfg, result, stats, cfg::getSuccsOf, cfg::getPredsOf);
+    }
+
+    private void solve(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                       SolverStats stats,
+                       Function<Node, Collection<Node>> sources,
+                       Function<Node, Collection<Node>> targets) {
+        boolean forward = analysis.isForward();
+        Deque<Node> workList = new ArrayDeque<>();
+        Set<Node> members = Sets.newSet();
+        cfg.forEach(node -> {
+            workList.add(node);
+            members.add(node);
+        });
+        int pushes = workList.size(), pops = 0;
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            members.remove(node);
+            ++pops;
+            Fact in = forward ? result.getInFact(node) : result.getOutFact(node);
+            for (Node source : sources.apply(node)) {
+                analysis.meetInto(forward ? result.getOutFact(source) :
+                        result.getInFact(source), in);
+            }
+            if (analysis.transferNode(node, result.getInFact(node),
+                    result.getOutFact(node))) {
+                for (Node target : targets.apply(node)) {
+                    if (members.add(target)) {
+                        workList.add(target);
+                        ++pushes;
+                    }
+                }
+            }
+        }
+        stats.addWorkListOperations(pushes, pops);
+        stats.addTransfers(pops, 0);
+    }
+}
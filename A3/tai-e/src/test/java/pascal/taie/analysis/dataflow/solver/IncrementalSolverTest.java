@@ -0,0 +1,229 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Checks that {@link Solver#solve(CFG, DataflowResult, java.util.Collection)}
+ * and {@link Solver#solve(CFG, CFG, DataflowResult, java.util.Collection)}
+ * give the same results as solving from scratch after a statement of
+ * a generated method is replaced.
+ */
+public class IncrementalSolverTest {
+
+    private static final IR IR = SyntheticMethods.generate(64, 2, 6, 20, 0);
+
+    /**
+     * Replaces the assignment at {@code index} by an assignment of
+     * a literal to the same variable, and compares incremental solving
+     * with solving from scratch.
+     */
+    private static <Fact> void compareSolving(
+            DataflowAnalysis<Stmt, Fact> analysis, int index) {
+        Binary binary = (Binary) IR.getStmt(index);
+        IR edited = SyntheticMethods.replace(IR, index,
+                new AssignLiteral(binary.getLValue(), IntLiteral.get(42)));
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(IR);
+        CFG<Stmt> editedCFG = SyntheticMethods.buildCFG(edited);
+        DataflowResult<Stmt, Fact> previous = new WorkListSolver<>(analysis).solve(cfg);
+
+        Solver<Stmt, Fact> full = new WorkListSolver<>(analysis);
+        DataflowResult<Stmt, Fact> expected = full.solve(editedCFG);
+        Solver<Stmt, Fact> incremental = new WorkListSolver<>(analysis);
+        DataflowResult<Stmt, Fact> given = incremental.solve(
+                editedCFG, previous, List.of(edited.getStmt(index)));
+        assertSameResults(editedCFG, expected, given);
+        Assert.assertTrue(incremental.getNodeVisits() <= full.getNodeVisits());
+    }
+
+    private static <Fact> void assertSameResults(
+            CFG<Stmt> cfg, DataflowResult<Stmt, Fact> expected,
+            DataflowResult<Stmt, Fact> given) {
+        for (Stmt stmt : cfg) {
+            Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+            Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+        }
+    }
+
+    /**
+     * Replaces every branch of a generated method by a {@link Nop}, which
+     * removes the edge to the branch target, and compares incremental
+     * solving with the previous CFG with solving from scratch.
+     */
+    private static <Fact> void compareBranchEdits(
+            DataflowAnalysis<Stmt, Fact> analysis,
+            Function<DataflowAnalysis<Stmt, Fact>, Solver<Stmt, Fact>> solverFactory) {
+        IR ir = SyntheticMethods.generate(16, 0, 1, 3, 2, 0, false);
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+        DataflowResult<Stmt, Fact> previous = solverFactory.apply(analysis).solve(cfg);
+        int edits = 0;
+        for (Stmt stmt : ir) {
+            if (stmt instanceof If) {
+                IR edited = SyntheticMethods.replace(ir, stmt.getIndex(), new Nop());
+                CFG<Stmt> editedCFG = SyntheticMethods.buildCFG(edited);
+                DataflowResult<Stmt, Fact> expected =
+                        solverFactory.apply(analysis).solve(editedCFG);
+                DataflowResult<Stmt, Fact> given = solverFactory
+                        .apply(readOnly(analysis, cfg, previous))
+                        .solve(editedCFG, cfg, previous,
+                                List.of(edited.getStmt(stmt.getIndex())));
+                assertSameResults(editedCFG, expected, given);
+                ++edits;
+            }
+        }
+        Assert.assertTrue(edits > 0);
+    }
+
+    /**
+     * @return an analysis which delegates to {@code analysis}, and fails
+     * when a fact of {@code previous} is about to be modified.
+     */
+    private static <Fact> DataflowAnalysis<Stmt, Fact> readOnly(
+            DataflowAnalysis<Stmt, Fact> analysis, CFG<Stmt> cfg,
+            DataflowResult<Stmt, Fact> previous) {
+        Set<Fact> facts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Stmt stmt : cfg) {
+            facts.add(previous.getInFact(stmt));
+            facts.add(previous.getOutFact(stmt));
+        }
+        return new DataflowAnalysis<>() {
+            @Override
+            public boolean isForward() {
+                return analysis.isForward();
+            }
+
+            @Override
+            public Fact newBoundaryFact(CFG<Stmt> cfg) {
+                return analysis.newBoundaryFact(cfg);
+            }
+
+            @Override
+            public Fact newInitialFact() {
+                return analysis.newInitialFact();
+            }
+
+            @Override
+            public Fact newInitialFact(CFG<Stmt> cfg) {
+                return analysis.newInitialFact(cfg);
+            }
+
+            @Override
+            public void meetInto(Fact fact, Fact target) {
+                Assert.assertFalse(facts.contains(target));
+                analysis.meetInto(fact, target);
+            }
+
+            @Override
+            public boolean transferNode(Stmt stmt, Fact in, Fact out) {
+                Assert.assertFalse(facts.contains(analysis.isForward() ? out : in));
+                return analysis.transferNode(stmt, in, out);
+            }
+
+            @Override
+            public boolean needTransferEdge(Edge<Stmt> edge) {
+                return analysis.needTransferEdge(edge);
+            }
+
+            @Override
+            public Fact transferEdge(Edge<Stmt> edge, Fact nodeFact) {
+                return analysis.transferEdge(edge, nodeFact);
+            }
+        };
+    }
+
+    private static ConstantPropagation constprop() {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    private static LiveVariableAnalysis livevar() {
+        return new LiveVariableAnalysis(new AnalysisConfig(
+                LiveVariableAnalysis.ID, "strongly", false));
+    }
+
+    private static int[] binaryIndexes() {
+        return IR.getStmts().stream()
+                .filter(stmt -> stmt instanceof Binary)
+                .mapToInt(Stmt::getIndex)
+                .toArray();
+    }
+
+    @Test
+    public void testForwardEdits() {
+        int[] indexes = binaryIndexes();
+        for (int i = 0; i < indexes.length; i += 37) {
+            compareSolving(constprop(), indexes[i]);
+        }
+    }
+
+    @Test
+    public void testBackwardEdits() {
+        int[] indexes = binaryIndexes();
+        for (int i = 0; i < indexes.length; i += 37) {
+            compareSolving(livevar(), indexes[i]);
+        }
+    }
+
+    @Test
+    public void testEditsNearBoundary() {
+        int[] indexes = binaryIndexes();
+        // edits near the end for forward analysis and near the beginning
+        // for backward analysis affect few nodes
+        compareSolving(constprop(), indexes[indexes.length - 10]);
+        compareSolving(livevar(), indexes[10]);
+    }
+
+    @Test
+    public void testBranchEdits() {
+        compareBranchEdits(constprop(), WorkListSolver::new);
+        compareBranchEdits(livevar(), WorkListSolver::new);
+    }
+
+    @Test
+    public void testBranchEditsWithDefaultIncrementalSolving() {
+        // FifoSolver does not override doSolveIncrementally()
+        compareBranchEdits(constprop(), FifoSolver::new);
+        compareBranchEdits(livevar(), FifoSolver::new);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * Compares the loop-aware scheduling of {@link WorkListSolver} with its
+ * reverse postorder and with a FIFO work-list on deeply nested loops.
+ */
+public class LoopAwareSchedulingTest {
+
+    private static <Fact> void compare(String name,
+                                       DataflowAnalysis<Stmt, Fact> analysis,
+                                       CFG<Stmt> cfg) {
+        Solver<Stmt, Fact> fifo = new FifoSolver<>(analysis);
+        Solver<Stmt, Fact> rpo = new WorkListSolver<>(analysis);
+        Solver<Stmt, Fact> loopAware = new WorkListSolver<>(analysis);
+        loopAware.enableLoopAwareScheduling();
+        DataflowResult<Stmt, Fact> expected = fifo.solve(cfg);
+        DataflowResult<Stmt, Fact> rpoResult = rpo.solve(cfg);
+        DataflowResult<Stmt, Fact> given = loopAware.solve(cfg);
+        for (Stmt stmt : cfg) {
+            Assert.assertEquals(expected.getInFact(stmt), rpoResult.getInFact(stmt));
+            Assert.assertEquals(expected.getOutFact(stmt), rpoResult.getOutFact(stmt));
+            Assert.assertEquals(expected.getInFact(stmt), given.getInFact(stmt));
+            Assert.assertEquals(expected.getOutFact(stmt), given.getOutFact(stmt));
+        }
+        Assert.assertTrue(name, loopAware.getNodeVisits() <= rpo.getNodeVisits());
+        Assert.assertTrue(name, loopAware.getNodeVisits() < fifo.getNodeVisits());
+    }
+
+    private static void compareAnalyses(int numVars, int loopDepth,
+                                        int loopsPerLevel, int blockSize,
+                                        boolean jumpToBody) {
+        for (long seed = 0; seed < 3; ++seed) {
+            CFG<Stmt> cfg = SyntheticMethods.buildCFG(SyntheticMethods.generate(
+                    numVars, loopDepth, loopsPerLevel, blockSize, seed, jumpToBody));
+            compare("livevar", new LiveVariableAnalysis(new AnalysisConfig(
+                    LiveVariableAnalysis.ID, "strongly", false)), cfg);
+            compare("constprop", new ConstantPropagation(
+                    new AnalysisConfig(ConstantPropagation.ID)), cfg);
+        }
+    }
+
+    @Test
+    public void testNestedLoops() {
+        compareAnalyses(64, 4, 3, 4, false);
+    }
+
+    @Test
+    public void testDeeplyNestedLoops() {
+        compareAnalyses(64, 8, 2, 2, false);
+    }
+
+    @Test
+    public void testNestedLoopsJumpingToBody() {
+        compareAnalyses(64, 4, 3, 4, true);
+    }
+
+    @Test
+    public void testDeeplyNestedLoopsJumpingToBody() {
+        compareAnalyses(64, 8, 2, 2, true);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks the solvers with forward and backward analyses on methods
+ * generated by {@link SyntheticMethods}, whose size, branching factor,
+ * loop depth and number of variables are controlled by {@link Shape}s.
+ * <p>
+ * Each configuration, i.e., a shape, an analysis and a solver, is warmed
+ * up and then solved repeatedly for a fixed time on the same CFG, and its
+ * throughput (solvings per second) and allocation (bytes per solving and
+ * per second) are reported. {@link #main} runs all configurations of
+ * {@link #SHAPES}, and writes the results in CSV to the file given by
+ * the first argument (if any), so that the results of two revisions
+ * can be compared to catch regressions in the hot paths of the solvers.
+ */
+public final class SolverBenchmark {
+
+    /**
+     * Shape of the generated methods.
+     *
+     * @see SyntheticMethods#generate(int, int, int, int, int, long, boolean)
+     */
+    public record Shape(int numVars, int loopDepth, int loopsPerLevel,
+                        int blockSize, int branches) {
+
+        CFG<Stmt> buildCFG(long seed) {
+            return SyntheticMethods.buildCFG(SyntheticMethods.generate(numVars,
+                    loopDepth, loopsPerLevel, blockSize, branches, seed, false));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "vars=%d depth=%d loops=%d block=%d branches=%d",
+                    numVars, loopDepth, loopsPerLevel, blockSize, branches);
+        }
+    }
+
+    /**
+     * Result of a configuration.
+     *
+     * @param transfers number of transfers of one solving
+     * @param opsPerSecond  solvings per second
+     * @param bytesPerOp    bytes allocated by one solving
+     */
+    public record Result(String analysis, String solver, Shape shape, int nodes,
+                         long transfers, double opsPerSecond, double bytesPerOp) {
+
+        /**
+         * @return the allocation rate in MB per second.
+         */
+        public double allocationRate() {
+            return bytesPerOp * opsPerSecond / 1e6;
+        }
+
+        static String csvHeader() {
+            return "analysis,solver,vars,depth,loops,block,branches,nodes," +
+                    "transfers,ops/s,bytes/op,MB/s";
+        }
+
+        String toCSV() {
+            return String.format(Locale.ROOT,
+                    "%s,%s,%d,%d,%d,%d,%d,%d,%d,%.2f,%.0f,%.2f",
+                    analysis, solver, shape.numVars(), shape.loopDepth(),
+                    shape.loopsPerLevel(), shape.blockSize(), shape.branches(),
+                    nodes, transfers, opsPerSecond, bytesPerOp, allocationRate());
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-16s %-10s %5d nodes %8d transfers" +
+                            " %10.2f ops/s %12.0f B/op %9.2f MB/s  [%s]",
+                    analysis, solver, nodes, transfers, opsPerSecond,
+                    bytesPerOp, allocationRate(), shape);
+        }
+    }
+
+    /**
+     * Shapes benchmarked by {@link #main}.
+     */
+    static final List<Shape> SHAPES = List.of(
+            new Shape(64, 1, 30, 20, 1),   // long straight-line blocks
+            new Shape(64, 1, 30, 5, 4),    // wide branches
+            new Shape(128, 3, 4, 10, 1),   // nested loops
+            new Shape(128, 3, 4, 4, 3),    // nested loops with branches
+            new Shape(64, 8, 2, 2, 2),     // deeply nested loops
+            new Shape(1024, 2, 6, 8, 2));  // many variables
+
+    private record Analysis(String name,
+                            Supplier<DataflowAnalysis<Stmt, ?>> factory) {
+    }
+
+    private static final List<Analysis> ANALYSES = List.of(
+            new Analysis("livevar", () -> new LiveVariableAnalysis(
+                    new AnalysisConfig(LiveVariableAnalysis.ID,
+                            "strongly", false))),
+            new Analysis("livevar-bits", () -> new LiveVariableAnalysis(
+                    new AnalysisConfig(LiveVariableAnalysis.ID,
+                            "strongly", false, "bit-vector", true))),
+            new Analysis("constprop", () -> new ConstantPropagation(
+                    new AnalysisConfig(ConstantPropagation.ID))));
+
+    private record SolverKind(String name,
+                              Function<DataflowAnalysis<Stmt, ?>, Solver<Stmt, ?>> factory) {
+    }
+
+    private static final List<SolverKind> SOLVERS = List.of(
+            new SolverKind("fifo", FifoSolver::new),
+            new SolverKind("worklist", WorkListSolver::new),
+            new SolverKind("loop-aware", analysis -> {
+                Solver<Stmt, ?> solver = new WorkListSolver<>(analysis);
+                solver.enableLoopAwareScheduling();
+                return solver;
+            }));
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+
+    private final long measurementNanos;
+
+    /**
+     * @param warmupIterations number of solvings before the measurement
+     * @param measurementMillis minimum time of the measurement
+     */
+    SolverBenchmark(int warmupIterations, long measurementMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementNanos = measurementMillis * 1_000_000;
+    }
+
+    /**
+     * Runs all analyses with all solvers on the methods of given shapes.
+     */
+    List<Result> run(List<Shape> shapes) {
+        List<Result> results = new ArrayList<>();
+        for (Shape shape : shapes) {
+            CFG<Stmt> cfg = shape.buildCFG(0);
+            for (Analysis analysis : ANALYSES) {
+                for (SolverKind solver : SOLVERS) {
+                    results.add(run(shape, cfg, analysis, solver));
+                }
+            }
+        }
+        return results;
+    }
+
+    private Result run(Shape shape, CFG<Stmt> cfg,
+                       Analysis analysis, SolverKind kind) {
+        Solver<Stmt, ?> solver = kind.factory().apply(analysis.factory().get());
+        for (int i = 0; i < warmupIterations; ++i) {
+            solver.solve(cfg);
+        }
+        long visits = solver.getNodeVisits();
+        long ops = 0;
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            solver.solve(cfg);
+            ++ops;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < measurementNanos);
+        bytes = threads.getCurrentThreadAllocatedBytes() - bytes;
+        long transfers = (solver.getNodeVisits() - visits) / ops;
+        return new Result(analysis.name(), kind.name(), shape,
+                cfg.getNumberOfNodes(), transfers,
+                ops / (elapsed / 1e9), (double) bytes / ops);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional path of the CSV file of the results,
+     *             optional number of warm-up solvings (default 20), and
+     *             optional measurement time in milliseconds (default 1000)
+     *             of each configuration
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        List<Result> results = new ArrayList<>();
+        for (Shape shape : SHAPES) {
+            List<Result> shapeResults =
+                    new SolverBenchmark(warmups, millis).run(List.of(shape));
+            shapeResults.forEach(System.out::println);
+            results.addAll(shapeResults);
+        }
+        if (args.length > 0) {
+            try (PrintStream out = new PrintStream(args[0])) {
+                out.println(Result.csvHeader());
+                results.forEach(r -> out.println(r.toCSV()));
+            }
+        }
+    }
+}
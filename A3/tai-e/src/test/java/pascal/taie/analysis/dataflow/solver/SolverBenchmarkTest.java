@@ -0,0 +1,71 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.List;
+
+/**
+ * Runs {@link SolverBenchmark} on small shapes, which keeps the benchmark
+ * working without spending the time of a full run.
+ */
+public class SolverBenchmarkTest {
+
+    @Test
+    public void testBranches() {
+        for (int branches = 1; branches <= 4; ++branches) {
+            SolverBenchmark.Shape shape =
+                    new SolverBenchmark.Shape(16, 2, 2, 3, branches);
+            CFG<Stmt> cfg = shape.buildCFG(0);
+            long ifs = cfg.getIR().getStmts().stream()
+                    .filter(s -> s instanceof If).count();
+            // 2 + 2 * 2 loop heads, and 10 branches: before and after
+            // the loops of the 1 + 2 outer regions, and 4 innermost ones
+            Assert.assertEquals(6 + 10 * (branches - 1), ifs);
+            cfg.forEach(node -> {
+                if (node != cfg.getEntry()) {
+                    Assert.assertFalse(cfg.getPredsOf(node).isEmpty());
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testRun() {
+        List<SolverBenchmark.Result> results = new SolverBenchmark(1, 1)
+                .run(List.of(new SolverBenchmark.Shape(16, 2, 2, 3, 2)));
+        // 3 analyses and 3 solvers
+        Assert.assertEquals(9, results.size());
+        for (SolverBenchmark.Result r : results) {
+            Assert.assertTrue(r.transfers() >= r.nodes());
+            Assert.assertTrue(r.opsPerSecond() > 0);
+            Assert.assertTrue(r.bytesPerOp() > 0);
+            Assert.assertEquals(12, r.toCSV().split(",").length);
+        }
+    }
+}
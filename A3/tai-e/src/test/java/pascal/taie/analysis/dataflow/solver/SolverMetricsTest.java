@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Checks the statistics recorded by {@link SolverMetrics} and their dumps.
+ */
+public class SolverMetricsTest {
+
+    @Test
+    public void testMetrics() throws IOException {
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(
+                SyntheticMethods.generate(32, 2, 3, 10, 0));
+        SolverMetrics metrics = new SolverMetrics();
+        Solver<Stmt, CPFact> constprop = new WorkListSolver<>(new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)));
+        constprop.enableMetrics(ConstantPropagation.ID, metrics);
+        Solver<Stmt, SetFact<Var>> livevar = new WorkListSolver<>(new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false)));
+        livevar.enableMetrics(LiveVariableAnalysis.ID, metrics);
+        constprop.solve(cfg);
+        livevar.solve(cfg);
+        livevar.solve(cfg);
+
+        List<SolverMetrics.Entry> entries = metrics.getEntries();
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals(ConstantPropagation.ID, entries.get(0).analysis());
+        for (SolverMetrics.Entry e : entries) {
+            Assert.assertEquals(cfg.getNumberOfNodes(), e.nodes());
+            // the work-list is empty at the end
+            Assert.assertEquals(e.pushes(), e.pops());
+            Assert.assertEquals(e.pops(), e.transfers());
+            Assert.assertTrue(e.transfers() >= e.nodes());
+            Assert.assertTrue(e.meets() >= e.transfers() - 1);
+            Assert.assertTrue(e.changedRatio() > 0 && e.changedRatio() <= 1);
+            Assert.assertTrue(e.time() > 0);
+        }
+        Assert.assertEquals(entries.get(0).transfers(), constprop.getNodeVisits());
+
+        File dir = Files.createTempDirectory("metrics").toFile();
+        metrics.dump(dir);
+        List<String> csv = Files.readAllLines(new File(dir, "solver-metrics.csv").toPath());
+        Assert.assertEquals(4, csv.size());
+        Assert.assertTrue(csv.get(1).startsWith("constprop,\"null\","));
+        String json = Files.readString(new File(dir, "solver-metrics.json").toPath());
+        Assert.assertTrue(json.contains("\"changedRatio\""));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic methods with nested loops and branches, which are used to
+ * exercise the solvers on CFGs that are much larger than the ones
+ * of the test resources.
+ */
+public final class SyntheticMethods {
+
+    private SyntheticMethods() {
+    }
+
+    /**
+     * Generates the IR of a method consisting of nested loops.
+     *
+     * @param numVars       number of int variables in the method
+     * @param loopDepth     nesting depth of the loops
+     * @param loopsPerLevel number of loops in the body of each loop
+     * @param blockSize     number of assignments in each straight-line block
+     * @param seed          seed for choosing the operands of the assignments
+     */
+    public static IR generate(int numVars, int loopDepth, int loopsPerLevel,
+                       int blockSize, long seed) {
+        return generate(numVars, loopDepth, loopsPerLevel, blockSize, seed, false);
+    }
+
+    /**
+     * Generates the IR of a method consisting of nested loops.
+     *
+     * @param jumpToBody if true, the header of each loop jumps to the body
+     *                   and falls through to a jump to the exit, otherwise
+     *                   it jumps to the exit and falls through to the body
+     * @see #generate(int, int, int, int, long)
+     */
+    public static IR generate(int numVars, int loopDepth, int loopsPerLevel,
+                              int blockSize, long seed, boolean jumpToBody) {
+        return generate(numVars, loopDepth, loopsPerLevel, blockSize, 1,
+                seed, jumpToBody);
+    }
+
+    /**
+     * Generates the IR of a method consisting of nested loops, whose
+     * straight-line blocks are replaced by branches.
+     *
+     * @param branches number of alternative blocks of each branch, which
+     *                 are selected by a chain of {@code branches - 1}
+     *                 conditional jumps and join after the branch;
+     *                 1 means straight-line blocks
+     * @see #generate(int, int, int, int, long, boolean)
+     */
+    public static IR generate(int numVars, int loopDepth, int loopsPerLevel,
+                              int blockSize, int branches, long seed,
+                              boolean jumpToBody) {
+        List<Var> vars = new ArrayList<>(numVars);
+        for (int i = 0; i < numVars; ++i) {
+            vars.add(new Var(null, "v" + i, PrimitiveType.INT, i));
+        }
+        List<Stmt> stmts = new ArrayList<>();
+        Random random = new Random(seed);
+        for (Var var : vars) { // define all variables at method entry
+            stmts.add(new AssignLiteral(var, IntLiteral.get(random.nextInt(8))));
+        }
+        generateRegion(stmts, vars, random, loopDepth, loopsPerLevel, blockSize,
+                branches, jumpToBody);
+        stmts.add(new Return(vars.get(0)));
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(i);
+        }
+        return new DefaultIR(null, null, List.of(), Set.of(vars.get(0)),
+                vars, stmts, List.of());
+    }
+
+    private static void generateRegion(
+            List<Stmt> stmts, List<Var> vars, Random random,
+            int depth, int loopsPerLevel, int blockSize, int branches,
+            boolean jumpToBody) {
+        generateBranch(stmts, vars, random, blockSize, branches);
+        if (depth == 0) {
+            return;
+        }
+        for (int i = 0; i < loopsPerLevel; ++i) {
+            // head: if (a >= b) goto exit; body; goto head; exit: nop;
+            // or with jumpToBody:
+            // head: if (a < b) goto body; goto exit; body; goto head; exit: nop;
+            If head = new If(new ConditionExp(
+                    jumpToBody ? ConditionExp.Op.LT : ConditionExp.Op.GE,
+                    pick(vars, random), pick(vars, random)));
+            stmts.add(head);
+            Nop exit = new Nop();
+            if (jumpToBody) {
+                Goto toExit = new Goto();
+                toExit.setTarget(exit);
+                stmts.add(toExit);
+                Nop body = new Nop();
+                head.setTarget(body);
+                stmts.add(body);
+            } else {
+                head.setTarget(exit);
+            }
+            generateRegion(stmts, vars, random, depth - 1, loopsPerLevel, blockSize,
+                    branches, jumpToBody);
+            Goto backEdge = new Goto();
+            backEdge.setTarget(head);
+            stmts.add(backEdge);
+            stmts.add(exit);
+        }
+        generateBranch(stmts, vars, random, blockSize, branches);
+    }
+
+    private static void generateBranch(
+            List<Stmt> stmts, List<Var> vars, Random random,
+            int blockSize, int branches) {
+        if (branches <= 1) {
+            generateBlock(stmts, vars, random, blockSize);
+            return;
+        }
+        // if (a < b) goto b1; ... if (c < d) goto bn; block0; goto join;
+        // b1: nop; block1; goto join; ... bn: nop; blockn; join: nop;
+        Nop[] starts = new Nop[branches];
+        for (int i = 1; i < branches; ++i) {
+            If branch = new If(new ConditionExp(ConditionExp.Op.LT,
+                    pick(vars, random), pick(vars, random)));
+            starts[i] = new Nop();
+            branch.setTarget(starts[i]);
+            stmts.add(branch);
+        }
+        Nop join = new Nop();
+        for (int i = 0; i < branches; ++i) {
+            if (i > 0) {
+                stmts.add(starts[i]);
+            }
+            generateBlock(stmts, vars, random, blockSize);
+            if (i < branches - 1) {
+                Goto toJoin = new Goto();
+                toJoin.setTarget(join);
+                stmts.add(toJoin);
+            }
+        }
+        stmts.add(join);
+    }
+
+    private static void generateBlock(
+            List<Stmt> stmts, List<Var> vars, Random random, int blockSize) {
+        for (int i = 0; i < blockSize; ++i) {
+            stmts.add(new Binary(pick(vars, random), new ArithmeticExp(
+                    ArithmeticExp.Op.ADD, pick(vars, random), pick(vars, random))));
+        }
+    }
+
+    private static Var pick(List<Var> vars, Random random) {
+        return vars.get(random.nextInt(vars.size()));
+    }
+
+    /**
+     * @return a copy of given IR where the statement at {@code index} is
+     * replaced by {@code stmt}. The replaced statement must not be
+     * the target of any jump.
+     */
+    public static IR replace(IR ir, int index, Stmt stmt) {
+        List<Stmt> stmts = new ArrayList<>(ir.getStmts());
+        stmt.setIndex(index);
+        stmt.setLineNumber(index);
+        stmts.set(index, stmt);
+        return new DefaultIR(ir.getMethod(), ir.getThis(), ir.getParams(),
+                Set.copyOf(ir.getReturnVars()), ir.getVars(), stmts,
+                ir.getExceptionEntries());
+    }
+
+    /**
+     * Builds the CFG of given IR without exceptional edges.
+     */
+    public static CFG<Stmt> buildCFG(IR ir) {
+        return new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false)).analyze(ir);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.defuse;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DefUseIndexTest {
+
+    private static IR generate(long seed) {
+        return SyntheticMethods.generate(12, 2, 2, 4, seed);
+    }
+
+    @Test
+    public void testIndex() {
+        for (long seed = 0; seed < 10; ++seed) {
+            IR ir = generate(seed);
+            DefUseIndex index = DefUseIndex.of(ir);
+            Assert.assertSame(index, DefUseIndex.of(ir));
+            for (Stmt stmt : ir) {
+                Var def = stmt.getDef().orElse(null) instanceof Var var ? var : null;
+                Assert.assertEquals(def, index.getDef(stmt));
+                Set<Var> uses = new LinkedHashSet<>();
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var) {
+                        uses.add(var);
+                    }
+                }
+                Assert.assertEquals(new ArrayList<>(uses), index.getUses(stmt));
+                for (Var var : ir.getVars()) {
+                    Assert.assertEquals(uses.contains(var), index.isUsedBy(var, stmt));
+                }
+            }
+            for (Var var : ir.getVars()) {
+                List<Stmt> defStmts = new ArrayList<>();
+                List<Stmt> useStmts = new ArrayList<>();
+                for (Stmt stmt : ir) {
+                    if (index.getDef(stmt) == var) {
+                        defStmts.add(stmt);
+                    }
+                    if (index.getUses(stmt).contains(var)) {
+                        useStmts.add(stmt);
+                    }
+                }
+                Assert.assertEquals(defStmts, index.getDefStmts(var));
+                Assert.assertEquals(useStmts, index.getUseStmts(var));
+            }
+        }
+    }
+
+    /**
+     * @return true if {@code def} reaches the use of its variable
+     * at {@code use}, i.e., there is a path from {@code def} to {@code use}
+     * on which no other node defines the variable.
+     */
+    private static boolean reaches(CFG<Stmt> cfg, DefUseIndex index,
+                                   Stmt def, Stmt use) {
+        Var var = index.getDef(def);
+        Set<Stmt> visited = Sets.newSet();
+        Deque<Stmt> workList = new ArrayDeque<>(cfg.getSuccsOf(def));
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            if (node == use) {
+                return true;
+            }
+            if (visited.add(node) && !(cfg.getIR().getStmts().contains(node)
+                    && index.getDef(node) == var)) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testChains() {
+        for (long seed = 0; seed < 5; ++seed) {
+            IR ir = generate(seed);
+            CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+            ReachingDefinitions reachingDefs = new ReachingDefinitions(cfg);
+            DefUseChains chains = new DefUseChains(reachingDefs);
+            DefUseIndex index = chains.getIndex();
+            for (Stmt def : ir) {
+                Var var = index.getDef(def);
+                List<Stmt> expectedUses = new ArrayList<>();
+                if (var != null) {
+                    for (Stmt use : index.getUseStmts(var)) {
+                        if (reaches(cfg, index, def, use)) {
+                            expectedUses.add(use);
+                            Assert.assertTrue(chains.getDefs(use, var).contains(def));
+                        } else {
+                            Assert.assertFalse(chains.getDefs(use, var).contains(def));
+                        }
+                    }
+                }
+                Assert.assertEquals(expectedUses, chains.getUses(def));
+            }
+            // the definitions reaching a use are the reaching definitions
+            // of its variable before the statement
+            for (Stmt use : ir) {
+                for (Var var : index.getUses(use)) {
+                    List<Stmt> expectedDefs = new ArrayList<>();
+                    reachingDefs.forEachReachingDef(use, (v, def) -> {
+                        if (v == var) {
+                            expectedDefs.add(def);
+                        }
+                    });
+                    Assert.assertEquals(Set.copyOf(expectedDefs),
+                            Set.copyOf(chains.getDefs(use, var)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChainsOfNewCFG() {
+        IR ir = generate(0);
+        DefUseChains chains = new DefUseChains(SyntheticMethods.buildCFG(ir));
+        Assert.assertSame(chains.getIndex(),
+                new DefUseChains(SyntheticMethods.buildCFG(ir)).getIndex());
+        Assert.assertSame(chains.getIndex(), DefUseIndex.of(ir));
+    }
+
+    /**
+     * Builds {@code y = x; switch (p) { case 0..16: x = k; goto 0; }},
+     * where the 17 definitions of x reach its only use, and the method
+     * has 2 uses in total.
+     */
+    @Test
+    public void testChainsOfManyDefinitions() {
+        int numCases = 17;
+        Var x = new Var(null, "x", PrimitiveType.INT, 0);
+        Var y = new Var(null, "y", PrimitiveType.INT, 1);
+        Var p = new Var(null, "p", PrimitiveType.INT, 2);
+        Stmt use = new Copy(y, x);
+        TableSwitch tableSwitch = new TableSwitch(p, 0, numCases - 1);
+        List<Stmt> stmts = new ArrayList<>(List.of(use, tableSwitch));
+        List<Stmt> defs = new ArrayList<>();
+        for (int k = 0; k < numCases; ++k) {
+            Stmt def = new AssignLiteral(x, IntLiteral.get(k));
+            Goto back = new Goto();
+            back.setTarget(use);
+            defs.add(def);
+            stmts.add(def);
+            stmts.add(back);
+        }
+        Return exit = new Return();
+        stmts.add(exit);
+        tableSwitch.setTargets(defs);
+        tableSwitch.setDefaultTarget(exit);
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(i);
+        }
+        IR ir = new DefaultIR(null, null, List.of(p), Set.of(),
+                List.of(x, y, p), stmts, List.of());
+        DefUseChains chains = new DefUseChains(SyntheticMethods.buildCFG(ir));
+        Assert.assertEquals(defs, chains.getDefs(use, x));
+        for (Stmt def : defs) {
+            Assert.assertEquals(List.of(use), chains.getUses(def));
+        }
+    }
+
+    /**
+     * Builds {@code x = p; return x;}, where the entry defines parameter p,
+     * and the entry and exit use no variables.
+     */
+    @Test
+    public void testChainsOfEntryAndExit() {
+        Var p = new Var(null, "p", PrimitiveType.INT, 0);
+        Var x = new Var(null, "x", PrimitiveType.INT, 1);
+        Stmt copy = new Copy(x, p);
+        List<Stmt> stmts = List.of(copy, new Return(x));
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(i);
+        }
+        IR ir = new DefaultIR(null, null, List.of(p), Set.of(x),
+                List.of(p, x), stmts, List.of());
+        CFG<Stmt> cfg = SyntheticMethods.buildCFG(ir);
+        DefUseChains chains = new DefUseChains(cfg);
+        Assert.assertEquals(List.of(cfg.getEntry()), chains.getDefs(copy, p));
+        Assert.assertEquals(List.of(copy), chains.getUses(cfg.getEntry()));
+        Assert.assertEquals(List.of(), chains.getUses(cfg.getExit()));
+        for (Var var : ir.getVars()) {
+            Assert.assertEquals(List.of(), chains.getDefs(cfg.getEntry(), var));
+            Assert.assertEquals(List.of(), chains.getDefs(cfg.getExit(), var));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.solver.SyntheticMethods;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+public class LoopNestTest {
+
+    private static CFG<Stmt> buildCFG(int loopDepth, int loopsPerLevel, long seed) {
+        IR ir = SyntheticMethods.generate(16, loopDepth, loopsPerLevel, 3, seed);
+        return SyntheticMethods.buildCFG(ir);
+    }
+
+    /**
+     * @return the nodes reachable from the entry without passing {@code removed}.
+     */
+    private static Set<Stmt> reachableWithout(CFG<Stmt> cfg, Stmt removed) {
+        Set<Stmt> reached = Sets.newSet();
+        Deque<Stmt> workList = new ArrayDeque<>();
+        if (cfg.getEntry() != removed) {
+            reached.add(cfg.getEntry());
+            workList.add(cfg.getEntry());
+        }
+        while (!workList.isEmpty()) {
+            for (Stmt succ : cfg.getSuccsOf(workList.poll())) {
+                if (succ != removed && reached.add(succ)) {
+                    workList.add(succ);
+                }
+            }
+        }
+        return reached;
+    }
+
+    @Test
+    public void testDominators() {
+        CFG<Stmt> cfg = buildCFG(2, 2, 0);
+        DominatorTree<Stmt> tree = new DominatorTree<>(cfg);
+        Set<Stmt> reachable = reachableWithout(cfg, null);
+        Assert.assertEquals(reachable.size(), tree.getReversePostorder().size());
+        Assert.assertNull(tree.getImmediateDominator(cfg.getEntry()));
+        // a dominates b iff b is unreachable when a is removed
+        for (Stmt a : cfg) {
+            Set<Stmt> reached = reachableWithout(cfg, a);
+            for (Stmt b : cfg) {
+                boolean expected = reachable.contains(b) &&
+                        (a == b || !reached.contains(b));
+                Assert.assertEquals(a + " dom " + b,
+                        expected, tree.dominates(a, b));
+            }
+        }
+        for (Stmt node : cfg) {
+            Stmt idom = tree.getImmediateDominator(node);
+            if (idom != null) {
+                Assert.assertTrue(tree.dominates(idom, node));
+                Assert.assertNotEquals(idom, node);
+            }
+        }
+    }
+
+    @Test
+    public void testLoops() {
+        CFG<Stmt> cfg = buildCFG(3, 2, 0);
+        LoopNest<Stmt> nest = new LoopNest<>(new DominatorTree<>(cfg));
+        // 2 + 2 * 2 + 2 * 2 * 2 loops, whose headers are the Ifs
+        List<LoopNest.Loop<Stmt>> loops = nest.getLoops();
+        Assert.assertEquals(14, loops.size());
+        Assert.assertEquals(2, nest.getTopLevelLoops().size());
+        for (LoopNest.Loop<Stmt> loop : loops) {
+            Assert.assertTrue(loop.getHeader() instanceof If);
+            Assert.assertEquals(loop.getDepth() < 3 ? 2 : 0,
+                    loop.getChildren().size());
+            for (Stmt node : loop.getNodes()) {
+                Assert.assertTrue(nest.getDominatorTree()
+                        .dominates(loop.getHeader(), node));
+            }
+            LoopNest.Loop<Stmt> parent = loop.getParent();
+            if (parent != null) {
+                Assert.assertTrue(parent.getNodes().containsAll(loop.getNodes()));
+                Assert.assertEquals(parent.getDepth() + 1, loop.getDepth());
+                // parents precede their children
+                Assert.assertTrue(loops.indexOf(parent) < loops.indexOf(loop));
+            }
+            Assert.assertEquals(loop.getDepth(),
+                    nest.getLoopDepth(loop.getHeader()));
+        }
+        Assert.assertEquals(0, nest.getLoopDepth(cfg.getEntry()));
+        Assert.assertEquals(0, nest.getLoopDepth(cfg.getExit()));
+        Assert.assertNull(nest.getLoopOf(cfg.getExit()));
+    }
+
+    @Test
+    public void testCachedInIR() {
+        CFG<Stmt> cfg = buildCFG(2, 2, 0);
+        LoopNest<Stmt> nest = LoopNest.of(cfg);
+        Assert.assertSame(nest, LoopNest.of(cfg));
+        Assert.assertSame(nest.getDominatorTree(), DominatorTree.of(cfg));
+        // a new CFG of the same IR gets its own loop nest
+        CFG<Stmt> rebuilt = SyntheticMethods.buildCFG(cfg.getIR());
+        Assert.assertNotSame(nest, LoopNest.of(rebuilt));
+        Assert.assertSame(rebuilt, LoopNest.of(rebuilt).getCFG());
+    }
+}
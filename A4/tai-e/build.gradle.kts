@@ -25,6 +25,16 @@ tasks.test {
     maxHeapSize = "4G"
 }
 
+// runs the call graph benchmark, e.g.,
+// gradle callGraphBenchmark --args="<class-path> <main-class> build/cg-benchmark.csv"
+tasks.register<JavaExec>("callGraphBenchmark") {
+    group = "verification"
+    description = "Compares the call graph builders on a program."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("pascal.taie.analysis.graph.callgraph.CallGraphBenchmark")
+    maxHeapSize = "4G"
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
@@ -48,6 +48,10 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    private CPFact(CPFact fact) {
+        super(fact);
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -71,6 +75,6 @@ public class CPFact extends MapFact<Var, Value> {
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(this);
     }
 }
@@ -45,12 +45,64 @@ import java.util.stream.Stream;
 public abstract class AbstractCallGraph<CallSite, Method>
         implements CallGraph<CallSite, Method> {
 
-    protected final MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges = Maps.newMultiMap();
-    protected final MultiMap<Method, Edge<CallSite, Method>> calleeToEdges = Maps.newMultiMap();
-    protected final Map<CallSite, Method> callSiteToContainer = Maps.newMap();
-    protected final MultiMap<Method, CallSite> callSitesIn = Maps.newMultiMap(Sets::newHybridOrderedSet);
-    protected final Set<Method> entryMethods = Sets.newSet();
-    protected final Set<Method> reachableMethods = Sets.newSet();
+    protected final MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges;
+    protected final MultiMap<Method, Edge<CallSite, Method>> calleeToEdges;
+    protected final Map<CallSite, Method> callSiteToContainer;
+    protected final MultiMap<Method, CallSite> callSitesIn;
+    protected final Set<Method> entryMethods;
+    protected final Set<Method> reachableMethods;
+
+    /**
+     * Method-level adjacency, i.e., callees of each caller and callers of
+     * each callee, maintained by {@link #addMethodEdge(Object, Object)}.
+     */
+    private final MultiMap<Method, Method> succs;
+    private final MultiMap<Method, Method> preds;
+
+    protected AbstractCallGraph() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent whether this call graph may be modified by multiple
+     *                   threads concurrently, which backs its data structures
+     *                   with concurrent maps and sets. The call sites in
+     *                   a method are still kept in their order, thus the
+     *                   subclasses must add all call sites of a method at once
+     *                   (see {@link ConcurrentMultiMap#putAll(Object, java.util.Collection)}).
+     */
+    protected AbstractCallGraph(boolean concurrent) {
+        if (concurrent) {
+            callSiteToEdges = new ConcurrentMultiMap<>();
+            calleeToEdges = new ConcurrentMultiMap<>();
+            callSiteToContainer = Maps.newConcurrentMap();
+            callSitesIn = new ConcurrentMultiMap<>(Sets::newHybridOrderedSet);
+            entryMethods = Sets.newConcurrentSet();
+            reachableMethods = Sets.newConcurrentSet();
+            succs = new ConcurrentMultiMap<>();
+            preds = new ConcurrentMultiMap<>();
+        } else {
+            callSiteToEdges = Maps.newMultiMap();
+            calleeToEdges = Maps.newMultiMap();
+            callSiteToContainer = Maps.newMap();
+            callSitesIn = Maps.newMultiMap(Sets::newHybridOrderedSet);
+            entryMethods = Sets.newSet();
+            reachableMethods = Sets.newSet();
+            succs = Maps.newMultiMap();
+            preds = Maps.newMultiMap();
+        }
+    }
+
+    /**
+     * Records that {@code caller} calls {@code callee}. The subclasses must
+     * call this method when they add a new call edge, so that the queries
+     * on method-level edges, e.g., {@link #hasEdge(Object, Object)}
+     * and {@link #getSuccsOf(Object)}, need not traverse the call sites.
+     */
+    protected void addMethodEdge(Method caller, Method callee) {
+        succs.put(caller, callee);
+        preds.put(callee, caller);
+    }
 
     @Override
     public Set<CallSite> getCallersOf(Method callee) {
@@ -64,9 +116,7 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public Set<Method> getCalleesOfM(Method caller) {
-        return callSitesIn(caller)
-                .flatMap(cs -> getCalleesOf(cs).stream())
-                .collect(Collectors.toUnmodifiableSet());
+        return getSuccsOf(caller);
     }
 
     @Override
@@ -128,7 +178,7 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public boolean hasEdge(Method source, Method target) {
-        return getSuccsOf(source).contains(target);
+        return succs.contains(source, target);
     }
 
     @Override
@@ -150,17 +200,12 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public Set<Method> getPredsOf(Method node) {
-        return getCallersOf(node)
-                .stream()
-                .map(this::getContainerOf)
-                .collect(Collectors.toUnmodifiableSet());
+        return preds.get(node);
     }
 
     @Override
     public Set<Method> getSuccsOf(Method node) {
-        return callSitesIn(node)
-                .flatMap(cs -> getCalleesOf(cs).stream())
-                .collect(Collectors.toUnmodifiableSet());
+        return succs.get(node);
     }
 
     @Override
@@ -29,8 +29,11 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
@@ -39,18 +42,78 @@ import java.util.Set;
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
+    /**
+     * Whether to resolve the call sites of newly reachable methods in parallel.
+     */
+    private final boolean parallel;
+
     private ClassHierarchy hierarchy;
 
+    CHABuilder() {
+        this(false);
+    }
+
+    CHABuilder(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public CallGraph<Invoke, JMethod> build() {
         hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        JMethod entry = World.get().getMainMethod();
+        return parallel ? buildCallGraphInParallel(entry) : buildCallGraph(entry);
     }
 
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
         DefaultCallGraph callGraph = new DefaultCallGraph();
         callGraph.addEntryMethod(entry);
-        // TODO - finish me
+        Queue<JMethod> workList = new ArrayDeque<>();
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                callGraph.callSitesIn(method).forEach(callSite -> {
+                    CallKind kind = CallGraphs.getCallKind(callSite);
+                    for (JMethod callee : resolve(callSite)) {
+                        callGraph.addEdge(new Edge<>(kind, callSite, callee));
+                        workList.add(callee);
+                    }
+                });
+            }
+        }
+        return callGraph;
+    }
+
+    /**
+     * Builds the same call graph as {@link #buildCallGraph(JMethod)}, but
+     * processes the reachable methods in batches: all methods that became
+     * reachable in the previous batch (the frontier) are processed
+     * in parallel on the common fork-join pool, and the methods they
+     * make reachable form the next frontier.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        DefaultCallGraph callGraph = new DefaultCallGraph(true);
+        callGraph.addEntryMethod(entry);
+        callGraph.addReachableMethod(entry);
+        List<JMethod> frontier = List.of(entry);
+        while (!frontier.isEmpty()) {
+            frontier = frontier.parallelStream()
+                    .flatMap(callGraph::callSitesIn)
+                    .flatMap(callSite -> {
+                        CallKind kind = CallGraphs.getCallKind(callSite);
+                        List<JMethod> newMethods = new ArrayList<>();
+                        for (JMethod callee : resolve(callSite)) {
+                            callGraph.addEdge(new Edge<>(kind, callSite, callee));
+                            // only the thread that adds callee to the reachable
+                            // methods puts it into the next frontier
+                            if (callGraph.addReachableMethod(callee)) {
+                                newMethods.add(callee);
+                            }
+                        }
+                        return newMethods.stream();
+                    })
+                    .toList();
+        }
         return callGraph;
     }
 
@@ -58,8 +121,31 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      * Resolves call targets (callees) of a call site via CHA.
      */
     private Set<JMethod> resolve(Invoke callSite) {
-        // TODO - finish me
-        return null;
+        MethodRef methodRef = callSite.getMethodRef();
+        JClass declaringClass = methodRef.getDeclaringClass();
+        Subsignature subsignature = methodRef.getSubsignature();
+        Set<JMethod> callees = Sets.newHybridSet();
+        switch (CallGraphs.getCallKind(callSite)) {
+            case STATIC -> addIfNotNull(callees,
+                    declaringClass.getDeclaredMethod(subsignature));
+            case SPECIAL -> addIfNotNull(callees,
+                    dispatch(declaringClass, subsignature));
+            case VIRTUAL, INTERFACE -> {
+                for (JClass jclass : hierarchy.getAllSubclassesOf(declaringClass, true)) {
+                    addIfNotNull(callees, dispatch(jclass, subsignature));
+                }
+            }
+            default -> {
+                // invokedynamic is not handled by CHA
+            }
+        }
+        return callees;
+    }
+
+    private static void addIfNotNull(Set<JMethod> callees, JMethod callee) {
+        if (callee != null) {
+            callees.add(callee);
+        }
     }
 
     /**
@@ -69,7 +155,6 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      * can be found.
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        // TODO - finish me
-        return null;
+        return hierarchy.dispatch(jclass, subsignature);
     }
 }
@@ -24,6 +24,7 @@ package pascal.taie.analysis.graph.callgraph;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.ConfigException;
@@ -48,22 +49,45 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     private final String algorithm;
 
+    /**
+     * Whether to build the call graph in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * Whether to freeze the built call graph into {@link CompactCallGraph}.
+     */
+    private final boolean freeze;
+
     public CallGraphBuilder(AnalysisConfig config) {
         super(config);
         algorithm = config.getOptions().getString("algorithm");
+        parallel = config.getOptions().getBooleanOrDefault("parallel", false);
+        freeze = config.getOptions().getBooleanOrDefault("freeze", false);
     }
 
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
         CGBuilder<Invoke, JMethod> builder;
         if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
+            builder = new CHABuilder(parallel);
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
         ClassHierarchyImpl.setCheckCHA(true);
         CallGraph<Invoke, JMethod> callGraph = builder.build();
         ClassHierarchyImpl.setCheckCHA(false);
+        if (World.get().getClassHierarchy() instanceof ClassHierarchyImpl hierarchy) {
+            logger.info("{}", hierarchy.getDispatchCache());
+        }
+        if (freeze) {
+            CompactCallGraph<Invoke, JMethod> compact = CompactCallGraph.freeze(callGraph);
+            logger.info("Froze call graph into {} KB (estimated)",
+                    compact.getFootprint() / 1024);
+            callGraph = compact;
+        }
         takeAction(callGraph);
         return callGraph;
     }
@@ -24,6 +24,7 @@ package pascal.taie.analysis.graph.callgraph;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
 import pascal.taie.config.Configs;
 import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.exp.InvokeDynamic;
@@ -32,13 +33,21 @@ import pascal.taie.ir.exp.InvokeInterface;
 import pascal.taie.ir.exp.InvokeSpecial;
 import pascal.taie.ir.exp.InvokeStatic;
 import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.IDProvider;
 import pascal.taie.util.MapIDProvider;
 import pascal.taie.util.graph.DotDumper;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -73,6 +82,34 @@ public final class CallGraphs {
         return getCallKind(invoke.getInvokeExp());
     }
 
+    /**
+     * Resolves the callee of a call site on a receiver object of given
+     * type, which is ignored by static calls. The virtual dispatches are
+     * answered by {@link ClassHierarchy#dispatch(JClass, Subsignature)},
+     * thus they share its cache with the call graph builders.
+     *
+     * @return the callee, or null if it cannot be resolved.
+     */
+    public static @Nullable JMethod resolveCallee(Type type, Invoke callSite) {
+        MethodRef methodRef = callSite.getMethodRef();
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        return switch (getCallKind(callSite)) {
+            case STATIC -> methodRef.getDeclaringClass()
+                    .getDeclaredMethod(methodRef.getSubsignature());
+            case SPECIAL -> hierarchy.dispatch(methodRef.getDeclaringClass(),
+                    methodRef.getSubsignature());
+            case VIRTUAL, INTERFACE -> {
+                // arrays only inherit the methods of java.lang.Object
+                JClass jclass = type instanceof ClassType classType ?
+                        classType.getJClass() :
+                        hierarchy.getJREClass(ClassNames.OBJECT);
+                yield jclass == null ? null :
+                        hierarchy.dispatch(jclass, methodRef.getSubsignature());
+            }
+            default -> null;
+        };
+    }
+
     /**
      * Dumps call graph to dot file.
      */
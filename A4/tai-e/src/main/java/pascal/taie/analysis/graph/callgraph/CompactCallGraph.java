@@ -0,0 +1,539 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.AnalysisException;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable call graph in compressed sparse row (CSR) format.
+ * <p>
+ * A call graph is usually only read after it has been built, e.g., by
+ * the ICFG builder and by result dumping, thus {@link #freeze(CallGraph)}
+ * can convert it to this compact representation, which numbers the
+ * methods and call sites, and stores the relations among them in int
+ * arrays, instead of hash-based maps and sets of {@link Edge} objects.
+ * The call sites in a method are numbered consecutively in their order,
+ * so that the call sites of each method, the callees of each call site
+ * and the callers of each method form rows of the arrays.
+ * The edges are created on demand when they are queried.
+ *
+ * @param <CallSite> type of call sites
+ * @param <Method>   type of methods
+ */
+public final class CompactCallGraph<CallSite, Method>
+        implements CallGraph<CallSite, Method> {
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    /**
+     * Reachable methods, indexed by their ids.
+     */
+    private final Object[] methods;
+
+    private final IdMap methodIds;
+
+    private final int[] entryMethods;
+
+    /**
+     * Call sites in the reachable methods, indexed by their ids.
+     */
+    private final Object[] callSites;
+
+    private final IdMap callSiteIds;
+
+    /**
+     * The call sites in method i are in range
+     * [callSiteOffsets[i], callSiteOffsets[i + 1]).
+     */
+    private final int[] callSiteOffsets;
+
+    /**
+     * Method id of the container of each call site.
+     */
+    private final int[] containers;
+
+    /**
+     * The out edges of call site i are in range
+     * [calleeOffsets[i], calleeOffsets[i + 1]) of {@link #callees}
+     * and {@link #calleeKinds}, sorted by callee ids.
+     */
+    private final int[] calleeOffsets;
+
+    private final int[] callees;
+
+    private final byte[] calleeKinds;
+
+    /**
+     * The in edges of method i are in range
+     * [callerOffsets[i], callerOffsets[i + 1]) of {@link #callers}
+     * and {@link #callerKinds}, sorted by call site ids.
+     */
+    private final int[] callerOffsets;
+
+    private final int[] callers;
+
+    private final byte[] callerKinds;
+
+    private CompactCallGraph(CallGraph<CallSite, Method> callGraph) {
+        // number methods and call sites
+        methods = callGraph.reachableMethods().toArray();
+        methodIds = new IdMap(methods);
+        entryMethods = callGraph.entryMethods()
+                .mapToInt(this::getMethodId)
+                .toArray();
+        callSiteOffsets = new int[methods.length + 1];
+        List<CallSite> callSiteList = new ArrayList<>();
+        for (int m = 0; m < methods.length; ++m) {
+            callSiteOffsets[m] = callSiteList.size();
+            callSiteList.addAll(callGraph.getCallSitesIn(getMethod(m)));
+        }
+        callSiteOffsets[methods.length] = callSiteList.size();
+        callSites = callSiteList.toArray();
+        callSiteIds = new IdMap(callSites);
+        containers = new int[callSites.length];
+        for (int m = 0; m < methods.length; ++m) {
+            Arrays.fill(containers, callSiteOffsets[m], callSiteOffsets[m + 1], m);
+        }
+        // collect out edges
+        int numEdges = callGraph.getNumberOfEdges();
+        calleeOffsets = new int[callSites.length + 1];
+        callees = new int[numEdges];
+        calleeKinds = new byte[numEdges];
+        int[] callerCounts = new int[methods.length + 1];
+        int e = 0;
+        for (int cs = 0; cs < callSites.length; ++cs) {
+            calleeOffsets[cs] = e;
+            long[] row = callGraph.edgesOutOf(getCallSite(cs))
+                    .mapToLong(edge -> (long) getMethodId(edge.getCallee()) << 8
+                            | edge.getKind().ordinal())
+                    .sorted()
+                    .toArray();
+            if (e + row.length > numEdges) {
+                throw new AnalysisException("Call graph has more edges than " +
+                        numEdges + ", which is given by getNumberOfEdges()");
+            }
+            for (long edge : row) {
+                int callee = (int) (edge >>> 8);
+                callees[e] = callee;
+                calleeKinds[e] = (byte) edge;
+                ++callerCounts[callee + 1];
+                ++e;
+            }
+        }
+        calleeOffsets[callSites.length] = e;
+        if (e != numEdges) {
+            throw new AnalysisException((numEdges - e) + " call edges" +
+                    " are out of the call sites in reachable methods");
+        }
+        // build in edges by counting sort of out edges, which are
+        // visited in the order of call site ids
+        callerOffsets = callerCounts;
+        for (int m = 0; m < methods.length; ++m) {
+            callerOffsets[m + 1] += callerOffsets[m];
+        }
+        callers = new int[numEdges];
+        callerKinds = new byte[numEdges];
+        int[] next = Arrays.copyOf(callerOffsets, methods.length);
+        for (int cs = 0; cs < callSites.length; ++cs) {
+            for (int i = calleeOffsets[cs]; i < calleeOffsets[cs + 1]; ++i) {
+                int pos = next[callees[i]]++;
+                callers[pos] = cs;
+                callerKinds[pos] = calleeKinds[i];
+            }
+        }
+    }
+
+    /**
+     * Converts a built call graph to its compact and immutable representation.
+     * The given call graph should not be modified afterwards, and it can
+     * be discarded if it is not used elsewhere.
+     *
+     * @throws AnalysisException if the call graph has edges that are out of
+     *                           the call sites in its reachable methods,
+     *                           or into methods that are not reachable
+     */
+    public static <CallSite, Method> CompactCallGraph<CallSite, Method> freeze(
+            CallGraph<CallSite, Method> callGraph) {
+        if (callGraph instanceof CompactCallGraph<CallSite, Method> compact) {
+            return compact;
+        }
+        return new CompactCallGraph<>(callGraph);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Method getMethod(int id) {
+        return (Method) methods[id];
+    }
+
+    private int getMethodId(Method method) {
+        int id = methodIds.get(method);
+        if (id == -1) {
+            throw new AnalysisException(method + " is not reachable");
+        }
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CallSite getCallSite(int id) {
+        return (CallSite) callSites[id];
+    }
+
+    private Edge<CallSite, Method> getOutEdge(int callSite, int i) {
+        return new Edge<>(KINDS[calleeKinds[i]],
+                getCallSite(callSite), getMethod(callees[i]));
+    }
+
+    private Edge<CallSite, Method> getInEdge(int callee, int i) {
+        return new Edge<>(KINDS[callerKinds[i]],
+                getCallSite(callers[i]), getMethod(callee));
+    }
+
+    /**
+     * @return the estimated number of bytes occupied by this call graph,
+     * excluding the methods and call sites themselves, which are shared
+     * with other data structures. The estimation assumes compressed
+     * references, i.e., 4-byte references and 16-byte array headers.
+     */
+    public long getFootprint() {
+        return 16 + 13 * 4 // this object
+                + arraySize(methods.length, 4) + methodIds.getFootprint()
+                + arraySize(entryMethods.length, 4)
+                + arraySize(callSites.length, 4) + callSiteIds.getFootprint()
+                + arraySize(callSiteOffsets.length, 4)
+                + arraySize(containers.length, 4)
+                + arraySize(calleeOffsets.length, 4)
+                + arraySize(callees.length, 4)
+                + arraySize(calleeKinds.length, 1)
+                + arraySize(callerOffsets.length, 4)
+                + arraySize(callers.length, 4)
+                + arraySize(callerKinds.length, 1);
+    }
+
+    private static long arraySize(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    @Override
+    public Set<CallSite> getCallersOf(Method callee) {
+        int m = methodIds.get(callee);
+        return m == -1 ? Set.of() : new IdSet<>(callSites, callSiteIds,
+                callers, callerOffsets[m], callerOffsets[m + 1]);
+    }
+
+    @Override
+    public Set<Method> getCalleesOf(CallSite callSite) {
+        int cs = callSiteIds.get(callSite);
+        return cs == -1 ? Set.of() : new IdSet<>(methods, methodIds,
+                callees, calleeOffsets[cs], calleeOffsets[cs + 1]);
+    }
+
+    @Override
+    public Set<Method> getCalleesOfM(Method caller) {
+        return getSuccsOf(caller);
+    }
+
+    @Override
+    public Method getContainerOf(CallSite callSite) {
+        int cs = callSiteIds.get(callSite);
+        return cs == -1 ? null : getMethod(containers[cs]);
+    }
+
+    @Override
+    public Set<CallSite> getCallSitesIn(Method method) {
+        int m = methodIds.get(method);
+        return m == -1 ? Set.of() : new IdSet<>(callSites, callSiteIds,
+                null, callSiteOffsets[m], callSiteOffsets[m + 1]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesOutOf(CallSite callSite) {
+        int cs = callSiteIds.get(callSite);
+        return cs == -1 ? Stream.of() : edgesOutOf(cs);
+    }
+
+    private Stream<Edge<CallSite, Method>> edgesOutOf(int callSite) {
+        return IntStream.range(calleeOffsets[callSite], calleeOffsets[callSite + 1])
+                .mapToObj(i -> getOutEdge(callSite, i));
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesInTo(Method method) {
+        int m = methodIds.get(method);
+        return m == -1 ? Stream.of() :
+                IntStream.range(callerOffsets[m], callerOffsets[m + 1])
+                        .mapToObj(i -> getInEdge(m, i));
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edges() {
+        return IntStream.range(0, callSites.length).boxed().flatMap(this::edgesOutOf);
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        return callees.length;
+    }
+
+    @Override
+    public Stream<Method> entryMethods() {
+        return Arrays.stream(entryMethods).mapToObj(this::getMethod);
+    }
+
+    @Override
+    public Stream<Method> reachableMethods() {
+        return IntStream.range(0, methods.length).mapToObj(this::getMethod);
+    }
+
+    @Override
+    public int getNumberOfMethods() {
+        return methods.length;
+    }
+
+    @Override
+    public boolean contains(Method method) {
+        return methodIds.get(method) != -1;
+    }
+
+    // Implementation for Graph interface.
+
+    @Override
+    public boolean hasNode(Method node) {
+        return contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(Method source, Method target) {
+        int m = methodIds.get(source);
+        int callee = methodIds.get(target);
+        if (m == -1 || callee == -1) {
+            return false;
+        }
+        for (int cs = callSiteOffsets[m]; cs < callSiteOffsets[m + 1]; ++cs) {
+            if (Arrays.binarySearch(callees, calleeOffsets[cs],
+                    calleeOffsets[cs + 1], callee) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<MethodEdge<CallSite, Method>> getInEdgesOf(Method method) {
+        int m = methodIds.get(method);
+        return m == -1 ? Set.of() :
+                IntStream.range(callerOffsets[m], callerOffsets[m + 1])
+                        .mapToObj(i -> new MethodEdge<>(
+                                getMethod(containers[callers[i]]), method,
+                                getCallSite(callers[i])))
+                        .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<MethodEdge<CallSite, Method>> getOutEdgesOf(Method method) {
+        int m = methodIds.get(method);
+        if (m == -1) {
+            return Set.of();
+        }
+        return IntStream.range(callSiteOffsets[m], callSiteOffsets[m + 1])
+                .boxed()
+                .flatMap(cs -> IntStream.range(calleeOffsets[cs], calleeOffsets[cs + 1])
+                        .mapToObj(i -> new MethodEdge<>(method,
+                                getMethod(callees[i]), getCallSite(cs))))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<Method> getPredsOf(Method node) {
+        int m = methodIds.get(node);
+        return m == -1 ? Set.of() :
+                IntStream.range(callerOffsets[m], callerOffsets[m + 1])
+                        .mapToObj(i -> getMethod(containers[callers[i]]))
+                        .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<Method> getSuccsOf(Method node) {
+        int m = methodIds.get(node);
+        return m == -1 ? Set.of() :
+                IntStream.range(calleeOffsets[callSiteOffsets[m]],
+                                calleeOffsets[callSiteOffsets[m + 1]])
+                        .mapToObj(i -> getMethod(callees[i]))
+                        .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<Method> getNodes() {
+        return new IdSet<>(methods, methodIds, null, 0, methods.length);
+    }
+
+    // Implementation for StmtResult interface.
+
+    /**
+     * Same as {@link DefaultCallGraph}, all invocations are relevant, and
+     * the result of an invocation is its callees if the call sites of
+     * this call graph are invocations, otherwise it is empty.
+     */
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public Set<Method> getResult(Stmt stmt) {
+        int cs = callSiteIds.get(stmt);
+        return cs == -1 ? Set.of() : new IdSet<>(methods, methodIds,
+                callees, calleeOffsets[cs], calleeOffsets[cs + 1]);
+    }
+
+    /**
+     * Maps the methods (or call sites) to their ids by open addressing,
+     * which avoids the entries and boxed integers of hash maps.
+     */
+    private static final class IdMap {
+
+        private final Object[] keys;
+
+        private final int[] ids;
+
+        private final int mask;
+
+        private IdMap(Object[] elements) {
+            int capacity = Integer.highestOneBit(
+                    Math.max(2, elements.length * 2) - 1) << 1;
+            keys = new Object[capacity];
+            ids = new int[capacity];
+            mask = capacity - 1;
+            for (int id = 0; id < elements.length; ++id) {
+                Object key = elements[id];
+                int i = indexOf(key);
+                if (keys[i] != null) {
+                    throw new AnalysisException("Duplicate element: " + key);
+                }
+                keys[i] = key;
+                ids[i] = id;
+            }
+        }
+
+        private int indexOf(Object key) {
+            int h = key.hashCode();
+            int i = (h ^ (h >>> 16)) & mask;
+            while (keys[i] != null && !keys[i].equals(key)) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /**
+         * @return id of given key, or -1 if the key is absent.
+         */
+        private int get(Object key) {
+            if (key == null) {
+                return -1;
+            }
+            int i = indexOf(key);
+            return keys[i] == null ? -1 : ids[i];
+        }
+
+        private long getFootprint() {
+            return 16 + 3 * 4 + arraySize(keys.length, 4) + arraySize(ids.length, 4);
+        }
+    }
+
+    /**
+     * Unmodifiable view of a row, i.e., the elements whose ids are
+     * {@code rows[from..to)} (sorted), or {@code from..to} if
+     * {@code rows} is {@code null}.
+     */
+    private static final class IdSet<E> extends AbstractSet<E> {
+
+        private final Object[] elements;
+
+        private final IdMap ids;
+
+        private final int[] rows;
+
+        private final int from;
+
+        private final int to;
+
+        private IdSet(Object[] elements, IdMap ids, int[] rows, int from, int to) {
+            this.elements = elements;
+            this.ids = ids;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int id = ids.get(o);
+            if (id == -1) {
+                return false;
+            }
+            return rows == null ? from <= id && id < to :
+                    Arrays.binarySearch(rows, from, to, id) >= 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int i = from;
+
+                @Override
+                public boolean hasNext() {
+                    return i < to;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (i >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    int id = rows == null ? i : rows[i];
+                    ++i;
+                    return (E) elements[id];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.util.collection.AbstractMultiMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe {@link MultiMap} backed by a concurrent map of sets.
+ * <p>
+ * The value sets are created by the given factory, which must create
+ * thread-safe sets if the values of a key may be added concurrently.
+ * {@link #putAll(Object, Collection)} on an absent key publishes the
+ * set of the key after adding all values, so concurrent readers never
+ * see a partially added collection, and can use a factory of ordered
+ * sets which are not thread-safe, as long as each such key is only
+ * put once.
+ */
+class ConcurrentMultiMap<K, V> extends AbstractMultiMap<K, V> {
+
+    private final ConcurrentMap<K, Set<V>> map = Maps.newConcurrentMap();
+
+    private final Supplier<Set<V>> setFactory;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    ConcurrentMultiMap() {
+        this(Sets::newConcurrentSet);
+    }
+
+    ConcurrentMultiMap(Supplier<Set<V>> setFactory) {
+        this.setFactory = setFactory;
+    }
+
+    @Override
+    public boolean contains(K key, V value) {
+        return get(key).contains(value);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public Set<V> get(K key) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Set<V> values = map.get(key);
+        return values == null ? Set.of() : Collections.unmodifiableSet(values);
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Objects.requireNonNull(value, NULL_VALUE);
+        if (map.computeIfAbsent(key, k -> setFactory.get()).add(value)) {
+            size.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean putAll(K key, Collection<? extends V> values) {
+        Objects.requireNonNull(key, NULL_KEY);
+        Set<V> set = map.get(key);
+        if (set == null) {
+            Set<V> newSet = setFactory.get();
+            values.forEach(v -> newSet.add(Objects.requireNonNull(v, NULL_VALUE)));
+            if (newSet.isEmpty()) {
+                return false;
+            }
+            set = map.putIfAbsent(key, newSet);
+            if (set == null) {
+                size.addAndGet(newSet.size());
+                return true;
+            }
+        }
+        int added = 0;
+        for (V value : values) {
+            if (set.add(Objects.requireNonNull(value, NULL_VALUE))) {
+                ++added;
+            }
+        }
+        size.addAndGet(added);
+        return added > 0;
+    }
+
+    @Override
+    public boolean putAll(MultiMap<K, V> multiMap) {
+        boolean[] changed = {false};
+        multiMap.forEachSet((key, values) -> changed[0] |= putAll(key, values));
+        return changed[0];
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        Set<V> values = map.get(key);
+        if (values != null && values.remove(value)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(K key) {
+        Set<V> values = map.remove(key);
+        if (values != null) {
+            size.addAndGet(-values.size());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(K key, Collection<? extends V> values) {
+        boolean changed = false;
+        for (V value : values) {
+            changed |= remove(key, value);
+        }
+        return changed;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    public void forEachSet(BiConsumer<K, Set<V>> action) {
+        map.forEach((key, values) -> action.accept(key,
+                Collections.unmodifiableSet(values)));
+    }
+
+    @Override
+    protected Iterator<Map.Entry<K, V>> entryIterator() {
+        return map.entrySet()
+                .stream()
+                .flatMap(e -> e.getValue().stream().map(v ->
+                        (Map.Entry<K, V>) new AbstractMap.SimpleImmutableEntry<>(e.getKey(), v)))
+                .iterator();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        size.set(0);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
@@ -26,6 +26,8 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -33,6 +35,18 @@ import java.util.Set;
  */
 public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
 
+    public DefaultCallGraph() {
+        super();
+    }
+
+    /**
+     * @param concurrent whether this call graph may be modified by
+     *                   multiple threads concurrently
+     */
+    public DefaultCallGraph(boolean concurrent) {
+        super(concurrent);
+    }
+
     /**
      * Adds an entry method to this call graph.
      */
@@ -49,12 +63,16 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
     public boolean addReachableMethod(JMethod method) {
         if (reachableMethods.add(method)) {
             if (!method.isAbstract()) {
+                List<Invoke> callSites = new ArrayList<>();
                 method.getIR().forEach(stmt -> {
                     if (stmt instanceof Invoke invoke) {
                         callSiteToContainer.put(invoke, method);
-                        callSitesIn.put(method, invoke);
+                        callSites.add(invoke);
                     }
                 });
+                // adds the call sites at once, so that they are published
+                // together when this call graph is concurrent
+                callSitesIn.putAll(method, callSites);
             }
             return true;
         }
@@ -71,6 +89,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
     public boolean addEdge(Edge<Invoke, JMethod> edge) {
         if (callSiteToEdges.put(edge.getCallSite(), edge)) {
             calleeToEdges.put(edge.getCallee(), edge);
+            addMethodEdge(getContainerOf(edge.getCallSite()), edge.getCallee());
             return true;
         } else {
             return false;
@@ -0,0 +1,195 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the RTA (Rapid Type Analysis) algorithm.
+ * <p>
+ * Different from CHA, which dispatches a virtual call site on all subclasses
+ * of the declaring class of its method reference, RTA only dispatches it on
+ * the classes that are instantiated in the reachable methods, i.e., the
+ * classes of the objects created by {@link New} statements, and the classes
+ * of reference literals (e.g., {@link String} for string constants).
+ * As both reachable methods and instantiated classes grow during the
+ * analysis, a newly instantiated class is also dispatched on the virtual
+ * call sites of its supertypes that have been processed before.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in the reachable methods.
+     */
+    private Set<JClass> instantiatedClasses;
+
+    /**
+     * Virtual and interface call sites in the reachable methods,
+     * grouped by the declaring classes of their method references.
+     */
+    private MultiMap<JClass, Invoke> virtualCallSites;
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        instantiatedClasses = Sets.newSet();
+        virtualCallSites = Maps.newMultiMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method) && !method.isAbstract()) {
+                processNewMethod(method);
+            }
+        }
+        return callGraph;
+    }
+
+    private void processNewMethod(JMethod method) {
+        method.getIR().forEach(stmt -> {
+            if (stmt instanceof New newStmt &&
+                    newStmt.getRValue() instanceof NewInstance newInstance) {
+                instantiate(newInstance.getType());
+            } else if (stmt instanceof AssignLiteral assign &&
+                    assign.getRValue() instanceof ReferenceLiteral literal &&
+                    literal.getType() instanceof ClassType type) {
+                instantiate(type);
+            }
+        });
+        callGraph.callSitesIn(method).forEach(callSite -> {
+            MethodRef methodRef = callSite.getMethodRef();
+            JClass declaringClass = methodRef.getDeclaringClass();
+            Subsignature subsignature = methodRef.getSubsignature();
+            switch (CallGraphs.getCallKind(callSite)) {
+                case STATIC -> addEdge(callSite,
+                        declaringClass.getDeclaredMethod(subsignature));
+                case SPECIAL -> addEdge(callSite,
+                        hierarchy.dispatch(declaringClass, subsignature));
+                case VIRTUAL, INTERFACE -> {
+                    virtualCallSites.put(declaringClass, callSite);
+                    forEachInstantiatedSubclassOf(declaringClass, jclass ->
+                            addEdge(callSite, hierarchy.dispatch(jclass, subsignature)));
+                }
+                default -> {
+                    // invokedynamic is not handled by RTA
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies {@code action} to every instantiated class which is a subclass
+     * of given class (including itself). Either the subclasses or the
+     * instantiated classes are iterated, whichever are fewer.
+     */
+    private void forEachInstantiatedSubclassOf(JClass jclass,
+                                               Consumer<JClass> action) {
+        Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(jclass, true);
+        if (instantiatedClasses.size() < subclasses.size()) {
+            for (JClass c : instantiatedClasses) {
+                if (hierarchy.isSubclass(jclass, c)) {
+                    action.accept(c);
+                }
+            }
+        } else {
+            for (JClass c : subclasses) {
+                if (instantiatedClasses.contains(c)) {
+                    action.accept(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the class of given type as instantiated, and dispatches
+     * the processed virtual call sites on it.
+     */
+    private void instantiate(ClassType type) {
+        JClass jclass = type.getJClass();
+        if (jclass != null && instantiatedClasses.add(jclass)) {
+            for (JClass supertype : getSupertypesOf(jclass)) {
+                for (Invoke callSite : virtualCallSites.get(supertype)) {
+                    addEdge(callSite, hierarchy.dispatch(jclass,
+                            callSite.getMethodRef().getSubsignature()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return all (direct and indirect) superclasses and superinterfaces
+     * of given class, including itself.
+     */
+    private static Set<JClass> getSupertypesOf(JClass jclass) {
+        Set<JClass> supertypes = Sets.newHybridSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        queue.add(jclass);
+        while (!queue.isEmpty()) {
+            JClass c = queue.poll();
+            if (supertypes.add(c)) {
+                if (c.getSuperClass() != null) {
+                    queue.add(c.getSuperClass());
+                }
+                queue.addAll(c.getInterfaces());
+            }
+        }
+        return supertypes;
+    }
+
+    private void addEdge(Invoke callSite, JMethod callee) {
+        if (callee != null) {
+            callGraph.addEdge(new Edge<>(
+                    CallGraphs.getCallKind(callSite), callSite, callee));
+            workList.add(callee);
+        }
+    }
+}
@@ -75,6 +75,19 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return true if {@code subclass} is {@code superclass}, or
+     * a transitive subclass, subinterface or implementor of it.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass);
+
+    /**
+     * @param selfInclusive whether the result contains {@code jclass}
+     * @return all transitive subclasses, subinterfaces and implementors
+     * of given class.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclusive);
+
     /**
      * Obtains a JRE class by it name.
      *
@@ -87,6 +100,16 @@ public interface ClassHierarchy {
 
     @Nullable JMethod resolveMethod(MethodRef methodRef);
 
+    /**
+     * Looks up the method invoked on the objects of given class by dynamic
+     * dispatch, i.e., the first non-abstract method of given subsignature
+     * declared in the class or its superclasses, or otherwise, a default
+     * method of its superinterfaces.
+     *
+     * @return the dispatched method, or null if no such method exists.
+     */
+    @Nullable JMethod dispatch(JClass jclass, Subsignature subsignature);
+
     /**
      * Obtains a method declared in a JRE class by its signature.
      *
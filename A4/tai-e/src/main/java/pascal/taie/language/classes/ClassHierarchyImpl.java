@@ -28,7 +28,9 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.util.AnalysisException;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -65,6 +67,30 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * All classes in this hierarchy, in the order they are added.
+     */
+    private final List<JClass> classes = new ArrayList<>();
+
+    /**
+     * Index of the transitive subclasses, which is built on demand
+     * after the classes are loaded, and discarded when a class is added.
+     */
+    private volatile SubtypeIndex subtypeIndex;
+
+    /**
+     * Cache of {@link #dispatch(JClass, Subsignature)}.
+     */
+    private final DispatchCache dispatchCache = new DispatchCache(
+            (c, s) -> lookupMethod(c, s, false));
+
+    /**
+     * Cache of the lookups of {@link #resolveMethod(MethodRef)},
+     * which may resolve to abstract methods.
+     */
+    private final DispatchCache resolutionCache = new DispatchCache(
+            (c, s) -> lookupMethod(c, s, true));
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -97,6 +123,8 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public void addClass(JClass jclass) {
+        classes.add(jclass);
+        subtypeIndex = null;
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -160,6 +188,31 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public boolean isSubclass(JClass superclass, JClass subclass) {
+        return getSubtypeIndex().isSubtype(superclass, subclass);
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass, boolean selfInclusive) {
+        List<JClass> subclasses = getSubtypeIndex().getSubtypesOf(jclass);
+        return selfInclusive ? subclasses : subclasses.subList(1, subclasses.size());
+    }
+
+    private SubtypeIndex getSubtypeIndex() {
+        SubtypeIndex index = subtypeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subtypeIndex;
+                if (index == null) {
+                    index = new SubtypeIndex(classes, this);
+                    subtypeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
@@ -183,8 +236,8 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     JMethod resolveMethod(MethodRef methodRef) {
         checkCHA();
         JClass declaringClass = methodRef.getDeclaringClass();
-        JMethod method = lookupMethod(declaringClass,
-                methodRef.getSubsignature(), true);
+        JMethod method = resolutionCache.get(declaringClass,
+                methodRef.getSubsignature());
         if (method != null) {
             return method;
         } else if (methodRef.isPolymorphicSignature()) {
@@ -193,6 +246,20 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return null;
     }
 
+    @Override
+    public @Nullable
+    JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        return dispatchCache.get(jclass, subsignature);
+    }
+
+    /**
+     * @return the cache of {@link #dispatch(JClass, Subsignature)},
+     * which records the statistics of the dispatches.
+     */
+    public DispatchCache getDispatchCache() {
+        return dispatchCache;
+    }
+
     private JMethod lookupMethod(JClass jclass, Subsignature subsignature,
                                  boolean allowAbstract) {
         for (JClass c = jclass; c != null; c = c.getSuperClass()) {
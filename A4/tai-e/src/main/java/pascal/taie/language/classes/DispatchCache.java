@@ -0,0 +1,129 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Concurrent cache of method lookups on the class hierarchy, which maps
+ * each class to a map from subsignatures to the methods found by the
+ * lookup. Absent methods, e.g., when only an abstract method is declared,
+ * are cached as well, so each (class, subsignature) pair is looked up
+ * once, no matter how many call sites and receiver objects share it.
+ * <p>
+ * The lookup is performed outside the maps, thus concurrent misses of
+ * the same pair may look it up more than once, but they obtain the
+ * same method, and only the first one is cached. The results stay
+ * valid when new classes are added to the hierarchy, as the lookup only
+ * visits the superclasses and superinterfaces of a class, which are
+ * fixed once the class is loaded.
+ */
+public final class DispatchCache {
+
+    /**
+     * Marker of the pairs for which the lookup found no method,
+     * as the concurrent maps cannot hold {@code null}.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final BiFunction<JClass, Subsignature, JMethod> lookup;
+
+    private final ConcurrentMap<JClass, ConcurrentMap<Subsignature, Object>> cache
+            = Maps.newConcurrentMap();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder absences = new LongAdder();
+
+    /**
+     * @param lookup finds the method of given subsignature for given class,
+     *               or returns {@code null} if there is no such method
+     */
+    DispatchCache(BiFunction<JClass, Subsignature, JMethod> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * @return the method of given subsignature for given class, or
+     * {@code null} if there is no such method.
+     */
+    @Nullable
+    JMethod get(JClass jclass, Subsignature subsignature) {
+        ConcurrentMap<Subsignature, Object> methods = cache.get(jclass);
+        if (methods == null) {
+            methods = cache.computeIfAbsent(jclass, c -> Maps.newConcurrentMap());
+        }
+        Object result = methods.get(subsignature);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            JMethod method = lookup.apply(jclass, subsignature);
+            result = method != null ? method : ABSENT;
+            if (methods.putIfAbsent(subsignature, result) == null
+                    && method == null) {
+                absences.increment();
+            }
+        }
+        return result != ABSENT ? (JMethod) result : null;
+    }
+
+    /**
+     * @return the number of lookups answered by this cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups performed on the class hierarchy.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of cached pairs for which no method was found.
+     */
+    public long getAbsences() {
+        return absences.sum();
+    }
+
+    @Override
+    public String toString() {
+        long hits = getHits(), misses = getMisses(), total = hits + misses;
+        return String.format(Locale.ROOT,
+                "DispatchCache{%d hits, %d misses (hit rate %.2f%%)," +
+                        " %d classes, %d absent methods}",
+                hits, misses, total == 0 ? 0.0 : 100.0 * hits / total,
+                cache.size(), getAbsences());
+    }
+}
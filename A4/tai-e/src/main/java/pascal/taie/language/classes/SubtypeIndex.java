@@ -0,0 +1,210 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the transitive subtypes of the classes in a class hierarchy.
+ * <p>
+ * The classes (excluding interfaces) form a tree by their superclasses,
+ * which is numbered by a depth-first traversal, so that the subclasses
+ * of each class are the classes numbered from the class to the last
+ * class of its subtree, i.e., an interval. The interfaces are numbered
+ * after the classes of the subtree of {@code java.lang.Object} (if any),
+ * so that they also fall into its interval. The subtypes of each
+ * interface, i.e., its subinterfaces, and the implementors of them
+ * with their subclasses, are precomputed as bit vectors indexed by
+ * the numbers.
+ * <p>
+ * Thus, both {@link #isSubtype} and {@link #getSubtypesOf} take
+ * constant time. The index is built once for the classes in the
+ * hierarchy, and is not updated when new classes are added.
+ */
+final class SubtypeIndex {
+
+    private final Map<JClass, Integer> numbers;
+
+    /**
+     * Classes indexed by their numbers.
+     */
+    private final JClass[] classes;
+
+    /**
+     * For each class, the number of the last class of its subtree.
+     */
+    private final int[] lasts;
+
+    /**
+     * For each interface, its subtypes (including itself), or null
+     * for the classes.
+     */
+    private final BitSet[] subtypes;
+
+    /**
+     * For each interface, the list of its subtypes, which is ordered by
+     * numbers and starts with the interface.
+     */
+    private final List<JClass>[] subtypeLists;
+
+    /**
+     * @param allClasses all classes in the hierarchy
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SubtypeIndex(Collection<JClass> allClasses, ClassHierarchy hierarchy) {
+        int size = allClasses.size();
+        numbers = Maps.newMap(size);
+        classes = new JClass[size];
+        lasts = new int[size];
+        subtypes = new BitSet[size];
+        subtypeLists = new List[size];
+        Set<JClass> members = Sets.newSet(size);
+        members.addAll(allClasses);
+        int next = 0;
+        for (JClass jclass : allClasses) {
+            if (!jclass.isInterface() && !members.contains(jclass.getSuperClass())) {
+                next = numberSubtree(jclass, next, hierarchy);
+                if (jclass.getName().equals(ClassNames.OBJECT)) {
+                    next = numberInterfaces(allClasses, next);
+                    lasts[numbers.get(jclass)] = next - 1;
+                }
+            }
+        }
+        // interfaces of the hierarchies without java.lang.Object
+        next = numberInterfaces(allClasses, next);
+        for (JClass jclass : allClasses) {
+            if (jclass.isInterface()) {
+                computeSubtypes(jclass, hierarchy);
+            }
+        }
+    }
+
+    /**
+     * @return true if {@code subtype} is {@code type} or a subtype of it.
+     */
+    boolean isSubtype(JClass type, JClass subtype) {
+        Integer n = numbers.get(type), m = numbers.get(subtype);
+        if (n == null || m == null) {
+            return type == subtype;
+        }
+        return subtypes[n] != null ? subtypes[n].get(m) : n <= m && m <= lasts[n];
+    }
+
+    /**
+     * @return all subtypes of given class, which start with the class itself.
+     */
+    List<JClass> getSubtypesOf(JClass jclass) {
+        Integer n = numbers.get(jclass);
+        if (n == null) {
+            return List.of(jclass);
+        }
+        if (subtypeLists[n] != null) {
+            return subtypeLists[n];
+        }
+        return Collections.unmodifiableList(
+                Arrays.asList(classes).subList(n, lasts[n] + 1));
+    }
+
+    private int numberSubtree(JClass root, int next, ClassHierarchy hierarchy) {
+        Deque<Iterator<JClass>> stack = new ArrayDeque<>();
+        Deque<JClass> path = new ArrayDeque<>();
+        next = assign(root, next);
+        path.push(root);
+        stack.push(hierarchy.getDirectSubclassesOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<JClass> it = stack.peek();
+            if (it.hasNext()) {
+                JClass subclass = it.next();
+                if (!numbers.containsKey(subclass)) {
+                    next = assign(subclass, next);
+                    path.push(subclass);
+                    stack.push(hierarchy.getDirectSubclassesOf(subclass).iterator());
+                }
+            } else {
+                stack.pop();
+                lasts[numbers.get(path.pop())] = next - 1;
+            }
+        }
+        return next;
+    }
+
+    private int numberInterfaces(Iterable<JClass> allClasses, int next) {
+        for (JClass jclass : allClasses) {
+            if (jclass.isInterface() && !numbers.containsKey(jclass)) {
+                next = assign(jclass, next);
+                lasts[next - 1] = next - 1;
+            }
+        }
+        return next;
+    }
+
+    private int assign(JClass jclass, int number) {
+        numbers.put(jclass, number);
+        classes[number] = jclass;
+        return number + 1;
+    }
+
+    private BitSet computeSubtypes(JClass iface, ClassHierarchy hierarchy) {
+        int n = numbers.get(iface);
+        if (subtypes[n] == null) {
+            BitSet result = new BitSet(classes.length);
+            // assigned before the recursion to terminate on cyclic
+            // interfaces, which are not valid in Java
+            subtypes[n] = result;
+            result.set(n);
+            for (JClass subinterface : hierarchy.getDirectSubinterfacesOf(iface)) {
+                if (numbers.containsKey(subinterface)) {
+                    result.or(computeSubtypes(subinterface, hierarchy));
+                }
+            }
+            for (JClass implementor : hierarchy.getDirectImplementorsOf(iface)) {
+                Integer m = numbers.get(implementor);
+                if (m != null) {
+                    result.set(m, lasts[m] + 1);
+                }
+            }
+            JClass[] list = new JClass[result.cardinality()];
+            int i = 0;
+            list[i++] = iface;
+            for (int b = result.nextSetBit(0); b >= 0; b = result.nextSetBit(b + 1)) {
+                if (b != n) {
+                    list[i++] = classes[b];
+                }
+            }
+            subtypeLists[n] = Collections.unmodifiableList(Arrays.asList(list));
+        }
+        return subtypes[n];
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class AbstractCallGraphTest {
+
+    /**
+     * @return successors of given method computed from its call sites,
+     * which is how they were computed before the adjacency is maintained.
+     */
+    private static Set<String> computeSuccsOf(CallGraph<String, String> callGraph,
+                                              String method) {
+        return callGraph.callSitesIn(method)
+                .flatMap(cs -> callGraph.getCalleesOf(cs).stream())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static Set<String> computePredsOf(CallGraph<String, String> callGraph,
+                                              String method) {
+        return callGraph.getCallersOf(method)
+                .stream()
+                .map(callGraph::getContainerOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Test
+    public void testAdjacency() {
+        StringCallGraph callGraph = StringCallGraph.generate(1000, 2);
+        for (String method : callGraph) {
+            Set<String> succs = computeSuccsOf(callGraph, method);
+            Assert.assertEquals(succs, callGraph.getSuccsOf(method));
+            Assert.assertEquals(succs, callGraph.getCalleesOfM(method));
+            Assert.assertEquals(computePredsOf(callGraph, method),
+                    callGraph.getPredsOf(method));
+            for (String target : callGraph) {
+                Assert.assertEquals(succs.contains(target),
+                        callGraph.hasEdge(method, target));
+            }
+        }
+        Assert.assertTrue(callGraph.getSuccsOf("m1000").isEmpty());
+        Assert.assertFalse(callGraph.hasEdge("m1000", "m0"));
+    }
+
+    @Test
+    public void testHighFanOut() {
+        // hub calls every method at its own call site,
+        // and every method calls hub back
+        int numMethods = 20_000;
+        StringCallGraph callGraph = new StringCallGraph();
+        callGraph.addMethod("hub", numMethods);
+        for (int i = 0; i < numMethods; ++i) {
+            callGraph.addMethod("m" + i, 1);
+        }
+        for (int i = 0; i < numMethods; ++i) {
+            callGraph.addEdge(new Edge<>(CallKind.VIRTUAL, "hub/" + i, "m" + i));
+            callGraph.addEdge(new Edge<>(CallKind.STATIC, "m" + i + "/0", "hub"));
+        }
+        for (int i = 0; i < numMethods; ++i) {
+            Assert.assertTrue(callGraph.hasEdge("hub", "m" + i));
+            Assert.assertTrue(callGraph.hasEdge("m" + i, "hub"));
+        }
+        Assert.assertFalse(callGraph.hasEdge("m0", "m1"));
+        Assert.assertEquals(numMethods, callGraph.getSuccsOf("hub").size());
+        Assert.assertEquals(numMethods, callGraph.getPredsOf("hub").size());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CHABuilderTest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    @Test
+    public void testParallelMatchesSequential() {
+        for (String main : List.of("StaticCall", "VirtualCall",
+                "Interface", "AbstractMethod")) {
+            Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", main);
+            CallGraph<Invoke, JMethod> sequential = new CHABuilder().build();
+            CallGraph<Invoke, JMethod> parallel = new CHABuilder(true).build();
+            Assert.assertEquals(main,
+                    sequential.reachableMethods().collect(Collectors.toSet()),
+                    parallel.reachableMethods().collect(Collectors.toSet()));
+            Assert.assertEquals(main,
+                    sequential.edges().collect(Collectors.toSet()),
+                    parallel.edges().collect(Collectors.toSet()));
+            // the concurrent edge sets must not hold duplicates either
+            Assert.assertEquals(main, sequential.getNumberOfEdges(),
+                    parallel.getNumberOfEdges());
+        }
+    }
+}
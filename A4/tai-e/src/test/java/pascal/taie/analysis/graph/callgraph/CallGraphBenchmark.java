@@ -0,0 +1,161 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.Main;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Compares the call graph builders on a program, in terms of the size
+ * of the resulting call graphs and the time to build them.
+ * <p>
+ * The world of the program is built once, and then each builder is
+ * warmed up and run repeatedly on it, and the average build time is
+ * reported together with the numbers of reachable methods and edges.
+ * The heap retained by the call graph is also measured before and after
+ * it is frozen into {@link CompactCallGraph}, by the used heap after
+ * garbage collections, which is only a rough measurement.
+ * Note that the builders share the dispatch cache of the class hierarchy,
+ * which is warm after the first build, so the reported times mainly
+ * reflect the traversals of the builders themselves.
+ */
+public final class CallGraphBenchmark {
+
+    /**
+     * Result of a builder.
+     *
+     * @param millis   average time (in milliseconds) to build the call graph
+     * @param heapKB   heap retained by the built call graph
+     * @param frozenKB heap retained by the frozen call graph
+     */
+    public record Result(String algorithm, int methods, int edges, double millis,
+                         long heapKB, long frozenKB) {
+
+        static String csvHeader() {
+            return "algorithm,methods,edges,ms,heap-KB,frozen-KB";
+        }
+
+        String toCSV() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%.2f,%d,%d", algorithm, methods,
+                    edges, millis, heapKB, frozenKB);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %8d methods %9d edges %10.2f ms" +
+                            " %9d KB %9d KB frozen",
+                    algorithm, methods, edges, millis, heapKB, frozenKB);
+        }
+    }
+
+    private record Builder(String algorithm,
+                           Supplier<CGBuilder<Invoke, JMethod>> factory) {
+    }
+
+    private static final List<Builder> BUILDERS = List.of(
+            new Builder("cha", CHABuilder::new),
+            new Builder("cha-parallel", () -> new CHABuilder(true)),
+            new Builder("rta", RTABuilder::new));
+
+    private final int warmupIterations;
+
+    private final int iterations;
+
+    CallGraphBenchmark(int warmupIterations, int iterations) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Runs all builders on the program in current world.
+     */
+    List<Result> run() {
+        List<Result> results = new ArrayList<>();
+        for (Builder builder : BUILDERS) {
+            CallGraph<Invoke, JMethod> callGraph = null;
+            for (int i = 0; i < warmupIterations; ++i) {
+                callGraph = builder.factory().get().build();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                callGraph = builder.factory().get().build();
+            }
+            long elapsed = System.nanoTime() - start;
+            int methods = callGraph.getNumberOfMethods();
+            int edges = callGraph.getNumberOfEdges();
+            callGraph = null;
+            long base = usedHeap();
+            callGraph = builder.factory().get().build();
+            long heap = usedHeap() - base;
+            callGraph = CompactCallGraph.freeze(callGraph);
+            long frozen = usedHeap() - base;
+            results.add(new Result(builder.algorithm(), methods, edges,
+                    elapsed / 1e6 / iterations, heap / 1024, frozen / 1024));
+        }
+        return results;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args class path and main class of the program to be analyzed,
+     *             optional path of the CSV file of the results,
+     *             optional number of warm-up builds (default 3), and
+     *             optional number of measured builds (default 10)
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        if (args.length < 2) {
+            System.err.println("Usage: CallGraphBenchmark <class-path> <main-class>" +
+                    " [csv-file] [warmups] [iterations]");
+            return;
+        }
+        int warmups = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        int iterations = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        Main.buildWorld("-pp", "-cp", args[0], "-m", args[1]);
+        List<Result> results = new CallGraphBenchmark(
+                warmups, Math.max(iterations, 1)).run();
+        results.forEach(System.out::println);
+        if (args.length > 2) {
+            try (PrintStream out = new PrintStream(args[2])) {
+                out.println(Result.csvHeader());
+                results.forEach(r -> out.println(r.toCSV()));
+            }
+        }
+    }
+}
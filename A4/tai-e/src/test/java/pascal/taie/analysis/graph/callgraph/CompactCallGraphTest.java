@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.util.AnalysisException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class CompactCallGraphTest {
+
+    @Test
+    public void testFreeze() {
+        StringCallGraph callGraph = StringCallGraph.generate(500, 1);
+        CompactCallGraph<String, String> compact = CompactCallGraph.freeze(callGraph);
+        Assert.assertSame(compact, CompactCallGraph.freeze(compact));
+        Assert.assertEquals(callGraph.getNumberOfMethods(), compact.getNumberOfMethods());
+        Assert.assertEquals(callGraph.getNumberOfEdges(), compact.getNumberOfEdges());
+        Assert.assertEquals(Set.of("m0"), compact.entryMethods().collect(Collectors.toSet()));
+        Assert.assertEquals(callGraph.getNodes(), compact.getNodes());
+        Assert.assertEquals(callGraph.edges().collect(Collectors.toSet()),
+                compact.edges().collect(Collectors.toSet()));
+        for (String method : callGraph) {
+            Assert.assertTrue(compact.contains(method));
+            // call sites keep their order
+            Assert.assertEquals(List.copyOf(callGraph.getCallSitesIn(method)),
+                    List.copyOf(compact.getCallSitesIn(method)));
+            // the sets returned by AbstractCallGraph are views without equals()
+            Assert.assertEquals(Set.copyOf(callGraph.getCallersOf(method)),
+                    compact.getCallersOf(method));
+            Assert.assertEquals(callGraph.getCalleesOfM(method), compact.getCalleesOfM(method));
+            Assert.assertEquals(callGraph.getPredsOf(method), compact.getPredsOf(method));
+            Assert.assertEquals(callGraph.getSuccsOf(method), compact.getSuccsOf(method));
+            Assert.assertEquals(callGraph.getInEdgesOf(method), compact.getInEdgesOf(method));
+            Assert.assertEquals(callGraph.getOutEdgesOf(method), compact.getOutEdgesOf(method));
+            Assert.assertEquals(callGraph.edgesInTo(method).collect(Collectors.toSet()),
+                    compact.edgesInTo(method).collect(Collectors.toSet()));
+            for (String callSite : callGraph.getCallSitesIn(method)) {
+                Assert.assertEquals(method, compact.getContainerOf(callSite));
+                Assert.assertEquals(Set.copyOf(callGraph.getCalleesOf(callSite)),
+                        compact.getCalleesOf(callSite));
+                Assert.assertEquals(callGraph.edgesOutOf(callSite).collect(Collectors.toSet()),
+                        compact.edgesOutOf(callSite).collect(Collectors.toSet()));
+                for (String callee : callGraph.getCalleesOf(callSite)) {
+                    Assert.assertTrue(compact.hasEdge(method, callee));
+                }
+            }
+        }
+        Assert.assertFalse(compact.contains("m500"));
+        Assert.assertNull(compact.getContainerOf("m500/0"));
+        Assert.assertTrue(compact.getCalleesOf("m500/0").isEmpty());
+        Assert.assertTrue(compact.getCallersOf("m500").isEmpty());
+    }
+
+    @Test
+    public void testUnreachableCallee() {
+        StringCallGraph callGraph = new StringCallGraph();
+        callGraph.addMethod("m0", 1);
+        callGraph.addEdge(new Edge<>(CallKind.STATIC, "m0/0", "m1"));
+        Assert.assertThrows(AnalysisException.class,
+                () -> CompactCallGraph.freeze(callGraph));
+    }
+}
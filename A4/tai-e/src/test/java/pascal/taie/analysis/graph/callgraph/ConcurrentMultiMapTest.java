@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class ConcurrentMultiMapTest {
+
+    @Test
+    public void testConcurrentPuts() {
+        MultiMap<Integer, Integer> expected = Maps.newMultiMap();
+        MultiMap<Integer, Integer> actual = new ConcurrentMultiMap<>();
+        IntStream.range(0, 100_000).forEach(i -> expected.put(i % 100, i % 1000));
+        IntStream.range(0, 100_000).parallel().forEach(i -> actual.put(i % 100, i % 1000));
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        expected.forEachSet((k, vs) -> Assert.assertEquals(vs, actual.get(k)));
+        Assert.assertEquals(expected.size(), actual.entrySet().size());
+    }
+
+    @Test
+    public void testPutAllKeepsOrder() {
+        MultiMap<Integer, Integer> map = new ConcurrentMultiMap<>(Sets::newHybridOrderedSet);
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            List<Integer> values = IntStream.range(0, 20)
+                    .mapToObj(j -> (i * 7 + j * 13) % 50)
+                    .distinct()
+                    .toList();
+            Assert.assertTrue(map.putAll(i, values));
+            Assert.assertEquals(values, List.copyOf(map.get(i)));
+        });
+        Assert.assertEquals(1000 * 20, map.size());
+        Assert.assertFalse(map.putAll(0, List.of(0)));
+        Assert.assertTrue(map.removeAll(0));
+        Assert.assertEquals(999 * 20, map.size());
+    }
+}
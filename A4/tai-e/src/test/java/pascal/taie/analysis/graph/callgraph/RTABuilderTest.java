@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class RTABuilderTest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    private static void buildWorld(String main) {
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", main);
+    }
+
+    /**
+     * @return the callees of the only call site of given method name
+     * in the main method.
+     */
+    private static Set<String> getCalleesOf(
+            CallGraph<Invoke, JMethod> callGraph, String methodName) {
+        Invoke callSite = callGraph.callSitesIn(World.get().getMainMethod())
+                .filter(invoke -> invoke.getMethodRef().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return callGraph.getCalleesOf(callSite)
+                .stream()
+                .map(m -> m.getDeclaringClass().getName())
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testVirtualCall() {
+        buildWorld("VirtualCall");
+        // only B is instantiated, which inherits foo() from A
+        Assert.assertEquals(Set.of("A"),
+                getCalleesOf(new RTABuilder().build(), "foo"));
+        Assert.assertEquals(Set.of("A", "C", "D"),
+                getCalleesOf(new CHABuilder().build(), "foo"));
+    }
+
+    @Test
+    public void testInterface() {
+        buildWorld("Interface");
+        Assert.assertEquals(Set.of("One"),
+                getCalleesOf(new RTABuilder().build(), "get"));
+        Assert.assertEquals(Set.of("Zero", "One", "Two"),
+                getCalleesOf(new CHABuilder().build(), "get"));
+    }
+
+    @Test
+    public void testSubsumedByCHA() {
+        for (String main : List.of("StaticCall", "VirtualCall",
+                "Interface", "AbstractMethod")) {
+            buildWorld(main);
+            CallGraph<Invoke, JMethod> rta = new RTABuilder().build();
+            CallGraph<Invoke, JMethod> cha = new CHABuilder().build();
+            Assert.assertTrue(main, cha.reachableMethods()
+                    .collect(Collectors.toSet())
+                    .containsAll(rta.reachableMethods().toList()));
+            Assert.assertTrue(main, cha.edges()
+                    .collect(Collectors.toSet())
+                    .containsAll(rta.edges().toList()));
+        }
+    }
+}
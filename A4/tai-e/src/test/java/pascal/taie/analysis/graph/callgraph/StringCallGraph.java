@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Call graph whose methods are "m{i}" and call sites are "m{i}/{j}",
+ * for testing call graph implementations without building the world.
+ */
+class StringCallGraph extends AbstractCallGraph<String, String> {
+
+    void addMethod(String method, int numCallSites) {
+        reachableMethods.add(method);
+        List<String> callSites = IntStream.range(0, numCallSites)
+                .mapToObj(j -> method + "/" + j)
+                .toList();
+        callSites.forEach(cs -> callSiteToContainer.put(cs, method));
+        callSitesIn.putAll(method, callSites);
+    }
+
+    void addEdge(Edge<String, String> edge) {
+        if (callSiteToEdges.put(edge.getCallSite(), edge)) {
+            calleeToEdges.put(edge.getCallee(), edge);
+            addMethodEdge(getContainerOf(edge.getCallSite()), edge.getCallee());
+        }
+    }
+
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return false;
+    }
+
+    @Override
+    public Set<String> getResult(Stmt stmt) {
+        return Set.of();
+    }
+
+    /**
+     * Generates a random call graph, where each method has at most 4 call
+     * sites, and each call site has at most 3 callees.
+     */
+    static StringCallGraph generate(int numMethods, long seed) {
+        Random random = new Random(seed);
+        StringCallGraph callGraph = new StringCallGraph();
+        for (int i = 0; i < numMethods; ++i) {
+            callGraph.addMethod("m" + i, random.nextInt(5));
+        }
+        callGraph.entryMethods.add("m0");
+        for (int i = 0; i < numMethods; ++i) {
+            for (String callSite : callGraph.getCallSitesIn("m" + i)) {
+                int numCallees = random.nextInt(4);
+                CallKind kind = CallKind.values()[random.nextInt(4)];
+                for (int j = 0; j < numCallees; ++j) {
+                    callGraph.addEdge(new Edge<>(kind, callSite,
+                            "m" + random.nextInt(numMethods)));
+                }
+            }
+        }
+        return callGraph;
+    }
+}
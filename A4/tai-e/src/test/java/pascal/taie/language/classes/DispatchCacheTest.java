@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class DispatchCacheTest {
+
+    private static final Subsignature M = Subsignature.get("void m()");
+
+    private static final Subsignature N = Subsignature.get("void n()");
+
+    @Test
+    public void testDispatch() {
+        SyntheticHierarchy h = new SyntheticHierarchy();
+        JClass i = h.newInterface("I", List.of(), "n");
+        JClass a = h.newAbstractClass("A", null, List.of(i), "abstract m");
+        JClass b = h.newClass("B", a, List.of(), "m");
+        JClass c = h.newClass("C", b, List.of());
+        JClass d = h.newClass("D", a, List.of(), "n");
+        ClassHierarchy hierarchy = h.getHierarchy();
+        Assert.assertNull(hierarchy.dispatch(a, M));
+        Assert.assertEquals(b.getDeclaredMethod(M), hierarchy.dispatch(b, M));
+        Assert.assertEquals(b.getDeclaredMethod(M), hierarchy.dispatch(c, M));
+        Assert.assertNull(hierarchy.dispatch(d, M));
+        // the default method of I, unless it is overridden
+        Assert.assertEquals(i.getDeclaredMethod(N), hierarchy.dispatch(c, N));
+        Assert.assertEquals(d.getDeclaredMethod(N), hierarchy.dispatch(d, N));
+
+        DispatchCache cache = ((ClassHierarchyImpl) hierarchy).getDispatchCache();
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(6, cache.getMisses());
+        Assert.assertEquals(2, cache.getAbsences());
+        for (JClass jclass : List.of(a, b, c, d)) {
+            hierarchy.dispatch(jclass, M);
+        }
+        Assert.assertEquals(4, cache.getHits());
+        Assert.assertEquals(6, cache.getMisses());
+    }
+
+    @Test
+    public void testConcurrentLookups() {
+        AtomicInteger lookups = new AtomicInteger();
+        DispatchCache cache = new DispatchCache((jclass, subsignature) -> {
+            lookups.incrementAndGet();
+            return null;
+        });
+        List<JClass> classes = IntStream.range(0, 100)
+                .mapToObj(i -> new JClass(null, "C" + i))
+                .toList();
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            Assert.assertNull(cache.get(classes.get(i % classes.size()),
+                    i / classes.size() % 2 == 0 ? M : N));
+        });
+        Assert.assertEquals(100_000, cache.getHits() + cache.getMisses());
+        Assert.assertEquals(lookups.get(), cache.getMisses());
+        // each pair is cached once, though racing misses may look it up again
+        Assert.assertEquals(200, cache.getAbsences());
+        Assert.assertTrue(cache.getMisses() >= 200);
+        Assert.assertTrue(cache.toString().contains("100 classes"));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class SubtypeIndexTest {
+
+    /**
+     * Generates a random hierarchy rooted at java.lang.Object, where each
+     * class extends a random class and implements random interfaces.
+     */
+    private static List<JClass> generate(SyntheticHierarchy h, int size, long seed) {
+        Random random = new Random(seed);
+        List<JClass> classes = new ArrayList<>();
+        List<JClass> interfaces = new ArrayList<>();
+        List<JClass> all = new ArrayList<>();
+        JClass object = h.newClass(ClassNames.OBJECT, null, List.of());
+        classes.add(object);
+        all.add(object);
+        for (int i = 0; i < size; ++i) {
+            List<JClass> supers = new ArrayList<>();
+            for (int j = random.nextInt(3); j > 0 && !interfaces.isEmpty(); --j) {
+                supers.add(interfaces.get(random.nextInt(interfaces.size())));
+            }
+            JClass jclass;
+            if (random.nextInt(4) == 0) {
+                jclass = h.newInterface("I" + i, supers);
+                interfaces.add(jclass);
+            } else {
+                jclass = h.newClass("C" + i,
+                        classes.get(random.nextInt(classes.size())), supers);
+                classes.add(jclass);
+            }
+            all.add(jclass);
+        }
+        // a class whose superclass is not in the hierarchy
+        JClass phantom = new JClass(null, "Phantom");
+        all.add(h.newClass("P", phantom, List.of()));
+        return all;
+    }
+
+    private static Set<JClass> traverse(ClassHierarchy hierarchy, JClass jclass) {
+        if (jclass.getName().equals(ClassNames.OBJECT)) {
+            // every class and interface except the ones of other roots
+            Set<JClass> result = Sets.newSet();
+            hierarchy.getDirectSubclassesOf(jclass).forEach(c ->
+                    result.addAll(traverse(hierarchy, c)));
+            result.add(jclass);
+            return result;
+        }
+        Set<JClass> visited = Sets.newSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        visited.add(jclass);
+        queue.add(jclass);
+        while (!queue.isEmpty()) {
+            JClass c = queue.poll();
+            Stream.of(hierarchy.getDirectSubclassesOf(c),
+                            hierarchy.getDirectSubinterfacesOf(c),
+                            hierarchy.getDirectImplementorsOf(c))
+                    .flatMap(Collection::stream)
+                    .filter(visited::add)
+                    .forEach(queue::add);
+        }
+        return visited;
+    }
+
+    @Test
+    public void testAgainstTraversal() {
+        for (long seed = 0; seed < 5; ++seed) {
+            SyntheticHierarchy h = new SyntheticHierarchy();
+            List<JClass> all = generate(h, 300, seed);
+            ClassHierarchy hierarchy = h.getHierarchy();
+            for (JClass jclass : all) {
+                Set<JClass> expected = jclass.getName().equals(ClassNames.OBJECT) ?
+                        Sets.newSet() : traverse(hierarchy, jclass);
+                if (jclass.getName().equals(ClassNames.OBJECT)) {
+                    all.stream()
+                            .filter(c -> !c.getName().equals("P"))
+                            .forEach(expected::add);
+                }
+                List<JClass> subclasses = List.copyOf(
+                        hierarchy.getAllSubclassesOf(jclass, true));
+                Assert.assertEquals(jclass, subclasses.get(0));
+                Assert.assertEquals(expected.size(), subclasses.size());
+                Assert.assertEquals(expected, Set.copyOf(subclasses));
+                Assert.assertEquals(subclasses.subList(1, subclasses.size()),
+                        List.copyOf(hierarchy.getAllSubclassesOf(jclass, false)));
+                for (JClass c : all) {
+                    Assert.assertEquals(jclass + " :> " + c,
+                            expected.contains(c), hierarchy.isSubclass(jclass, c));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeHierarchy() {
+        SyntheticHierarchy h = new SyntheticHierarchy();
+        List<JClass> all = generate(h, 20_000, 0);
+        ClassHierarchy hierarchy = h.getHierarchy();
+        List<JClass> queried = all.subList(1, all.size()); // except Object
+        long expected = 0;
+        for (JClass jclass : queried) {
+            expected += traverse(hierarchy, jclass).size();
+        }
+        long given = 0;
+        for (JClass jclass : queried) {
+            given += hierarchy.getAllSubclassesOf(jclass, true).size();
+        }
+        Assert.assertEquals(expected, given);
+    }
+
+    @Test
+    public void testAddClassRebuildsIndex() {
+        SyntheticHierarchy h = new SyntheticHierarchy();
+        JClass a = h.newClass("A", null, List.of());
+        JClass i = h.newInterface("I", List.of());
+        Assert.assertEquals(List.of(a), List.copyOf(
+                h.getHierarchy().getAllSubclassesOf(a, true)));
+        JClass b = h.newClass("B", a, List.of(i));
+        Assert.assertTrue(h.getHierarchy().isSubclass(a, b));
+        Assert.assertTrue(h.getHierarchy().isSubclass(i, b));
+        Assert.assertFalse(h.getHierarchy().isSubclass(b, a));
+    }
+}
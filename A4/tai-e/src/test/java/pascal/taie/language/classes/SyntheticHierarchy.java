@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.VoidType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds class hierarchies of classes which only declare methods of
+ * subsignature {@code void name()}, which are used to test the queries
+ * on class hierarchies without loading classes.
+ */
+public final class SyntheticHierarchy {
+
+    private final ClassHierarchy hierarchy = new ClassHierarchyImpl();
+
+    public ClassHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Creates a class and adds it to the hierarchy.
+     *
+     * @param methods names of the declared methods, where the names
+     *                starting with {@code "abstract "} denote abstract
+     *                methods
+     */
+    public JClass newClass(String name, @Nullable JClass superClass,
+                           List<JClass> interfaces, String... methods) {
+        return add(name, Set.of(), superClass, interfaces, methods);
+    }
+
+    public JClass newAbstractClass(String name, @Nullable JClass superClass,
+                                   List<JClass> interfaces, String... methods) {
+        return add(name, Set.of(Modifier.ABSTRACT), superClass, interfaces, methods);
+    }
+
+    /**
+     * Creates an interface and adds it to the hierarchy. Its non-abstract
+     * methods are default methods.
+     */
+    public JClass newInterface(String name, List<JClass> superInterfaces,
+                               String... methods) {
+        return add(name, Set.of(Modifier.INTERFACE, Modifier.ABSTRACT),
+                null, superInterfaces, methods);
+    }
+
+    private JClass add(String name, Set<Modifier> modifiers,
+                       @Nullable JClass superClass, List<JClass> interfaces,
+                       String... methods) {
+        JClass jclass = new JClass(null, name);
+        List<JMethod> declaredMethods = new ArrayList<>();
+        for (String method : methods) {
+            boolean isAbstract = method.startsWith("abstract ");
+            declaredMethods.add(new JMethod(jclass,
+                    isAbstract ? method.substring("abstract ".length()) : method,
+                    isAbstract ? Set.of(Modifier.ABSTRACT) : Set.of(),
+                    List.of(), VoidType.VOID, List.of(),
+                    AnnotationHolder.emptyHolder(), null, null));
+        }
+        jclass.build(new Builder(name, modifiers, superClass, interfaces,
+                declaredMethods));
+        hierarchy.addClass(jclass);
+        return jclass;
+    }
+
+    private record Builder(String name, Set<Modifier> modifiers,
+                           JClass superClass, List<JClass> interfaces,
+                           List<JMethod> methods) implements JClassBuilder {
+
+        @Override
+        public void build(JClass jclass) {
+        }
+
+        @Override
+        public Set<Modifier> getModifiers() {
+            return modifiers;
+        }
+
+        @Override
+        public String getSimpleName() {
+            return name;
+        }
+
+        @Override
+        public ClassType getClassType() {
+            return new ClassType(null, name);
+        }
+
+        @Override
+        public JClass getSuperClass() {
+            return superClass;
+        }
+
+        @Override
+        public Collection<JClass> getInterfaces() {
+            return interfaces;
+        }
+
+        @Override
+        public JClass getOuterClass() {
+            return null;
+        }
+
+        @Override
+        public Collection<JField> getDeclaredFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<JMethod> getDeclaredMethods() {
+            return methods;
+        }
+
+        @Override
+        public AnnotationHolder getAnnotationHolder() {
+            return AnnotationHolder.emptyHolder();
+        }
+
+        @Override
+        public boolean isApplication() {
+            return true;
+        }
+    }
+}
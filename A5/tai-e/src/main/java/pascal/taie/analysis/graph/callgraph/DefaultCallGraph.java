@@ -71,6 +71,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
     public boolean addEdge(Edge<Invoke, JMethod> edge) {
         if (callSiteToEdges.put(edge.getCallSite(), edge)) {
             calleeToEdges.put(edge.getCallee(), edge);
+            addMethodEdge(getContainerOf(edge.getCallSite()), edge.getCallee());
             return true;
         } else {
             return false;
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.CompactCallGraph;
 import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
@@ -43,9 +44,9 @@ import pascal.taie.ir.stmt.StmtVisitor;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.DispatchCache;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
-import pascal.taie.language.type.Type;
 
 import java.util.List;
 
@@ -55,6 +56,12 @@ class Solver {
 
     private final HeapModel heapModel;
 
+    /**
+     * Whether to freeze the call graph into compact representation
+     * after the analysis finishes.
+     */
+    private final boolean freeze;
+
     private DefaultCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
@@ -65,8 +72,11 @@ class Solver {
 
     private ClassHierarchy hierarchy;
 
-    Solver(HeapModel heapModel) {
+    private DispatchCache dispatchCache;
+
+    Solver(HeapModel heapModel, boolean freeze) {
         this.heapModel = heapModel;
+        this.freeze = freeze;
     }
 
     /**
@@ -75,6 +85,7 @@ class Solver {
     void solve() {
         initialize();
         analyze();
+        logger.info("{}", dispatchCache);
     }
 
     /**
@@ -86,6 +97,7 @@ class Solver {
         callGraph = new DefaultCallGraph();
         stmtProcessor = new StmtProcessor();
         hierarchy = World.get().getClassHierarchy();
+        dispatchCache = new DispatchCache(hierarchy);
         // initialize main method
         JMethod main = World.get().getMainMethod();
         callGraph.addEntryMethod(main);
@@ -142,6 +154,7 @@ class Solver {
 
     /**
      * Resolves the callee of a call site with the receiver object.
+     * Virtual and interface calls are dispatched through {@link #dispatchCache}.
      *
      * @param recv     the receiver object of the method call. If the callSite
      *                 is static, this parameter is ignored (i.e., can be null).
@@ -149,11 +162,20 @@ class Solver {
      * @return the resolved callee.
      */
     private JMethod resolveCallee(Obj recv, Invoke callSite) {
-        Type type = recv != null ? recv.getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        if (callSite.isVirtual() || callSite.isInterface()) {
+            return dispatchCache.get(recv.getType(), callSite.getMethodRef());
+        }
+        return CallGraphs.resolveCallee(null, callSite);
     }
 
     CIPTAResult getResult() {
+        if (freeze) {
+            CompactCallGraph<Invoke, JMethod> compact =
+                    CompactCallGraph.freeze(callGraph);
+            logger.info("Froze call graph into {} KB (estimated)",
+                    compact.getFootprint() / 1024);
+            return new CIPTAResult(pointerFlowGraph, compact);
+        }
         return new CIPTAResult(pointerFlowGraph, callGraph);
     }
 }
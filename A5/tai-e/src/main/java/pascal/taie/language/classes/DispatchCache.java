@@ -0,0 +1,193 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent cache of the virtual dispatches on the class hierarchy, which
+ * maps each class to a map from subsignatures to the dispatched methods.
+ * Failed dispatches, e.g., when only an abstract method is declared,
+ * are cached as well, so each (class, subsignature) pair is dispatched
+ * once, no matter how many call sites and receiver objects share it.
+ * <p>
+ * The dispatch is performed outside the maps, thus concurrent misses of
+ * the same pair may dispatch it more than once, but they obtain the
+ * same method, and only the first one is cached. The dispatch walks the
+ * superclasses and superinterfaces of the class by itself, in the same
+ * order as {@link ClassHierarchy#dispatch(JClass, MethodRef)}, instead of
+ * calling the latter, whose own cache is not thread-safe.
+ */
+public final class DispatchCache {
+
+    /**
+     * Marker of the pairs for which the dispatch found no method,
+     * as the concurrent maps cannot hold {@code null}.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final ClassHierarchy hierarchy;
+
+    private final ConcurrentMap<JClass, ConcurrentMap<Subsignature, Object>> cache
+            = Maps.newConcurrentMap();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder absences = new LongAdder();
+
+    public DispatchCache(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Dispatches given method reference on a receiver object of given type.
+     * Arrays only inherit the methods of java.lang.Object.
+     *
+     * @return the dispatched method, or {@code null} if there is no such method.
+     * @throws AnalysisException if the type is neither a class nor an array type
+     */
+    @Nullable
+    public JMethod get(Type type, MethodRef methodRef) {
+        JClass jclass;
+        if (type instanceof ClassType classType) {
+            jclass = classType.getJClass();
+        } else if (type instanceof ArrayType) {
+            jclass = hierarchy.getJREClass(ClassNames.OBJECT);
+        } else {
+            throw new AnalysisException(type + " cannot be dispatched");
+        }
+        return jclass == null ? null : get(jclass, methodRef);
+    }
+
+    /**
+     * Dispatches given method reference on given class.
+     *
+     * @return the dispatched method, or {@code null} if there is no such method.
+     */
+    @Nullable
+    public JMethod get(JClass jclass, MethodRef methodRef) {
+        ConcurrentMap<Subsignature, Object> methods = cache.get(jclass);
+        if (methods == null) {
+            methods = cache.computeIfAbsent(jclass, c -> Maps.newConcurrentMap());
+        }
+        Subsignature subsignature = methodRef.getSubsignature();
+        Object result = methods.get(subsignature);
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            JMethod method = dispatch(jclass, subsignature);
+            result = method != null ? method : ABSENT;
+            if (methods.putIfAbsent(subsignature, result) == null
+                    && method == null) {
+                absences.increment();
+            }
+        }
+        return result != ABSENT ? (JMethod) result : null;
+    }
+
+    /**
+     * @return the first non-abstract method of given subsignature declared
+     * by the class or its superclasses, or otherwise by their
+     * superinterfaces (i.e., a default method), or {@code null} if there
+     * is no such method.
+     */
+    @Nullable
+    private static JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsignature);
+            if (method != null && !method.isAbstract()) {
+                return method;
+            }
+        }
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            for (JClass iface : c.getInterfaces()) {
+                JMethod method = dispatchFromSuperinterfaces(iface, subsignature);
+                if (method != null) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static JMethod dispatchFromSuperinterfaces(
+            JClass iface, Subsignature subsignature) {
+        JMethod method = iface.getDeclaredMethod(subsignature);
+        if (method != null && !method.isAbstract()) {
+            return method;
+        }
+        for (JClass superinterface : iface.getInterfaces()) {
+            method = dispatchFromSuperinterfaces(superinterface, subsignature);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of dispatches answered by this cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of dispatches performed on the class hierarchy,
+     * i.e., by walking the superclasses and superinterfaces.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of cached pairs for which no method was found.
+     */
+    public long getAbsences() {
+        return absences.sum();
+    }
+
+    @Override
+    public String toString() {
+        long hits = getHits(), misses = getMisses(), total = hits + misses;
+        return String.format(Locale.ROOT,
+                "DispatchCache{%d hits, %d misses (hit rate %.2f%%)," +
+                        " %d classes, %d absent methods}",
+                hits, misses, total == 0 ? 0.0 : 100.0 * hits / total,
+                cache.size(), getAbsences());
+    }
+}
@@ -45,6 +45,12 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
 
     private final CSManager csManager;
 
+    /**
+     * Number of call edges, as the edges are stored in
+     * the call sites and methods instead of the maps of the super class.
+     */
+    private int numberOfEdges;
+
     public CSCallGraph(CSManager csManager) {
         this.csManager = csManager;
     }
@@ -80,8 +86,15 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
      * otherwise false.
      */
     public boolean addEdge(Edge<CSCallSite, CSMethod> edge) {
-        if (edge.getCallSite().addEdge(edge)) {
+        CSCallSite csCallSite = edge.getCallSite();
+        if (csCallSite.addEdge(edge)) {
             edge.getCallee().addEdge(edge);
+            ++numberOfEdges;
+            // the caller is obtained from the context and method of the
+            // call site, as its container is set only when it is reachable
+            Invoke callSite = csCallSite.getCallSite();
+            addMethodEdge(csManager.getCSMethod(csCallSite.getContext(),
+                    callSite.getContainer()), edge.getCallee());
             return true;
         } else {
             return false;
@@ -134,6 +147,11 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
                 .flatMap(this::edgesOutOf);
     }
 
+    @Override
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
     @Override
     public boolean isRelevant(Stmt stmt) {
         throw new UnsupportedOperationException();
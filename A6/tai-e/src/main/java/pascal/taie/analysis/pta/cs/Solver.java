@@ -26,7 +26,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.CompactCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
@@ -51,9 +53,9 @@ import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.*;
+import pascal.taie.language.classes.DispatchCache;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
 
 import java.lang.invoke.CallSite;
 import java.util.List;
@@ -76,6 +78,8 @@ class Solver {
 
     private WorkList workList;
 
+    private DispatchCache dispatchCache;
+
     private PointerAnalysisResult result;
 
     Solver(AnalysisOptions options, HeapModel heapModel,
@@ -88,6 +92,7 @@ class Solver {
     void solve() {
         initialize();
         analyze();
+        logger.info("{}", dispatchCache);
     }
 
     private void initialize() {
@@ -95,6 +100,7 @@ class Solver {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph();
         workList = new WorkList();
+        dispatchCache = new DispatchCache(World.get().getClassHierarchy());
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -430,6 +436,7 @@ class Solver {
 
     /**
      * Resolves the callee of a call site with the receiver object.
+     * Virtual and interface calls are dispatched through {@link #dispatchCache}.
      *
      * @param recv the receiver object of the method call. If the callSite
      *             is static, this parameter is ignored (i.e., can be null).
@@ -437,13 +444,24 @@ class Solver {
      * @return the resolved callee.
      */
     private JMethod resolveCallee(CSObj recv, Invoke callSite) {
-        Type type = recv != null ? recv.getObject().getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        if (callSite.isVirtual() || callSite.isInterface()) {
+            return dispatchCache.get(recv.getObject().getType(),
+                    callSite.getMethodRef());
+        }
+        return CallGraphs.resolveCallee(null, callSite);
     }
 
     PointerAnalysisResult getResult() {
         if (result == null) {
-            result = new PointerAnalysisResultImpl(csManager, callGraph);
+            CallGraph<CSCallSite, CSMethod> cg = callGraph;
+            if (options.getBooleanOrDefault("freeze", false)) {
+                CompactCallGraph<CSCallSite, CSMethod> compact =
+                        CompactCallGraph.freeze(callGraph);
+                logger.info("Froze call graph into {} KB (estimated)",
+                        compact.getFootprint() / 1024);
+                cg = compact;
+            }
+            result = new PointerAnalysisResultImpl(csManager, cg);
         }
         return result;
     }
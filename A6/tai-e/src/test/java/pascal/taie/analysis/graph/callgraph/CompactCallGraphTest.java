@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.cs.CSPTA;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class CompactCallGraphTest {
+
+    /**
+     * Runs context-sensitive pointer analysis on given program,
+     * and returns its result.
+     */
+    private static PointerAnalysisResult runPTA(String main, String options) {
+        Main.main(new String[]{"-pp", "-cp", "src/test/resources/pta/cspta",
+                "-m", main, "-a", CSPTA.ID + "=cs:2-obj;only-app:true;" +
+                        "implicit-entries:false" + options});
+        return World.get().getResult(CSPTA.ID);
+    }
+
+    /**
+     * @return the context-insensitive call edges in given result,
+     * which are comparable across different runs.
+     */
+    private static Set<String> getEdges(PointerAnalysisResult pta) {
+        return pta.getCallGraph()
+                .edges()
+                .map(Edge::toString)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testFreezeCSCallGraph() {
+        CallGraph<CSCallSite, CSMethod> callGraph =
+                runPTA("TwoObject", "").getCSCallGraph();
+        Assert.assertTrue(callGraph instanceof CSCallGraph);
+        CompactCallGraph<CSCallSite, CSMethod> compact = CompactCallGraph.freeze(callGraph);
+        Assert.assertEquals(callGraph.edges().count(), callGraph.getNumberOfEdges());
+        Assert.assertEquals(callGraph.getNumberOfEdges(), compact.getNumberOfEdges());
+        Assert.assertEquals(callGraph.getNumberOfMethods(), compact.getNumberOfMethods());
+        Assert.assertEquals(callGraph.entryMethods().collect(Collectors.toSet()),
+                compact.entryMethods().collect(Collectors.toSet()));
+        Assert.assertEquals(callGraph.edges().collect(Collectors.toSet()),
+                compact.edges().collect(Collectors.toSet()));
+        callGraph.reachableMethods().forEach(method -> {
+            Assert.assertTrue(compact.contains(method));
+            Assert.assertEquals(List.copyOf(callGraph.getCallSitesIn(method)),
+                    List.copyOf(compact.getCallSitesIn(method)));
+            Assert.assertEquals(method.toString(),
+                    Set.copyOf(callGraph.getCallersOf(method)),
+                    compact.getCallersOf(method));
+            Assert.assertEquals(method.toString(),
+                    Set.copyOf(callGraph.getSuccsOf(method)),
+                    compact.getSuccsOf(method));
+            Assert.assertEquals(method.toString(),
+                    Set.copyOf(callGraph.getPredsOf(method)),
+                    compact.getPredsOf(method));
+            for (CSCallSite callSite : callGraph.getCallSitesIn(method)) {
+                Assert.assertEquals(method, compact.getContainerOf(callSite));
+                Assert.assertEquals(callSite.toString(),
+                        Set.copyOf(callGraph.getCalleesOf(callSite)),
+                        compact.getCalleesOf(callSite));
+                for (CSMethod callee : callGraph.getCalleesOf(callSite)) {
+                    Assert.assertTrue(compact.hasEdge(method, callee));
+                }
+            }
+            callGraph.reachableMethods().forEach(target ->
+                    Assert.assertEquals(callGraph.hasEdge(method, target),
+                            compact.hasEdge(method, target)));
+        });
+    }
+
+    @Test
+    public void testFreezeOption() {
+        Set<String> edges = getEdges(runPTA("TwoObject", ""));
+        PointerAnalysisResult pta = runPTA("TwoObject", ";freeze:true");
+        Assert.assertTrue(pta.getCSCallGraph() instanceof CompactCallGraph);
+        Assert.assertFalse(edges.isEmpty());
+        Assert.assertEquals(edges, getEdges(pta));
+    }
+}
@@ -82,6 +82,11 @@ public class ConstantPropagation extends
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // done - finish me
+        if (target.isEmpty()) {
+            // meeting with all-UNDEF target results in fact itself
+            target.copyFrom(fact);
+            return;
+        }
         fact.forEach((v, val) -> {
             target.update(v, meetValue(val, target.get(v)));
         } );
@@ -52,6 +52,24 @@ public abstract class AbstractCallGraph<CallSite, Method>
     protected final Set<Method> entryMethods = Sets.newSet();
     protected final Set<Method> reachableMethods = Sets.newSet();
 
+    /**
+     * Method-level adjacency, i.e., callees of each caller and callers of
+     * each callee, maintained by {@link #addMethodEdge(Object, Object)}.
+     */
+    private final MultiMap<Method, Method> succs = Maps.newMultiMap();
+    private final MultiMap<Method, Method> preds = Maps.newMultiMap();
+
+    /**
+     * Records that {@code caller} calls {@code callee}. The subclasses must
+     * call this method when they add a new call edge, so that the queries
+     * on method-level edges, e.g., {@link #hasEdge(Object, Object)}
+     * and {@link #getSuccsOf(Object)}, need not traverse the call sites.
+     */
+    protected void addMethodEdge(Method caller, Method callee) {
+        succs.put(caller, callee);
+        preds.put(callee, caller);
+    }
+
     @Override
     public Set<CallSite> getCallersOf(Method callee) {
         return Views.toMappedSet(calleeToEdges.get(callee), Edge::getCallSite);
@@ -64,9 +82,7 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public Set<Method> getCalleesOfM(Method caller) {
-        return callSitesIn(caller)
-                .flatMap(cs -> getCalleesOf(cs).stream())
-                .collect(Collectors.toUnmodifiableSet());
+        return getSuccsOf(caller);
     }
 
     @Override
@@ -128,7 +144,7 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public boolean hasEdge(Method source, Method target) {
-        return getSuccsOf(source).contains(target);
+        return succs.contains(source, target);
     }
 
     @Override
@@ -150,17 +166,12 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public Set<Method> getPredsOf(Method node) {
-        return getCallersOf(node)
-                .stream()
-                .map(this::getContainerOf)
-                .collect(Collectors.toUnmodifiableSet());
+        return preds.get(node);
     }
 
     @Override
     public Set<Method> getSuccsOf(Method node) {
-        return callSitesIn(node)
-                .flatMap(cs -> getCalleesOf(cs).stream())
-                .collect(Collectors.toUnmodifiableSet());
+        return succs.get(node);
     }
 
     @Override
@@ -0,0 +1,72 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class DefaultCallGraphTest {
+
+    /**
+     * Runs context-insensitive pointer analysis on given program, and
+     * returns its call graph without contexts, which is a DefaultCallGraph.
+     */
+    private static CallGraph<Invoke, JMethod> buildCallGraph(String main) {
+        Main.main(new String[]{"-pp", "-cp", "src/test/resources/pta/taint",
+                "-m", main, "-a", CSPTA.ID + "=cs:ci;only-app:true;" +
+                        "implicit-entries:false;taint-config:" +
+                        "src/test/resources/pta/taint/taint-config.yml"});
+        PointerAnalysisResult pta = World.get().getResult(CSPTA.ID);
+        return pta.getCallGraph();
+    }
+
+    @Test
+    public void testMethodEdges() {
+        CallGraph<Invoke, JMethod> callGraph = buildCallGraph("ArgToResult");
+        Assert.assertTrue(callGraph instanceof DefaultCallGraph);
+        JMethod main = World.get().getMainMethod();
+        Assert.assertFalse(callGraph.getSuccsOf(main).isEmpty());
+        callGraph.reachableMethods().forEach(method -> {
+            Set<JMethod> callees = callGraph.callSitesIn(method)
+                    .flatMap(callSite -> callGraph.getCalleesOf(callSite).stream())
+                    .collect(Collectors.toSet());
+            Assert.assertEquals(method.toString(), callees,
+                    Set.copyOf(callGraph.getSuccsOf(method)));
+            Set<JMethod> callers = callGraph.getCallersOf(method)
+                    .stream()
+                    .map(callGraph::getContainerOf)
+                    .collect(Collectors.toSet());
+            Assert.assertEquals(method.toString(), callers,
+                    Set.copyOf(callGraph.getPredsOf(method)));
+        });
+    }
+}